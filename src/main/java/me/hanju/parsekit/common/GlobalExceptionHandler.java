@@ -8,8 +8,10 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import lombok.extern.slf4j.Slf4j;
 import me.hanju.parsekit.common.exception.BadRequestException;
 import me.hanju.parsekit.common.exception.ParseKitException;
+import me.hanju.parsekit.common.exception.ServiceUnavailableException;
 import me.hanju.parsekit.common.exception.UnsupportedMediaTypeException;
 import me.hanju.parsekit.converter.exception.JodConverterException;
+import me.hanju.parsekit.converter.exception.PdfBoxConverterException;
 import me.hanju.parsekit.converter.exception.PopplerConverterException;
 import me.hanju.parsekit.parser.exception.DoclingClientException;
 import me.hanju.parsekit.parser.exception.TikaParserException;
@@ -38,6 +40,14 @@ public class GlobalExceptionHandler {
         .body(new ErrorResponse("IMAGE_CONVERSION_FAILED", e.getMessage()));
   }
 
+  @ExceptionHandler(PdfBoxConverterException.class)
+  public ResponseEntity<ErrorResponse> handlePdfBoxConverterException(PdfBoxConverterException e) {
+    log.error("PDFBox error", e);
+    return ResponseEntity
+        .status(HttpStatus.UNPROCESSABLE_ENTITY)
+        .body(new ErrorResponse("IMAGE_CONVERSION_FAILED", e.getMessage()));
+  }
+
   @ExceptionHandler(DoclingClientException.class)
   public ResponseEntity<ErrorResponse> handleDoclingClientException(DoclingClientException e) {
     log.error("Docling client error", e);
@@ -78,6 +88,14 @@ public class GlobalExceptionHandler {
         .body(new ErrorResponse("UNSUPPORTED_MEDIA_TYPE", e.getMessage()));
   }
 
+  @ExceptionHandler(ServiceUnavailableException.class)
+  public ResponseEntity<ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException e) {
+    log.warn("Service unavailable: {}", e.getMessage());
+    return ResponseEntity
+        .status(HttpStatus.SERVICE_UNAVAILABLE)
+        .body(new ErrorResponse("SERVICE_UNAVAILABLE", e.getMessage()));
+  }
+
   @ExceptionHandler(ParseKitException.class)
   public ResponseEntity<ErrorResponse> handleParseKitException(ParseKitException e) {
     log.error("ParseKit error", e);
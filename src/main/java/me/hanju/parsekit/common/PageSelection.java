@@ -0,0 +1,159 @@
+package me.hanju.parsekit.common;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import me.hanju.parsekit.common.exception.BadRequestException;
+
+/**
+ * 처리할 페이지 선택 ("1-5,9", "3-" 형식).
+ * 범위는 정렬 후 겹치거나 이어지는 구간끼리 합쳐서 보관한다.
+ *
+ * @param ranges 합쳐진 페이지 구간 목록, 비어 있으면 전체 페이지
+ */
+public record PageSelection(List<PageRange> ranges) {
+
+  /** 전체 페이지 */
+  public static final PageSelection ALL = new PageSelection(List.of());
+
+  /**
+   * 연속된 페이지 구간.
+   *
+   * @param first 첫 페이지 (1부터 시작)
+   * @param last  마지막 페이지 (포함), 끝이 열린 구간이면 Integer.MAX_VALUE
+   */
+  public record PageRange(int first, int last) {
+
+    public boolean isOpenEnded() {
+      return last == Integer.MAX_VALUE;
+    }
+  }
+
+  /**
+   * 페이지 선택 문자열을 파싱한다.
+   *
+   * @param spec 페이지 선택 ("1-5,9", "3-"), null이거나 비어 있으면 전체 페이지
+   * @return 페이지 선택
+   * @throws BadRequestException 형식이 올바르지 않은 경우
+   */
+  public static PageSelection parse(final String spec) {
+    if (spec == null || spec.isBlank()) {
+      return ALL;
+    }
+
+    final List<PageRange> ranges = new ArrayList<>();
+    for (final String token : spec.split(",")) {
+      final String part = token.trim();
+      if (part.isEmpty()) {
+        throw new BadRequestException("Invalid page selection: " + spec);
+      }
+
+      final int dash = part.indexOf('-');
+      final int first;
+      final int last;
+      if (dash < 0) {
+        first = parsePage(part, spec);
+        last = first;
+      } else {
+        first = parsePage(part.substring(0, dash).trim(), spec);
+        final String end = part.substring(dash + 1).trim();
+        last = end.isEmpty() ? Integer.MAX_VALUE : parsePage(end, spec);
+      }
+
+      if (first > last) {
+        throw new BadRequestException("Invalid page range: " + part);
+      }
+      ranges.add(new PageRange(first, last));
+    }
+
+    return new PageSelection(merge(ranges));
+  }
+
+  private static int parsePage(final String value, final String spec) {
+    try {
+      final int page = Integer.parseInt(value);
+      if (page < 1) {
+        throw new BadRequestException("Page numbers start at 1: " + spec);
+      }
+      return page;
+    } catch (final NumberFormatException e) {
+      throw new BadRequestException("Invalid page selection: " + spec);
+    }
+  }
+
+  private static List<PageRange> merge(final List<PageRange> ranges) {
+    final List<PageRange> sorted = new ArrayList<>(ranges);
+    sorted.sort(Comparator.comparingInt(PageRange::first));
+
+    final List<PageRange> merged = new ArrayList<>();
+    for (final PageRange range : sorted) {
+      if (!merged.isEmpty()) {
+        final PageRange previous = merged.get(merged.size() - 1);
+        if (range.first() <= (long) previous.last() + 1) {
+          merged.set(merged.size() - 1, new PageRange(previous.first(), Math.max(previous.last(), range.last())));
+          continue;
+        }
+      }
+      merged.add(range);
+    }
+    return List.copyOf(merged);
+  }
+
+  public boolean isAll() {
+    return ranges.isEmpty();
+  }
+
+  /**
+   * 문서 페이지 수에 맞춰 선택된 구간을 잘라낸다.
+   *
+   * @param totalPages 문서 전체 페이지 수
+   * @return 문서 안에 있는 페이지 구간 목록
+   * @throws BadRequestException 선택된 페이지가 문서에 하나도 없는 경우
+   */
+  public List<PageRange> resolve(final int totalPages) {
+    if (isAll()) {
+      return totalPages > 0 ? List.of(new PageRange(1, totalPages)) : List.of();
+    }
+
+    final List<PageRange> resolved = ranges.stream()
+        .filter(range -> range.first() <= totalPages)
+        .map(range -> new PageRange(range.first(), Math.min(range.last(), totalPages)))
+        .toList();
+
+    if (resolved.isEmpty()) {
+      throw new BadRequestException(
+          "No selected pages in document (" + this + ", document has " + totalPages + " pages)");
+    }
+    return resolved;
+  }
+
+  /**
+   * 문서 페이지 수에 맞춰 선택된 페이지 수를 센다.
+   */
+  public int count(final int totalPages) {
+    return resolve(totalPages).stream()
+        .mapToInt(range -> range.last() - range.first() + 1)
+        .sum();
+  }
+
+  @Override
+  public String toString() {
+    if (isAll()) {
+      return "all";
+    }
+    final StringBuilder builder = new StringBuilder();
+    for (final PageRange range : ranges) {
+      if (!builder.isEmpty()) {
+        builder.append(',');
+      }
+      builder.append(range.first());
+      if (range.isOpenEnded()) {
+        builder.append('-');
+      } else if (range.last() != range.first()) {
+        builder.append('-').append(range.last());
+      }
+    }
+    return builder.toString();
+  }
+}
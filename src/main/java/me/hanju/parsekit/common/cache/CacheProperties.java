@@ -0,0 +1,27 @@
+package me.hanju.parsekit.common.cache;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.util.unit.DataSize;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * {@link TieredCache} 설정. 각 기능의 설정 클래스에 중첩해서 사용한다.
+ */
+@Getter
+@Setter
+public class CacheProperties {
+  /** 캐시 사용 여부 */
+  private boolean enabled = false;
+  /** 메모리 계층의 최대 크기 */
+  private DataSize maxMemorySize = DataSize.ofMegabytes(256);
+  /** 항목 유지 시간, 비어 있거나 0이면 만료하지 않음 */
+  private Duration ttl = Duration.ofHours(1);
+  /** 디스크 계층 디렉토리, 비어 있으면 디스크 계층을 사용하지 않음 */
+  private Path diskDir;
+  /** 디스크 계층의 최대 크기 */
+  private DataSize maxDiskSize = DataSize.ofGigabytes(2);
+}
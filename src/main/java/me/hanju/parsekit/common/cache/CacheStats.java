@@ -0,0 +1,27 @@
+package me.hanju.parsekit.common.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 캐시 적중률과 사용량.
+ */
+public record CacheStats(
+    @JsonProperty("enabled") boolean enabled,
+    @JsonProperty("memory_hits") long memoryHits,
+    @JsonProperty("disk_hits") long diskHits,
+    @JsonProperty("misses") long misses,
+    @JsonProperty("evictions") long evictions,
+    @JsonProperty("memory_entries") int memoryEntries,
+    @JsonProperty("memory_bytes") long memoryBytes,
+    @JsonProperty("disk_bytes") long diskBytes) {
+
+  public static CacheStats disabled() {
+    return new CacheStats(false, 0, 0, 0, 0, 0, 0, 0);
+  }
+
+  @JsonProperty("hit_rate")
+  public double hitRate() {
+    final long requests = memoryHits + diskHits + misses;
+    return requests == 0 ? 0.0 : (double) (memoryHits + diskHits) / requests;
+  }
+}
@@ -0,0 +1,313 @@
+package me.hanju.parsekit.common.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 바이트 배열을 저장하는 2단계 캐시.
+ * 메모리 계층은 전체 크기로 제한되는 LRU이고, 디스크 계층(선택)은 파일 수정 시각 기준으로 오래된 항목부터 지운다.
+ * 두 계층 모두 TTL이 지난 항목은 조회 시 버린다. 디스크에서 찾은 항목은 메모리 계층으로 올린다.
+ */
+@Slf4j
+public class TieredCache {
+
+  private static final HexFormat HEX = HexFormat.of();
+
+  private final String name;
+  private final boolean enabled;
+  private final long maxMemoryBytes;
+  private final long ttlNanos;
+  private final Path diskDir;
+  private final long maxDiskBytes;
+
+  /** 접근 순서로 정렬된 메모리 계층. 모든 접근은 this로 동기화한다. */
+  private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+  private long memoryBytes = 0;
+
+  private final AtomicLong diskBytes = new AtomicLong();
+  private final Object diskEvictionLock = new Object();
+
+  private final AtomicLong memoryHits = new AtomicLong();
+  private final AtomicLong diskHits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  private record Entry(byte[] value, long expiresAt) {
+  }
+
+  public TieredCache(final String name, final CacheProperties properties) {
+    this.name = name;
+    this.enabled = properties.isEnabled();
+    this.maxMemoryBytes = properties.getMaxMemorySize() != null ? properties.getMaxMemorySize().toBytes() : 0;
+    final Duration ttl = properties.getTtl();
+    this.ttlNanos = ttl != null && !ttl.isZero() && !ttl.isNegative() ? ttl.toNanos() : 0;
+    this.diskDir = enabled ? properties.getDiskDir() : null;
+    this.maxDiskBytes = properties.getMaxDiskSize() != null ? properties.getMaxDiskSize().toBytes() : 0;
+
+    if (diskDir != null) {
+      try {
+        Files.createDirectories(diskDir);
+        diskBytes.set(diskFiles().stream().mapToLong(TieredCache::sizeOf).sum());
+      } catch (final IOException e) {
+        throw new IllegalStateException("Cannot use cache directory: " + diskDir, e);
+      }
+    }
+
+    if (enabled) {
+      log.info("Cache '{}' initialized (maxMemoryBytes={}, ttl={}, diskDir={}, maxDiskBytes={}, diskBytes={})",
+          name, maxMemoryBytes, ttl, diskDir, maxDiskBytes, diskBytes.get());
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * 항목을 조회한다.
+   *
+   * @return 저장된 값, 없거나 만료되었으면 null
+   */
+  public byte[] get(final String key) {
+    if (!enabled) {
+      return null;
+    }
+
+    synchronized (this) {
+      final Entry entry = memory.get(key);
+      if (entry != null) {
+        if (!isExpired(entry.expiresAt())) {
+          memoryHits.incrementAndGet();
+          return entry.value();
+        }
+        removeFromMemory(key);
+      }
+    }
+
+    final byte[] value = readFromDisk(key);
+    if (value != null) {
+      diskHits.incrementAndGet();
+      putInMemory(key, value);
+      return value;
+    }
+
+    misses.incrementAndGet();
+    return null;
+  }
+
+  /**
+   * 항목이 있는지 확인한다. 적중률 통계와 LRU 순서에는 영향을 주지 않는다.
+   */
+  public boolean contains(final String key) {
+    if (!enabled) {
+      return false;
+    }
+
+    synchronized (this) {
+      final Entry entry = memory.get(key);
+      if (entry != null && !isExpired(entry.expiresAt())) {
+        return true;
+      }
+    }
+
+    if (diskDir == null) {
+      return false;
+    }
+    final Path path = diskPath(key);
+    try {
+      return Files.exists(path) && !isDiskExpired(path);
+    } catch (final IOException e) {
+      return false;
+    }
+  }
+
+  public void put(final String key, final byte[] value) {
+    if (!enabled) {
+      return;
+    }
+    putInMemory(key, value);
+    writeToDisk(key, value);
+  }
+
+  public synchronized CacheStats stats() {
+    return new CacheStats(enabled, memoryHits.get(), diskHits.get(), misses.get(), evictions.get(),
+        memory.size(), memoryBytes, diskBytes.get());
+  }
+
+  /**
+   * 캐시 키에 사용할 내용 해시 (SHA-256, 16진수).
+   */
+  public static String sha256(final byte[] content) {
+    try {
+      return HEX.formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private boolean isExpired(final long expiresAt) {
+    return ttlNanos > 0 && System.nanoTime() - expiresAt > 0;
+  }
+
+  private synchronized void putInMemory(final String key, final byte[] value) {
+    // 메모리 계층보다 큰 항목은 디스크에만 둔다
+    if (value.length > maxMemoryBytes) {
+      return;
+    }
+
+    final Entry previous = memory.put(key, new Entry(value, System.nanoTime() + ttlNanos));
+    if (previous != null) {
+      memoryBytes -= previous.value().length;
+    }
+    memoryBytes += value.length;
+
+    final Iterator<Map.Entry<String, Entry>> eldest = memory.entrySet().iterator();
+    while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+      memoryBytes -= eldest.next().getValue().value().length;
+      eldest.remove();
+      evictions.incrementAndGet();
+    }
+  }
+
+  private void removeFromMemory(final String key) {
+    final Entry removed = memory.remove(key);
+    if (removed != null) {
+      memoryBytes -= removed.value().length;
+    }
+  }
+
+  private Path diskPath(final String key) {
+    final String hash = sha256(key.getBytes(StandardCharsets.UTF_8));
+    return diskDir.resolve(hash.substring(0, 2)).resolve(hash);
+  }
+
+  private boolean isDiskExpired(final Path path) throws IOException {
+    return ttlNanos > 0
+        && System.currentTimeMillis() - Files.getLastModifiedTime(path).toMillis() > ttlNanos / 1_000_000;
+  }
+
+  private byte[] readFromDisk(final String key) {
+    if (diskDir == null) {
+      return null;
+    }
+
+    final Path path = diskPath(key);
+    try {
+      if (!Files.exists(path)) {
+        return null;
+      }
+      if (isDiskExpired(path)) {
+        deleteFromDisk(path);
+        return null;
+      }
+      final byte[] value = Files.readAllBytes(path);
+      // 디스크 계층의 LRU 순서는 수정 시각으로 관리한다
+      Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+      return value;
+    } catch (final IOException e) {
+      log.warn("Cache '{}' failed to read {}: {}", name, path, e.getMessage());
+      return null;
+    }
+  }
+
+  private void writeToDisk(final String key, final byte[] value) {
+    if (diskDir == null || value.length > maxDiskBytes) {
+      return;
+    }
+
+    final Path path = diskPath(key);
+    try {
+      Files.createDirectories(path.getParent());
+      final long previousSize = Files.exists(path) ? Files.size(path) : 0;
+      final Path temp = Files.createTempFile(path.getParent(), "entry", ".tmp");
+      Files.write(temp, value);
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      diskBytes.addAndGet(value.length - previousSize);
+    } catch (final IOException e) {
+      log.warn("Cache '{}' failed to write {}: {}", name, path, e.getMessage());
+      return;
+    }
+
+    if (diskBytes.get() > maxDiskBytes) {
+      evictFromDisk();
+    }
+  }
+
+  /**
+   * 디스크 계층이 최대 크기의 90% 이하가 될 때까지 오래된 항목부터 지운다.
+   */
+  private void evictFromDisk() {
+    synchronized (diskEvictionLock) {
+      if (diskBytes.get() <= maxDiskBytes) {
+        return;
+      }
+
+      final long target = maxDiskBytes / 10 * 9;
+      final List<Path> files = diskFiles().stream()
+          .sorted(Comparator.comparingLong(TieredCache::lastModified))
+          .toList();
+      for (final Path file : files) {
+        if (diskBytes.get() <= target) {
+          break;
+        }
+        deleteFromDisk(file);
+        evictions.incrementAndGet();
+      }
+    }
+  }
+
+  private void deleteFromDisk(final Path path) {
+    try {
+      final long size = Files.size(path);
+      if (Files.deleteIfExists(path)) {
+        diskBytes.addAndGet(-size);
+      }
+    } catch (final IOException e) {
+      log.warn("Cache '{}' failed to delete {}: {}", name, path, e.getMessage());
+    }
+  }
+
+  private List<Path> diskFiles() {
+    try (Stream<Path> paths = Files.walk(diskDir)) {
+      return paths.filter(Files::isRegularFile)
+          .filter(path -> !path.getFileName().toString().endsWith(".tmp"))
+          .toList();
+    } catch (final IOException e) {
+      log.warn("Cache '{}' failed to list {}: {}", name, diskDir, e.getMessage());
+      return List.of();
+    }
+  }
+
+  private static long sizeOf(final Path path) {
+    try {
+      return Files.size(path);
+    } catch (final IOException e) {
+      return 0;
+    }
+  }
+
+  private static long lastModified(final Path path) {
+    try {
+      return Files.getLastModifiedTime(path).toMillis();
+    } catch (final IOException e) {
+      return 0;
+    }
+  }
+}
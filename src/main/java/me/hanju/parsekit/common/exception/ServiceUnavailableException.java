@@ -0,0 +1,7 @@
+package me.hanju.parsekit.common.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+  public ServiceUnavailableException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,80 @@
+package me.hanju.parsekit.converter.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import me.hanju.parsekit.common.cache.CacheProperties;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "converter")
+public class ConverterProperties {
+
+  /** PDF 페이지 렌더링 엔진 */
+  private RenderEngine engine = RenderEngine.POPPLER;
+  /** 모든 요청이 공유하는 동시 렌더링 워커 수 */
+  private int maxWorkers = Runtime.getRuntime().availableProcessors();
+  /** 워커 하나가 렌더링하는 페이지 수 */
+  private int chunkSize = 8;
+  private ResolutionProperties resolution = new ResolutionProperties();
+  /** 렌더링된 페이지 이미지 캐시 */
+  private CacheProperties cache = new CacheProperties();
+  private PopplerProperties poppler = new PopplerProperties();
+
+  /**
+   * 페이지 크기에 따라 페이지별로 DPI를 조정하는 설정. 모든 값이 0이면 요청된 DPI를 그대로 사용한다.
+   * 최소 DPI를 먼저 적용한 뒤 픽셀 제한으로 낮추므로, 픽셀 제한이 최소 DPI보다 우선한다.
+   */
+  @Getter
+  @Setter
+  public static class ResolutionProperties {
+    /** 페이지 이미지 하나의 최대 픽셀 수 (가로 x 세로), 0이면 제한하지 않음 */
+    private long maxPixels = 0;
+    /** 페이지 이미지 긴 변의 최대 픽셀 수, 0이면 제한하지 않음 */
+    private int maxLongEdge = 0;
+    /** 작은 페이지에 적용할 최소 DPI, 0이면 요청된 DPI를 그대로 사용 */
+    private int minDpi = 0;
+
+    public boolean isAdaptive() {
+      return maxPixels > 0 || maxLongEdge > 0 || minDpi > 0;
+    }
+  }
+
+  @Getter
+  @Setter
+  public static class PopplerProperties {
+    /** 페이지 렌더링 방식 (batch: 범위를 한 프로세스로 렌더링, per-page: 페이지마다 프로세스 실행) */
+    private RenderMode renderMode = RenderMode.BATCH;
+    /** 한 페이지가 렌더링되기까지 기다리는 최대 시간 */
+    private Duration pageTimeout = Duration.ofSeconds(60);
+    /** PDF 입력과 이미지 출력 방식 (file: 임시 파일, pipe: stdin/stdout) */
+    private IoMode ioMode = IoMode.FILE;
+    /** 임시 파일을 만들 디렉토리 (예: tmpfs인 /dev/shm). 비어 있으면 시스템 임시 디렉토리를 사용한다. */
+    private Path scratchDir;
+  }
+
+  public enum RenderEngine {
+    /** poppler-utils(pdftoppm) 프로세스로 렌더링 */
+    POPPLER,
+    /** PDFBox로 JVM 내에서 렌더링 */
+    PDFBOX
+  }
+
+  public enum RenderMode {
+    BATCH,
+    PER_PAGE
+  }
+
+  public enum IoMode {
+    /** 임시 파일로 PDF를 넘기고 이미지를 읽는다 */
+    FILE,
+    /** stdin으로 PDF를 넘기고 stdout에서 이미지를 읽는다 (png, jpeg만 해당, 그 외 형식은 출력만 임시 파일 사용) */
+    PIPE
+  }
+}
@@ -1,6 +1,7 @@
 package me.hanju.parsekit.converter.controller;
 
-import java.util.List;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -20,6 +21,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.hanju.parsekit.common.FileTypeDetector;
 import me.hanju.parsekit.common.FileTypeDetector.FileTypeInfo;
+import me.hanju.parsekit.common.PageSelection;
+import me.hanju.parsekit.common.cache.CacheStats;
 import me.hanju.parsekit.common.exception.BadRequestException;
 import me.hanju.parsekit.converter.dto.PageImageResponse;
 import me.hanju.parsekit.converter.service.ConverterService;
@@ -91,13 +94,15 @@ public class ConverterController {
    * POST /api/convert/images
    *
    * Streams images as NDJSON (one JSON object per line, per page)
+   * Optional pages parameter selects pages to render (e.g. "1-5,9", "3-")
    * Supports: PDF files and documents convertible to PDF
    */
   @PostMapping(value = "/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = "application/x-ndjson")
   public ResponseEntity<StreamingResponseBody> convertToImages(
       @RequestParam("file") final MultipartFile file,
       @RequestParam(value = "format", defaultValue = "png") final String format,
-      @RequestParam(value = "dpi", defaultValue = "150") final int dpi) {
+      @RequestParam(value = "dpi", defaultValue = "150") final int dpi,
+      @RequestParam(value = "pages", required = false) final String pages) {
 
     if (file.isEmpty()) {
       throw new BadRequestException("File is empty");
@@ -105,26 +110,32 @@ public class ConverterController {
 
     final byte[] content = FileTypeDetector.getBytes(file);
     final String filename = file.getOriginalFilename();
+    final PageSelection selection = PageSelection.parse(pages);
 
-    log.info("Received image conversion request for file: {} (format={}, dpi={})", filename, format, dpi);
+    log.info("Received image conversion request for file: {} (format={}, dpi={}, pages={})",
+        filename, format, dpi, selection);
 
     final StreamingResponseBody stream = outputStream -> {
-      final List<PageImage> images = converterService.convertToImages(content, filename, format, dpi);
-
-      for (final PageImage pageImage : images) {
-        final String mimeType = "image/" + pageImage.format();
-        final PageImageResponse response = new PageImageResponse(
-            pageImage.page(),
-            FileTypeDetector.toBase64EncodedUri(mimeType, pageImage.content()),
-            pageImage.size(),
-            pageImage.totalPages());
-
-        final String jsonLine = objectMapper.writeValueAsString(response) + "\n";
-        outputStream.write(jsonLine.getBytes());
-        outputStream.flush();
+      int count = 0;
+      try (Stream<PageImage> images = converterService.streamToImages(content, filename, format, dpi, selection)) {
+        final Iterator<PageImage> iterator = images.iterator();
+        while (iterator.hasNext()) {
+          final PageImage pageImage = iterator.next();
+          final String mimeType = "image/" + pageImage.format();
+          final PageImageResponse response = new PageImageResponse(
+              pageImage.page(),
+              FileTypeDetector.toBase64EncodedUri(mimeType, pageImage.content()),
+              pageImage.size(),
+              pageImage.totalPages());
+
+          final String jsonLine = objectMapper.writeValueAsString(response) + "\n";
+          outputStream.write(jsonLine.getBytes());
+          outputStream.flush();
+          count++;
+        }
       }
 
-      log.info("Successfully streamed {} pages", images.size());
+      log.info("Successfully streamed {} pages", count);
     };
 
     return ResponseEntity.ok()
@@ -132,6 +143,15 @@ public class ConverterController {
         .body(stream);
   }
 
+  /**
+   * Page image cache statistics (hits, misses, size)
+   * GET /api/convert/cache
+   */
+  @GetMapping("/cache")
+  public ResponseEntity<CacheStats> cacheStats() {
+    return ResponseEntity.ok(converterService.getPageCacheStats());
+  }
+
   /**
    * Health check endpoint
    */
@@ -0,0 +1,13 @@
+package me.hanju.parsekit.converter.exception;
+
+import me.hanju.parsekit.common.exception.ParseKitException;
+
+public class PdfBoxConverterException extends ParseKitException {
+  public PdfBoxConverterException(Throwable cause) {
+    super(cause);
+  }
+
+  public PdfBoxConverterException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,153 @@
+package me.hanju.parsekit.converter.renderer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 이어서 기록된 이미지 스트림(pdftoppm stdout)에서 이미지를 하나씩 잘라 읽는다.
+ * PNG는 IEND 청크까지, JPEG는 EOI 마커까지를 이미지 하나로 본다.
+ */
+final class ImageStreamReader {
+
+  private static final byte[] PNG_SIGNATURE = {
+      (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+  private ImageStreamReader() {
+  }
+
+  /**
+   * 다음 이미지를 읽는다.
+   *
+   * @param in     이미지 스트림
+   * @param format 이미지 형식 (png, jpeg)
+   * @return 이미지 바이트, 스트림이 이미지 경계에서 끝났으면 null
+   * @throws IOException 이미지 중간에서 스트림이 끝났거나 형식이 올바르지 않은 경우
+   */
+  static byte[] read(final InputStream in, final String format) throws IOException {
+    return switch (format) {
+      case "png" -> readPng(in);
+      case "jpeg" -> readJpeg(in);
+      default -> throw new IllegalArgumentException("Unsupported stream format: " + format);
+    };
+  }
+
+  private static byte[] readPng(final InputStream in) throws IOException {
+    final int first = in.read();
+    if (first < 0) {
+      return null;
+    }
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(first);
+    copy(in, out, PNG_SIGNATURE.length - 1);
+
+    final byte[] signature = out.toByteArray();
+    for (int i = 0; i < PNG_SIGNATURE.length; i++) {
+      if (signature[i] != PNG_SIGNATURE[i]) {
+        throw new IOException("Invalid PNG signature");
+      }
+    }
+
+    while (true) {
+      final byte[] header = copy(in, out, 8);
+      final long length = ((header[0] & 0xFFL) << 24) | ((header[1] & 0xFF) << 16)
+          | ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+      final String type = new String(header, 4, 4, StandardCharsets.US_ASCII);
+
+      // 청크 데이터 + CRC
+      copy(in, out, Math.toIntExact(length + 4));
+
+      if ("IEND".equals(type)) {
+        return out.toByteArray();
+      }
+    }
+  }
+
+  private static byte[] readJpeg(final InputStream in) throws IOException {
+    final int first = in.read();
+    if (first < 0) {
+      return null;
+    }
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(first);
+    final int second = readByte(in, out);
+    if (first != 0xFF || second != 0xD8) {
+      throw new IOException("Invalid JPEG signature");
+    }
+
+    int marker = nextMarker(in, out);
+    while (true) {
+      if (marker == 0xD9) {
+        return out.toByteArray();
+      }
+
+      // 길이가 없는 마커 (RSTn, TEM)
+      if ((marker >= 0xD0 && marker <= 0xD7) || marker == 0x01) {
+        marker = nextMarker(in, out);
+        continue;
+      }
+
+      final int length = (readByte(in, out) << 8) | readByte(in, out);
+      copy(in, out, length - 2);
+
+      marker = marker == 0xDA ? skipEntropyCodedData(in, out) : nextMarker(in, out);
+    }
+  }
+
+  /**
+   * 마커 앞의 0xFF(채움 바이트 포함)를 건너뛰고 마커 코드를 반환한다.
+   */
+  private static int nextMarker(final InputStream in, final ByteArrayOutputStream out) throws IOException {
+    int b = readByte(in, out);
+    if (b != 0xFF) {
+      throw new IOException("Expected JPEG marker");
+    }
+    while (b == 0xFF) {
+      b = readByte(in, out);
+    }
+    return b;
+  }
+
+  /**
+   * SOS 뒤의 엔트로피 부호화 데이터를 복사하고, 그 뒤에 오는 마커 코드를 반환한다.
+   * 데이터 안의 0xFF는 0xFF00으로 채워져 있고 RSTn 마커는 데이터의 일부로 본다.
+   */
+  private static int skipEntropyCodedData(final InputStream in, final ByteArrayOutputStream out)
+      throws IOException {
+    while (true) {
+      int b = readByte(in, out);
+      if (b != 0xFF) {
+        continue;
+      }
+      do {
+        b = readByte(in, out);
+      } while (b == 0xFF);
+      if (b != 0x00 && (b < 0xD0 || b > 0xD7)) {
+        return b;
+      }
+    }
+  }
+
+  private static int readByte(final InputStream in, final ByteArrayOutputStream out) throws IOException {
+    final int b = in.read();
+    if (b < 0) {
+      throw new EOFException("Image stream ended unexpectedly");
+    }
+    out.write(b);
+    return b;
+  }
+
+  private static byte[] copy(final InputStream in, final ByteArrayOutputStream out, final int length)
+      throws IOException {
+    final byte[] bytes = in.readNBytes(length);
+    if (bytes.length < length) {
+      throw new EOFException("Image stream ended unexpectedly");
+    }
+    out.write(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,97 @@
+package me.hanju.parsekit.converter.renderer;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+import me.hanju.parsekit.converter.exception.PdfBoxConverterException;
+import me.hanju.parsekit.converter.service.PopplerConverterService.PageImage;
+
+/**
+ * PDFBox로 JVM 내에서 렌더링하는 엔진. 프로세스 실행과 임시 파일 없이 바이트 배열에서 바로 렌더링한다.
+ * PDDocument는 스레드 안전하지 않으므로 render() 호출마다 문서를 따로 연다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "converter", name = "engine", havingValue = "pdfbox")
+public class PdfBoxPdfRenderer implements PdfRenderer {
+
+  @Override
+  public Session open(final byte[] pdfBytes) {
+    try (PDDocument document = load(pdfBytes)) {
+      final List<PageSize> pageSizes = new ArrayList<>(document.getNumberOfPages());
+      for (final PDPage page : document.getPages()) {
+        final PDRectangle cropBox = page.getCropBox();
+        pageSizes.add(new PageSize(cropBox.getWidth(), cropBox.getHeight()));
+      }
+      return new PdfBoxSession(pdfBytes, document.getNumberOfPages(), List.copyOf(pageSizes));
+    } catch (final IOException e) {
+      throw new PdfBoxConverterException("open failed", e);
+    }
+  }
+
+  private static PDDocument load(final byte[] pdfBytes) throws IOException {
+    return PDDocument.load(pdfBytes, "", null, null, MemoryUsageSetting.setupMainMemoryOnly());
+  }
+
+  private record PdfBoxSession(byte[] pdfBytes, int totalPages, List<PageSize> pageSizes) implements Session {
+
+    @Override
+    public int pageCount() {
+      return totalPages;
+    }
+
+    @Override
+    public PageSize pageSize(final int page) {
+      return pageSizes.get(page - 1);
+    }
+
+    @Override
+    public void render(final int firstPage, final int lastPage, final String format, final int dpi,
+        final Consumer<PageImage> sink) {
+      try (PDDocument document = load(pdfBytes)) {
+        final PDFRenderer renderer = new PDFRenderer(document);
+
+        for (int page = firstPage; page <= lastPage; page++) {
+          if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException("render interrupted at page " + page);
+          }
+
+          final BufferedImage image = renderer.renderImageWithDPI(page - 1, dpi, ImageType.RGB);
+          final ByteArrayOutputStream out = new ByteArrayOutputStream();
+          if (!ImageIO.write(image, format, out)) {
+            throw new IOException("Unsupported image format: " + format);
+          }
+
+          sink.accept(new PageImage(page, format, out.toByteArray(), totalPages));
+          log.debug("Converted page {}/{}", page, totalPages);
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new PdfBoxConverterException("render failed for pages " + firstPage + "-" + lastPage, e);
+      } catch (final IOException e) {
+        throw new PdfBoxConverterException("render failed for pages " + firstPage + "-" + lastPage, e);
+      }
+    }
+
+    @Override
+    public void close() {
+      // 문서는 render() 호출마다 열고 닫으므로 정리할 자원이 없다.
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package me.hanju.parsekit.converter.renderer;
+
+import java.util.function.Consumer;
+
+import me.hanju.parsekit.converter.service.PopplerConverterService.PageImage;
+
+/**
+ * PDF 페이지 렌더링 엔진.
+ * converter.engine 설정에 따라 Poppler, PDFBox 중 하나의 구현체가 Bean으로 등록된다.
+ */
+public interface PdfRenderer {
+
+  /**
+   * PDF 문서를 열어 렌더링 세션을 만든다.
+   *
+   * @param pdfBytes PDF 파일 내용
+   * @return 렌더링 세션 (사용 후 반드시 닫아야 한다)
+   */
+  Session open(byte[] pdfBytes);
+
+  /**
+   * 렌더링되는 페이지 영역(crop box)의 크기.
+   *
+   * @param width  가로 (포인트, 1/72인치)
+   * @param height 세로 (포인트, 1/72인치)
+   */
+  record PageSize(double width, double height) {
+
+    public double longEdge() {
+      return Math.max(width, height);
+    }
+  }
+
+  /**
+   * 열린 PDF 문서. render()는 여러 워커 스레드에서 동시에 호출될 수 있다.
+   */
+  interface Session extends AutoCloseable {
+
+    /**
+     * @return 문서 전체 페이지 수
+     */
+    int pageCount();
+
+    /**
+     * @param page 페이지 번호 (1부터 시작)
+     * @return 페이지 크기
+     */
+    PageSize pageSize(int page);
+
+    /**
+     * 페이지 범위를 렌더링하여 페이지 순서대로 sink에 전달한다.
+     *
+     * @param firstPage 첫 페이지 (1부터 시작)
+     * @param lastPage  마지막 페이지 (포함)
+     * @param format    이미지 형식 (png, jpeg 등)
+     * @param dpi       해상도
+     * @param sink      렌더링된 페이지를 받을 콜백
+     */
+    void render(int firstPage, int lastPage, String format, int dpi, Consumer<PageImage> sink);
+
+    @Override
+    void close();
+  }
+}
@@ -0,0 +1,502 @@
+package me.hanju.parsekit.converter.renderer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.hanju.parsekit.converter.config.ConverterProperties;
+import me.hanju.parsekit.converter.config.ConverterProperties.IoMode;
+import me.hanju.parsekit.converter.config.ConverterProperties.RenderMode;
+import me.hanju.parsekit.converter.exception.PopplerConverterException;
+import me.hanju.parsekit.converter.service.PopplerConverterService.PageImage;
+
+/**
+ * poppler-utils(pdfinfo, pdftoppm) 프로세스로 렌더링하는 엔진.
+ * io-mode가 pipe이면 PDF를 stdin으로 넘기고 이미지를 stdout에서 바로 읽어 임시 파일을 만들지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "converter", name = "engine", havingValue = "poppler", matchIfMissing = true)
+public class PopplerPdfRenderer implements PdfRenderer {
+
+  private static final long POLL_INTERVAL_MILLIS = 10;
+
+  /** stdout에서 이미지 경계를 구분할 수 있는 형식 */
+  private static final Set<String> PIPE_FORMATS = Set.of("png", "jpeg");
+
+  /** pdfinfo -f/-l 출력의 페이지 크기 줄 (예: "Page    1 size: 612 x 792 pts (letter)") */
+  private static final Pattern PAGE_SIZE_PATTERN = Pattern.compile(
+      "^Page\\s+(\\d+)\\s+size:\\s+([\\d.]+)\\s+x\\s+([\\d.]+)\\s+pts", Pattern.MULTILINE);
+
+  private final ConverterProperties properties;
+
+  @Override
+  public Session open(final byte[] pdfBytes) {
+    if (properties.getPoppler().getIoMode() == IoMode.PIPE) {
+      final PdfInput input = new PdfInput(null, pdfBytes);
+      return new PopplerSession(input, getPdfPageCount(input));
+    }
+
+    final Path tempPdf;
+    try {
+      tempPdf = createTempFile();
+      Files.write(tempPdf, pdfBytes);
+    } catch (final IOException e) {
+      throw new PopplerConverterException("preprocessing failed", e);
+    }
+
+    try {
+      final PdfInput input = new PdfInput(tempPdf, null);
+      return new PopplerSession(input, getPdfPageCount(input));
+    } catch (final RuntimeException e) {
+      cleanup(tempPdf);
+      throw e;
+    }
+  }
+
+  private Path createTempFile() throws IOException {
+    final Path scratchDir = properties.getPoppler().getScratchDir();
+    return scratchDir != null
+        ? Files.createTempFile(scratchDir, "input", ".pdf")
+        : Files.createTempFile("input", ".pdf");
+  }
+
+  private Path createTempDirectory() throws IOException {
+    final Path scratchDir = properties.getPoppler().getScratchDir();
+    return scratchDir != null
+        ? Files.createTempDirectory(scratchDir, "pdf-images")
+        : Files.createTempDirectory("pdf-images");
+  }
+
+  /**
+   * poppler에 넘길 PDF 입력. path가 없으면 bytes를 stdin으로 전달한다.
+   * poppler는 stdin 입력을 끝까지 읽어 캐시한 뒤 렌더링을 시작하므로, 출력을 읽기 전에 입력을 모두 써도 된다.
+   */
+  private record PdfInput(Path path, byte[] bytes) {
+
+    private String arg() {
+      return path != null ? path.toString() : "-";
+    }
+
+    private void feed(final Process process) throws IOException {
+      try (OutputStream stdin = process.getOutputStream()) {
+        if (bytes != null) {
+          stdin.write(bytes);
+        }
+      }
+    }
+  }
+
+  private final class PopplerSession implements Session {
+
+    private final PdfInput input;
+    private final int totalPages;
+    /** 페이지 크기는 필요할 때 처음 한 번만 pdfinfo로 읽는다. */
+    private List<PageSize> pageSizes;
+
+    private PopplerSession(final PdfInput input, final int totalPages) {
+      this.input = input;
+      this.totalPages = totalPages;
+    }
+
+    @Override
+    public int pageCount() {
+      return totalPages;
+    }
+
+    @Override
+    public synchronized PageSize pageSize(final int page) {
+      if (pageSizes == null) {
+        pageSizes = getPageSizes(input, totalPages);
+      }
+      return pageSizes.get(page - 1);
+    }
+
+    @Override
+    public void render(final int firstPage, final int lastPage, final String format, final int dpi,
+        final Consumer<PageImage> sink) {
+      final boolean perPage = properties.getPoppler().getRenderMode() == RenderMode.PER_PAGE;
+
+      if (properties.getPoppler().getIoMode() == IoMode.PIPE && PIPE_FORMATS.contains(format)) {
+        if (perPage) {
+          for (int page = firstPage; page <= lastPage; page++) {
+            convertRangePiped(input, page, page, totalPages, format, dpi, sink);
+          }
+        } else {
+          convertRangePiped(input, firstPage, lastPage, totalPages, format, dpi, sink);
+        }
+        return;
+      }
+
+      final Path outputDir;
+      try {
+        outputDir = createTempDirectory();
+      } catch (final IOException e) {
+        throw new PopplerConverterException("preprocessing failed", e);
+      }
+
+      try {
+        if (perPage) {
+          for (int page = firstPage; page <= lastPage; page++) {
+            final byte[] imageBytes = convertPage(input, page, format, dpi, outputDir);
+            sink.accept(new PageImage(page, format, imageBytes, totalPages));
+            log.debug("Converted page {}/{}", page, totalPages);
+          }
+        } else {
+          convertRange(input, firstPage, lastPage, totalPages, format, dpi, outputDir, sink);
+        }
+      } finally {
+        cleanup(outputDir);
+      }
+    }
+
+    @Override
+    public void close() {
+      cleanup(input.path());
+    }
+  }
+
+  private static int getPdfPageCount(final PdfInput input) {
+    final String output = pdfinfo(input, List.of());
+    for (final String line : output.split("\n")) {
+      if (line.startsWith("Pages:")) {
+        return Integer.parseInt(line.substring(6).trim());
+      }
+    }
+    throw new PopplerConverterException("pdfinfo failed",
+        new IOException("Could not find page count in pdfinfo output"));
+  }
+
+  private static List<PageSize> getPageSizes(final PdfInput input, final int totalPages) {
+    final String output = pdfinfo(input, List.of("-f", "1", "-l", String.valueOf(totalPages)));
+    final List<PageSize> pageSizes = new ArrayList<>(totalPages);
+    final Matcher matcher = PAGE_SIZE_PATTERN.matcher(output);
+    while (matcher.find()) {
+      if (Integer.parseInt(matcher.group(1)) != pageSizes.size() + 1) {
+        break;
+      }
+      pageSizes.add(new PageSize(Double.parseDouble(matcher.group(2)), Double.parseDouble(matcher.group(3))));
+    }
+
+    if (pageSizes.size() != totalPages) {
+      throw new PopplerConverterException("pdfinfo failed",
+          new IOException("Found " + pageSizes.size() + " page sizes for " + totalPages + " pages"));
+    }
+    return List.copyOf(pageSizes);
+  }
+
+  private static String pdfinfo(final PdfInput input, final List<String> options) {
+    final List<String> command = new ArrayList<>();
+    command.add("pdfinfo");
+    command.addAll(options);
+    command.add(input.arg());
+
+    final ProcessBuilder pb = new ProcessBuilder(command);
+    Process process = null;
+    try {
+      process = pb.start();
+      input.feed(process);
+
+      final String output = new String(process.getInputStream().readAllBytes());
+      final boolean exited = process.waitFor(30, TimeUnit.SECONDS);
+
+      if (!exited) {
+        throw new IOException("pdfinfo timed out");
+      }
+
+      if (process.exitValue() != 0) {
+        throw new IOException("pdfinfo failed");
+      }
+      return output;
+
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PopplerConverterException("pdfinfo failed", e);
+    } catch (final IOException e) {
+      throw new PopplerConverterException("pdfinfo failed", e);
+    } finally {
+      if (process != null) {
+        process.destroyForcibly();
+      }
+    }
+  }
+
+  private byte[] convertPage(final PdfInput input, final int page, final String format, final int dpi,
+      final Path outputDir) {
+    final String outputPrefix = outputDir.resolve("page").toString();
+
+    final List<String> command = List.of(
+        "pdftoppm",
+        "-" + format,
+        "-r", String.valueOf(dpi),
+        "-f", String.valueOf(page),
+        "-l", String.valueOf(page),
+        "-singlefile",
+        input.arg(),
+        outputPrefix);
+
+    final ProcessBuilder pb = new ProcessBuilder(command);
+    Process process = null;
+    try {
+      process = pb.start();
+      input.feed(process);
+
+      final boolean exited = process.waitFor(properties.getPoppler().getPageTimeout().toMillis(),
+          TimeUnit.MILLISECONDS);
+      if (!exited) {
+        throw new IOException("pdftoppm timed out for page " + page);
+      }
+
+      if (process.exitValue() != 0) {
+        final String error = new String(process.getErrorStream().readAllBytes());
+        throw new IOException("pdftoppm failed for page " + page + ": " + error);
+      }
+
+      final String extension = format.equals("jpeg") ? "jpg" : format;
+      final Path imagePath = Path.of(outputPrefix + "." + extension);
+
+      if (!Files.exists(imagePath)) {
+        throw new IOException("Output image not found: " + imagePath);
+      }
+
+      final byte[] imageBytes = Files.readAllBytes(imagePath);
+      Files.deleteIfExists(imagePath);
+      return imageBytes;
+
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PopplerConverterException("convertPage failed for page " + page, e);
+    } catch (final IOException e) {
+      throw new PopplerConverterException("convertPage failed for page " + page, e);
+    } finally {
+      if (process != null) {
+        process.destroyForcibly();
+      }
+    }
+  }
+
+  /**
+   * 페이지 범위를 하나의 pdftoppm 프로세스로 렌더링한다.
+   * pdftoppm은 페이지를 순서대로 기록하므로, 다음 페이지 파일이 생기거나 프로세스가 종료되면
+   * 현재 페이지 파일이 완성된 것으로 보고 바로 읽어서 전달한다.
+   */
+  private void convertRange(final PdfInput input, final int firstPage, final int lastPage, final int totalPages,
+      final String format, final int dpi, final Path outputDir, final Consumer<PageImage> sink) {
+    final String outputPrefix = outputDir.resolve("page").toString();
+    final String extension = format.equals("jpeg") ? "jpg" : format;
+    final long pageTimeoutNanos = properties.getPoppler().getPageTimeout().toNanos();
+
+    final List<String> command = List.of(
+        "pdftoppm",
+        "-" + format,
+        "-r", String.valueOf(dpi),
+        "-f", String.valueOf(firstPage),
+        "-l", String.valueOf(lastPage),
+        input.arg(),
+        outputPrefix);
+
+    final Path errorLog = outputDir.resolve("pdftoppm-" + firstPage + ".log");
+    final ProcessBuilder pb = new ProcessBuilder(command)
+        .redirectError(errorLog.toFile());
+    Process process = null;
+    try {
+      process = pb.start();
+      input.feed(process);
+
+      int page = firstPage;
+      long lastProgress = System.nanoTime();
+      while (page <= lastPage) {
+        final boolean exited = !process.isAlive();
+        if (exited && process.exitValue() != 0) {
+          throw new IOException("pdftoppm failed for pages " + firstPage + "-" + lastPage + ": "
+              + Files.readString(errorLog));
+        }
+
+        final Path imagePath = findPageFile(outputPrefix, page, totalPages, lastPage, extension);
+        final boolean complete = imagePath != null
+            && (exited || (page < lastPage
+                && findPageFile(outputPrefix, page + 1, totalPages, lastPage, extension) != null));
+
+        if (complete) {
+          final byte[] imageBytes = Files.readAllBytes(imagePath);
+          Files.deleteIfExists(imagePath);
+          sink.accept(new PageImage(page, format, imageBytes, totalPages));
+          log.debug("Converted page {}/{}", page, totalPages);
+          page++;
+          lastProgress = System.nanoTime();
+          continue;
+        }
+
+        if (exited) {
+          throw new IOException("Output image not found for page " + page);
+        }
+        if (System.nanoTime() - lastProgress > pageTimeoutNanos) {
+          throw new IOException("pdftoppm timed out for page " + page);
+        }
+        Thread.sleep(POLL_INTERVAL_MILLIS);
+      }
+
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PopplerConverterException("convertRange failed for pages " + firstPage + "-" + lastPage, e);
+    } catch (final IOException e) {
+      throw new PopplerConverterException("convertRange failed for pages " + firstPage + "-" + lastPage, e);
+    } finally {
+      if (process != null) {
+        process.destroyForcibly();
+      }
+    }
+  }
+
+  /**
+   * 페이지 범위를 하나의 pdftoppm 프로세스로 렌더링하고, stdout에 이어서 기록되는 이미지를 하나씩 잘라 전달한다.
+   * 블로킹 읽기 중에는 타임아웃이나 취소를 감지할 수 없으므로 감시 스레드가 프로세스를 종료시킨다.
+   */
+  private void convertRangePiped(final PdfInput input, final int firstPage, final int lastPage,
+      final int totalPages, final String format, final int dpi, final Consumer<PageImage> sink) {
+    final long pageTimeoutNanos = properties.getPoppler().getPageTimeout().toNanos();
+
+    final List<String> command = List.of(
+        "pdftoppm",
+        "-" + format,
+        "-r", String.valueOf(dpi),
+        "-f", String.valueOf(firstPage),
+        "-l", String.valueOf(lastPage),
+        input.arg());
+
+    final ProcessBuilder pb = new ProcessBuilder(command);
+    Process process = null;
+    try {
+      process = pb.start();
+      final Process running = process;
+      final CompletableFuture<String> error = drain(process.getErrorStream());
+
+      final Thread worker = Thread.currentThread();
+      final AtomicLong lastProgress = new AtomicLong(System.nanoTime());
+      final AtomicBoolean timedOut = new AtomicBoolean(false);
+      Thread.ofVirtual().start(() -> {
+        while (running.isAlive()) {
+          if (worker.isInterrupted()) {
+            running.destroyForcibly();
+            return;
+          }
+          if (System.nanoTime() - lastProgress.get() > pageTimeoutNanos) {
+            timedOut.set(true);
+            running.destroyForcibly();
+            return;
+          }
+          try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+          } catch (final InterruptedException e) {
+            return;
+          }
+        }
+      });
+
+      input.feed(process);
+
+      try (InputStream stdout = process.getInputStream()) {
+        for (int page = firstPage; page <= lastPage; page++) {
+          final byte[] imageBytes = ImageStreamReader.read(stdout, format);
+          if (imageBytes == null) {
+            if (worker.isInterrupted()) {
+              throw new InterruptedException("pdftoppm cancelled at page " + page);
+            }
+            if (timedOut.get()) {
+              throw new IOException("pdftoppm timed out for page " + page);
+            }
+            throw new IOException("pdftoppm output ended before page " + page + ": " + error.join());
+          }
+          sink.accept(new PageImage(page, format, imageBytes, totalPages));
+          log.debug("Converted page {}/{}", page, totalPages);
+          lastProgress.set(System.nanoTime());
+        }
+      }
+
+      if (!process.waitFor(properties.getPoppler().getPageTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+        throw new IOException("pdftoppm did not exit for pages " + firstPage + "-" + lastPage);
+      }
+      if (process.exitValue() != 0) {
+        throw new IOException("pdftoppm failed for pages " + firstPage + "-" + lastPage + ": " + error.join());
+      }
+
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PopplerConverterException("convertRangePiped failed for pages " + firstPage + "-" + lastPage, e);
+    } catch (final IOException e) {
+      throw new PopplerConverterException("convertRangePiped failed for pages " + firstPage + "-" + lastPage, e);
+    } finally {
+      if (process != null) {
+        process.destroyForcibly();
+      }
+    }
+  }
+
+  /**
+   * stderr 버퍼가 가득 차서 프로세스가 멈추지 않도록 별도 스레드에서 끝까지 읽는다.
+   */
+  private static CompletableFuture<String> drain(final InputStream stream) {
+    final CompletableFuture<String> result = new CompletableFuture<>();
+    Thread.ofVirtual().start(() -> {
+      try (stream) {
+        result.complete(new String(stream.readAllBytes()));
+      } catch (final IOException e) {
+        result.complete("");
+      }
+    });
+    return result;
+  }
+
+  /**
+   * pdftoppm 출력 파일을 찾는다. 페이지 번호는 문서 전체 페이지 수의 자릿수만큼 0으로 채워지며,
+   * 일부 poppler 버전은 마지막 페이지 번호의 자릿수를 사용한다.
+   */
+  private Path findPageFile(final String outputPrefix, final int page, final int totalPages, final int lastPage,
+      final String extension) {
+    for (final int digits : new int[] { String.valueOf(totalPages).length(), String.valueOf(lastPage).length() }) {
+      final Path candidate = Path.of(outputPrefix + "-" + String.format("%0" + digits + "d", page) + "." + extension);
+      if (Files.exists(candidate)) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  private static void cleanup(final Path path) {
+    if (path == null || !Files.exists(path)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(path)) {
+      paths.sorted(Comparator.reverseOrder())
+          .forEach(p -> {
+            try {
+              Files.deleteIfExists(p);
+            } catch (IOException e) {
+              log.warn("Failed to delete {}", p);
+            }
+          });
+    } catch (final IOException e) {
+      log.warn("Cleanup failed", e);
+    }
+  }
+}
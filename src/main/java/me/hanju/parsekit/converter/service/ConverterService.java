@@ -1,6 +1,7 @@
 package me.hanju.parsekit.converter.service;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
 
@@ -8,6 +9,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.hanju.parsekit.common.FileTypeDetector;
 import me.hanju.parsekit.common.FileTypeDetector.FileTypeInfo;
+import me.hanju.parsekit.common.PageSelection;
+import me.hanju.parsekit.common.cache.CacheStats;
 import me.hanju.parsekit.common.exception.BadRequestException;
 import me.hanju.parsekit.common.exception.UnsupportedMediaTypeException;
 import me.hanju.parsekit.converter.service.PopplerConverterService.PageImage;
@@ -89,6 +92,53 @@ public class ConverterService {
    * @return 페이지별 이미지 목록
    */
   public List<PageImage> convertToImages(byte[] content, String filename, String format, int dpi) {
+    return convertToImages(content, filename, format, dpi, PageSelection.ALL);
+  }
+
+  /**
+   * 선택된 페이지만 이미지로 변환한다 (PDF를 거쳐 이미지로 변환).
+   *
+   * @param content  파일 내용
+   * @param filename 원본 파일명
+   * @param format   이미지 형식 (png, jpeg 등)
+   * @param dpi      해상도
+   * @param pages    변환할 페이지 선택
+   * @return 페이지별 이미지 목록
+   */
+  public List<PageImage> convertToImages(byte[] content, String filename, String format, int dpi,
+      PageSelection pages) {
+    try (Stream<PageImage> images = streamToImages(content, filename, format, dpi, pages)) {
+      return images.toList();
+    }
+  }
+
+  /**
+   * 이미지로 변환한다 (PDF를 거쳐 이미지로 변환). 페이지는 렌더링되는 즉시 순서대로 전달된다.
+   * 반환된 스트림은 사용 후 반드시 닫아야 한다.
+   *
+   * @param content  파일 내용
+   * @param filename 원본 파일명
+   * @param format   이미지 형식 (png, jpeg 등)
+   * @param dpi      해상도
+   * @return 페이지별 이미지 스트림
+   */
+  public Stream<PageImage> streamToImages(byte[] content, String filename, String format, int dpi) {
+    return streamToImages(content, filename, format, dpi, PageSelection.ALL);
+  }
+
+  /**
+   * 선택된 페이지만 이미지로 변환한다 (PDF를 거쳐 이미지로 변환). 페이지는 렌더링되는 즉시 순서대로 전달된다.
+   * 반환된 스트림은 사용 후 반드시 닫아야 한다.
+   *
+   * @param content  파일 내용
+   * @param filename 원본 파일명
+   * @param format   이미지 형식 (png, jpeg 등)
+   * @param dpi      해상도
+   * @param pages    변환할 페이지 선택
+   * @return 페이지별 이미지 스트림
+   */
+  public Stream<PageImage> streamToImages(byte[] content, String filename, String format, int dpi,
+      PageSelection pages) {
     final FileTypeInfo info = FileTypeDetector.detect(content, filename);
 
     final byte[] pdfBytes = switch (info.category()) {
@@ -103,7 +153,14 @@ public class ConverterService {
             "Unsupported file type for image conversion: " + filename);
     };
 
-    log.info("Converting to images: {} (format={}, dpi={})", filename, format, dpi);
-    return popplerService.convertPdfToImages(pdfBytes, format, dpi);
+    log.info("Converting to images: {} (format={}, dpi={}, pages={})", filename, format, dpi, pages);
+    return popplerService.streamPdfToImages(pdfBytes, format, dpi, pages);
+  }
+
+  /**
+   * 페이지 이미지 캐시 통계를 반환한다.
+   */
+  public CacheStats getPageCacheStats() {
+    return popplerService.getPageCacheStats();
   }
 }
@@ -1,164 +1,410 @@
 package me.hanju.parsekit.converter.service;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import me.hanju.parsekit.common.PageSelection;
+import me.hanju.parsekit.common.PageSelection.PageRange;
+import me.hanju.parsekit.common.cache.CacheStats;
+import me.hanju.parsekit.common.cache.TieredCache;
+import me.hanju.parsekit.converter.config.ConverterProperties;
+import me.hanju.parsekit.converter.config.ConverterProperties.ResolutionProperties;
 import me.hanju.parsekit.converter.exception.PopplerConverterException;
+import me.hanju.parsekit.converter.renderer.PdfRenderer;
 
+/**
+ * PDF를 페이지 이미지로 변환하는 서비스.
+ * 페이지 범위를 chunk로 나누어 공유 워커 풀에서 렌더링하며, 실제 렌더링은 설정된 {@link PdfRenderer} 엔진이 담당한다.
+ * converter.resolution이 설정되면 페이지 크기에 맞춰 페이지별 DPI를 계산한다.
+ * converter.cache가 켜져 있으면 PDF 내용 해시, 페이지, DPI, 형식을 키로 렌더링된 페이지를 캐시하고
+ * 캐시에 없는 페이지만 렌더링한다.
+ */
 @Slf4j
 @Service
 public class PopplerConverterService {
 
-  public List<PageImage> convertPdfToImages(final byte[] pdfBytes, final String format, final int dpi) {
-    log.info("Converting PDF to images (format={}, dpi={})", format, dpi);
+  private static final long POLL_INTERVAL_MILLIS = 10;
 
-    final Path tempPdf;
-    final Path tempDir;
+  private final ConverterProperties properties;
+  private final PdfRenderer renderer;
 
-    try {
-      tempPdf = Files.createTempFile("input", ".pdf");
-      tempDir = Files.createTempDirectory("pdf-images");
-    } catch (IOException e) {
-      throw new PopplerConverterException("preprocessing failed", e);
-    }
+  /** 모든 요청이 공유하는 렌더링 워커 풀. 동시에 실행되는 렌더링 작업 수를 제한한다. */
+  private final ExecutorService renderExecutor;
 
-    try {
-      Files.write(tempPdf, pdfBytes);
+  /** 렌더링된 페이지 이미지 캐시 */
+  private final TieredCache pageCache;
 
-      final int totalPages = getPdfPageCount(tempPdf);
-      log.debug("PDF has {} pages", totalPages);
+  public PopplerConverterService(final ConverterProperties properties, final PdfRenderer renderer) {
+    this.properties = properties;
+    this.renderer = renderer;
 
-      final List<PageImage> result = new ArrayList<>();
-      final String imageFormat = format.equalsIgnoreCase("jpg") ? "jpeg" : format.toLowerCase();
+    final int maxWorkers = Math.max(1, properties.getMaxWorkers());
+    final AtomicInteger threadCount = new AtomicInteger(0);
+    this.renderExecutor = Executors.newFixedThreadPool(maxWorkers, runnable -> {
+      final Thread thread = new Thread(runnable, "pdf-render-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.pageCache = new TieredCache("page-images", properties.getCache());
 
-      for (int page = 1; page <= totalPages; page++) {
-        final byte[] imageBytes = convertPage(tempPdf, page, imageFormat, dpi, tempDir);
-        result.add(new PageImage(page, imageFormat, imageBytes, totalPages));
-        log.debug("Converted page {}/{}", page, totalPages);
-      }
+    final ResolutionProperties resolution = properties.getResolution();
+    log.info("PopplerConverterService initialized (engine={}, maxWorkers={}, chunkSize={}, "
+        + "maxPixels={}, maxLongEdge={}, minDpi={})",
+        properties.getEngine(), maxWorkers, properties.getChunkSize(),
+        resolution.getMaxPixels(), resolution.getMaxLongEdge(), resolution.getMinDpi());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    renderExecutor.shutdownNow();
+  }
 
+  public CacheStats getPageCacheStats() {
+    return pageCache.stats();
+  }
+
+  public List<PageImage> convertPdfToImages(final byte[] pdfBytes, final String format, final int dpi) {
+    return convertPdfToImages(pdfBytes, format, dpi, PageSelection.ALL);
+  }
+
+  public List<PageImage> convertPdfToImages(final byte[] pdfBytes, final String format, final int dpi,
+      final PageSelection pages) {
+    try (Stream<PageImage> images = streamPdfToImages(pdfBytes, format, dpi, pages)) {
+      final List<PageImage> result = images.toList();
       log.info("Converted PDF to {} images", result.size());
       return result;
-
-    } catch (final IOException e) {
-      throw new PopplerConverterException("convertPdfToImages failed", e);
-    } finally {
-      this.cleanup(tempPdf, tempDir);
     }
   }
 
-  private int getPdfPageCount(final Path pdfPath) {
-    final ProcessBuilder pb = new ProcessBuilder("pdfinfo", pdfPath.toString());
-    Process process = null;
+  /**
+   * PDF를 페이지 이미지 스트림으로 변환한다. 페이지는 렌더링되는 즉시 순서대로 전달되며,
+   * 렌더링 프로세스와 임시 파일을 정리하기 위해 사용 후 반드시 스트림을 닫아야 한다.
+   */
+  public Stream<PageImage> streamPdfToImages(final byte[] pdfBytes, final String format, final int dpi) {
+    return streamPdfToImages(pdfBytes, format, dpi, PageSelection.ALL);
+  }
+
+  /**
+   * PDF의 선택된 페이지만 이미지 스트림으로 변환한다. 선택되지 않은 페이지는 렌더링하지 않는다.
+   *
+   * @param pages 렌더링할 페이지 선택, 문서 범위를 벗어난 페이지는 무시한다
+   * @throws me.hanju.parsekit.common.exception.BadRequestException 선택된 페이지가 문서에 하나도 없는 경우
+   */
+  public Stream<PageImage> streamPdfToImages(final byte[] pdfBytes, final String format, final int dpi,
+      final PageSelection pages) {
+    log.info("Converting PDF to images (format={}, dpi={}, pages={})", format, dpi, pages);
+
+    final String imageFormat = format.equalsIgnoreCase("jpg") ? "jpeg" : format.toLowerCase();
+    if (pageCache.isEnabled()) {
+      final CachedPageIterator iterator = new CachedPageIterator(pdfBytes, imageFormat, dpi, pages);
+      return toStream(iterator, iterator.selectedPages, iterator::close);
+    }
+
+    final PdfRenderer.Session session = renderer.open(pdfBytes);
+    final PageIterator iterator;
     try {
-      process = pb.start();
+      log.debug("PDF has {} pages", session.pageCount());
+      iterator = new PageIterator(session, imageFormat, dpi, pages.resolve(session.pageCount()));
+    } catch (final RuntimeException e) {
+      session.close();
+      throw e;
+    }
+    return toStream(iterator, iterator.selectedPages, iterator::close);
+  }
+
+  private static Stream<PageImage> toStream(final Iterator<PageImage> iterator, final int size,
+      final Runnable onClose) {
+    return StreamSupport.stream(
+        Spliterators.spliterator(iterator, size, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL),
+        false)
+        .onClose(onClose);
+  }
+
+  /**
+   * 페이지 크기에 맞춰 실제로 렌더링할 DPI를 계산한다.
+   * 최소 DPI로 올린 뒤 긴 변과 픽셀 수 제한을 넘지 않도록 낮춘다. 결과는 최소 1이다.
+   *
+   * @param pageSize     페이지 크기 (포인트)
+   * @param requestedDpi 요청된 DPI
+   * @return 페이지에 적용할 DPI
+   */
+  int resolveDpi(final PdfRenderer.PageSize pageSize, final int requestedDpi) {
+    final ResolutionProperties resolution = properties.getResolution();
+    double dpi = Math.max(requestedDpi, resolution.getMinDpi());
+
+    final double widthInches = pageSize.width() / 72.0;
+    final double heightInches = pageSize.height() / 72.0;
+    if (widthInches <= 0 || heightInches <= 0) {
+      return requestedDpi;
+    }
+
+    if (resolution.getMaxLongEdge() > 0) {
+      dpi = Math.min(dpi, resolution.getMaxLongEdge() / Math.max(widthInches, heightInches));
+    }
+    if (resolution.getMaxPixels() > 0) {
+      dpi = Math.min(dpi, Math.sqrt(resolution.getMaxPixels() / (widthInches * heightInches)));
+    }
+    return Math.max(1, (int) Math.floor(dpi));
+  }
+
+  private int pageDpi(final PdfRenderer.Session session, final int page, final int requestedDpi) {
+    return properties.getResolution().isAdaptive()
+        ? resolveDpi(session.pageSize(page), requestedDpi)
+        : requestedDpi;
+  }
+
+  /**
+   * 캐시에 있는 페이지는 캐시에서 꺼내고, 없는 페이지만 {@link PageIterator}로 렌더링하여 페이지 순서대로 합치는 이터레이터.
+   * 문서 페이지 수도 캐시하므로 모든 페이지가 캐시에 있으면 PDF를 열지 않는다.
+   */
+  private final class CachedPageIterator implements Iterator<PageImage> {
+
+    private final byte[] pdfBytes;
+    private final String documentHash;
+    private final String format;
+    private final int dpi;
+    private final int totalPages;
+    private final int selectedPages;
+    private final PrimitiveIterator.OfInt pageNumbers;
+    /** 렌더링해야 하는 (캐시에 없는) 페이지 */
+    private final BitSet missingPages = new BitSet();
+    private PdfRenderer.Session session;
+    private PageIterator rendered;
 
-      final String output = new String(process.getInputStream().readAllBytes());
-      final boolean exited = process.waitFor(30, TimeUnit.SECONDS);
+    private CachedPageIterator(final byte[] pdfBytes, final String format, final int dpi,
+        final PageSelection pages) {
+      this.pdfBytes = pdfBytes;
+      this.documentHash = TieredCache.sha256(pdfBytes);
+      this.format = format;
+      this.dpi = dpi;
 
-      if (!exited) {
-        throw new IOException("pdfinfo timed out");
+      try {
+        final String pageCountKey = documentHash + ":pages";
+        final byte[] cachedPageCount = pageCache.get(pageCountKey);
+        if (cachedPageCount != null) {
+          this.totalPages = Integer.parseInt(new String(cachedPageCount, StandardCharsets.US_ASCII));
+        } else {
+          this.totalPages = openSession().pageCount();
+          pageCache.put(pageCountKey, String.valueOf(totalPages).getBytes(StandardCharsets.US_ASCII));
+        }
+        log.debug("PDF has {} pages", totalPages);
+
+        final List<PageRange> ranges = pages.resolve(totalPages);
+        final List<PageRange> missingRanges = new ArrayList<>();
+        int selected = 0;
+        for (final PageRange range : ranges) {
+          for (int page = range.first(); page <= range.last(); page++) {
+            selected++;
+            if (pageCache.contains(pageKey(page))) {
+              continue;
+            }
+            missingPages.set(page);
+            final int last = missingRanges.size() - 1;
+            if (last >= 0 && missingRanges.get(last).last() == page - 1) {
+              missingRanges.set(last, new PageRange(missingRanges.get(last).first(), page));
+            } else {
+              missingRanges.add(new PageRange(page, page));
+            }
+          }
+        }
+        this.selectedPages = selected;
+        this.pageNumbers = ranges.stream()
+            .flatMapToInt(range -> IntStream.rangeClosed(range.first(), range.last()))
+            .iterator();
+
+        log.debug("Page cache: {}/{} selected pages cached", selected - missingPages.cardinality(), selected);
+        if (!missingRanges.isEmpty()) {
+          rendered = new PageIterator(openSession(), format, dpi, missingRanges);
+        }
+      } catch (final RuntimeException e) {
+        close();
+        throw e;
       }
+    }
+
+    private String pageKey(final int page) {
+      final ResolutionProperties resolution = properties.getResolution();
+      final String key = documentHash + ":" + page + ":" + format + ":" + dpi;
+      return resolution.isAdaptive()
+          ? key + ":" + resolution.getMaxPixels() + "/" + resolution.getMaxLongEdge() + "/" + resolution.getMinDpi()
+          : key;
+    }
 
-      if (process.exitValue() != 0) {
-        throw new IOException("pdfinfo failed");
+    private PdfRenderer.Session openSession() {
+      if (session == null) {
+        session = renderer.open(pdfBytes);
       }
+      return session;
+    }
 
-      for (final String line : output.split("\n")) {
-        if (line.startsWith("Pages:")) {
-          return Integer.parseInt(line.substring(6).trim());
-        }
+    @Override
+    public boolean hasNext() {
+      return pageNumbers.hasNext();
+    }
+
+    @Override
+    public PageImage next() {
+      final int page = pageNumbers.nextInt();
+
+      if (missingPages.get(page)) {
+        final PageImage image = rendered.next();
+        pageCache.put(pageKey(page), image.content());
+        return image;
       }
-      throw new IOException("Could not find page count in pdfinfo output");
-
-    } catch (final InterruptedException e) {
-      Thread.currentThread().interrupt();
-      throw new PopplerConverterException("getPdfPageCount failed", e);
-    } catch (final IOException e) {
-      throw new PopplerConverterException("getPdfPageCount failed", e);
-    } finally {
-      if (process != null) {
-        process.destroyForcibly();
+
+      byte[] content = pageCache.get(pageKey(page));
+      if (content == null) {
+        // 캐시 확인 이후 밀려난 페이지는 바로 렌더링한다
+        final List<PageImage> images = new ArrayList<>(1);
+        final PdfRenderer.Session current = openSession();
+        current.render(page, page, format, pageDpi(current, page, dpi), images::add);
+        content = images.get(0).content();
+        pageCache.put(pageKey(page), content);
+      }
+      return new PageImage(page, format, content, totalPages);
+    }
+
+    private void close() {
+      if (rendered != null) {
+        rendered.close();
+      } else if (session != null) {
+        session.close();
       }
     }
   }
 
-  private byte[] convertPage(final Path pdfPath, final int page, final String format, final int dpi,
-      final Path outputDir) {
-    final String outputPrefix = outputDir.resolve("page").toString();
-
-    final List<String> command = List.of(
-        "pdftoppm",
-        "-" + format,
-        "-r", String.valueOf(dpi),
-        "-f", String.valueOf(page),
-        "-l", String.valueOf(page),
-        "-singlefile",
-        pdfPath.toString(),
-        outputPrefix);
-
-    final ProcessBuilder pb = new ProcessBuilder(command);
-    Process process = null;
-    try {
-      process = pb.start();
+  /**
+   * 선택된 페이지 구간을 chunk-size 단위로 나누어 공유 워커 풀에서 렌더링하면서 페이지 순서대로 꺼내는 이터레이터.
+   * 메모리에 쌓이는 페이지 수를 제한하기 위해 동시에 제출하는 chunk 수는 max-workers로 제한한다.
+   * 페이지별 DPI가 다르면 같은 DPI의 연속된 페이지끼리 chunk를 나눈다.
+   */
+  private final class PageIterator implements Iterator<PageImage> {
 
-      final boolean exited = process.waitFor(60, TimeUnit.SECONDS);
-      if (!exited) {
-        throw new IOException("pdftoppm timed out for page " + page);
-      }
+    private final PdfRenderer.Session session;
+    private final int selectedPages;
+    private final String format;
+    private final int dpi;
+    private final int chunkSize = Math.max(1, properties.getChunkSize());
+    private final int lookahead = Math.max(1, properties.getMaxWorkers());
+    private final Deque<PageRange> pendingRanges;
+    private final Deque<RenderChunk> chunks = new ArrayDeque<>();
+    private int returnedPages = 0;
+
+    private PageIterator(final PdfRenderer.Session session, final String format, final int dpi,
+        final List<PageRange> ranges) {
+      this.session = session;
+      this.selectedPages = ranges.stream().mapToInt(range -> range.last() - range.first() + 1).sum();
+      this.format = format;
+      this.dpi = dpi;
+      this.pendingRanges = new ArrayDeque<>(ranges);
+      this.submitChunks();
+    }
 
-      if (process.exitValue() != 0) {
-        final String error = new String(process.getErrorStream().readAllBytes());
-        throw new IOException("pdftoppm failed for page " + page + ": " + error);
+    private void submitChunks() {
+      while (chunks.size() < lookahead && !pendingRanges.isEmpty()) {
+        final PageRange range = pendingRanges.removeFirst();
+        final int firstPage = range.first();
+        final int chunkDpi = pageDpi(session, firstPage, dpi);
+        int lastPage = firstPage;
+        while (lastPage < range.last() && lastPage - firstPage + 1 < chunkSize
+            && pageDpi(session, lastPage + 1, dpi) == chunkDpi) {
+          lastPage++;
+        }
+        if (lastPage < range.last()) {
+          pendingRanges.addFirst(new PageRange(lastPage + 1, range.last()));
+        }
+
+        if (chunkDpi != dpi) {
+          log.debug("Rendering pages {}-{} at {} dpi (requested {})", firstPage, lastPage, chunkDpi, dpi);
+        }
+        final int chunkLastPage = lastPage;
+        final BlockingQueue<PageImage> pages = new LinkedBlockingQueue<>();
+        final Future<?> future = renderExecutor.submit(
+            () -> session.render(firstPage, chunkLastPage, format, chunkDpi, pages::add));
+        chunks.addLast(new RenderChunk(chunkLastPage, pages, future));
       }
+    }
 
-      final String extension = format.equals("jpeg") ? "jpg" : format;
-      final Path imagePath = Path.of(outputPrefix + "." + extension);
+    @Override
+    public boolean hasNext() {
+      return returnedPages < selectedPages;
+    }
 
-      if (!Files.exists(imagePath)) {
-        throw new IOException("Output image not found: " + imagePath);
+    @Override
+    public PageImage next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
       }
 
-      final byte[] imageBytes = Files.readAllBytes(imagePath);
-      Files.deleteIfExists(imagePath);
-      return imageBytes;
-
-    } catch (final InterruptedException e) {
-      Thread.currentThread().interrupt();
-      throw new PopplerConverterException("convertPage failed for page " + page, e);
-    } catch (final IOException e) {
-      throw new PopplerConverterException("convertPage failed for page " + page, e);
-    } finally {
-      if (process != null) {
-        process.destroyForcibly();
+      final RenderChunk chunk = chunks.getFirst();
+      final PageImage page = chunk.take();
+      returnedPages++;
+      if (page.page() == chunk.lastPage()) {
+        chunks.removeFirst();
+        submitChunks();
       }
+      return page;
+    }
+
+    private void close() {
+      chunks.forEach(chunk -> chunk.future().cancel(true));
+      chunks.clear();
+      session.close();
     }
   }
 
-  private void cleanup(final Path tempPdf, final Path tempDir) {
-    try {
-      if (tempPdf != null)
-        Files.deleteIfExists(tempPdf);
-      if (tempDir != null) {
-        Files.walk(tempDir)
-            .sorted((a, b) -> b.compareTo(a))
-            .forEach(path -> {
-              try {
-                Files.deleteIfExists(path);
-              } catch (IOException e) {
-                log.warn("Failed to delete {}", path);
-              }
-            });
+  private record RenderChunk(int lastPage, BlockingQueue<PageImage> pages, Future<?> future) {
+
+    private PageImage take() {
+      try {
+        while (true) {
+          final PageImage page = pages.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+          if (page != null) {
+            return page;
+          }
+          if (future.isDone()) {
+            final PageImage remaining = pages.poll();
+            if (remaining != null) {
+              return remaining;
+            }
+            future.get();
+            throw new PopplerConverterException("renderChunk finished without page",
+                new IllegalStateException("Missing page before " + lastPage));
+          }
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new PopplerConverterException("renderChunk interrupted", e);
+      } catch (final ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+          throw cause;
+        }
+        throw new PopplerConverterException("renderChunk failed", e.getCause());
       }
-    } catch (final IOException e) {
-      log.warn("Cleanup failed", e);
     }
   }
 
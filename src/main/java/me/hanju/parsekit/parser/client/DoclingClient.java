@@ -1,26 +1,65 @@
 package me.hanju.parsekit.parser.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
 import lombok.extern.slf4j.Slf4j;
+import me.hanju.parsekit.common.PageSelection;
+import me.hanju.parsekit.common.PageSelection.PageRange;
+import me.hanju.parsekit.common.exception.ServiceUnavailableException;
+import me.hanju.parsekit.parser.client.endpoint.Endpoint;
+import me.hanju.parsekit.parser.client.endpoint.EndpointPool;
+import me.hanju.parsekit.parser.client.endpoint.EndpointStats;
+import me.hanju.parsekit.parser.client.endpoint.LoadBalancer;
+import me.hanju.parsekit.parser.client.endpoint.LoadBalancer.LoadBalancerType;
 import me.hanju.parsekit.parser.config.ParserProperties;
+import me.hanju.parsekit.parser.config.ParserProperties.DoclingAsyncProperties;
+import me.hanju.parsekit.parser.config.ParserProperties.FailoverProperties;
+import me.hanju.parsekit.parser.dto.BatchFile;
+import me.hanju.parsekit.parser.dto.BatchParseResult;
 import me.hanju.parsekit.parser.dto.DoclingConvertResponse;
+import me.hanju.parsekit.parser.dto.DoclingTaskStatus;
 import me.hanju.parsekit.parser.dto.ParseResult;
 import me.hanju.parsekit.parser.exception.DoclingClientException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @Slf4j
 @Component
@@ -28,9 +67,24 @@ import me.hanju.parsekit.parser.exception.DoclingClientException;
 @ConditionalOnProperty(prefix = "parser.docling", name = "base-urls[0]")
 public class DoclingClient {
 
-  private final List<WebClient> webClients;
-  private final AtomicInteger counter = new AtomicInteger(0);
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+  private final EndpointPool<DoclingEndpoint> pool;
   private final Duration timeout;
+  private final boolean asyncEnabled;
+  private final Duration asyncTimeout;
+  private final Duration pollInterval;
+  private final Duration maxPollInterval;
+  private final double pollBackoff;
+  private final int batchMaxFiles;
+  private final long batchMaxBytes;
+  private final int batchConcurrency;
+  private final int chunkPages;
+  private final int chunkConcurrency;
+  private final long imageStoreMaxMemory;
+  private final Path imageStoreSpillDir;
+  private final boolean referencedImages;
 
   public DoclingClient(ParserProperties properties) {
     ParserProperties.DoclingProperties docling = properties.getDocling();
@@ -40,22 +94,64 @@ public class DoclingClient {
         .codecs(config -> config.defaultCodecs().maxInMemorySize(bufferSize))
         .build();
 
-    this.webClients = docling.getBaseUrls().stream()
+    final FailoverProperties failover = docling.getFailover();
+    final List<DoclingEndpoint> endpoints = docling.getBaseUrls().stream()
         .filter(url -> url != null && !url.isBlank())
-        .map(url -> WebClient.builder()
-            .baseUrl(url)
-            .exchangeStrategies(strategies)
-            .build())
+        .map(url -> new DoclingEndpoint(
+            WebClient.builder()
+                .baseUrl(url)
+                .exchangeStrategies(strategies)
+                .build(),
+            new Endpoint(url, 1, docling.getConcurrencyLimit().createLimiter(docling.getMaxConcurrency()),
+                failover.createCircuitBreaker())))
         .toList();
+    final Duration queueTimeout = docling.getConcurrencyLimit().getQueueTimeout() != null
+        ? docling.getConcurrencyLimit().getQueueTimeout()
+        : Duration.ofSeconds(30);
+    this.pool = new EndpointPool<>("Docling", endpoints, DoclingEndpoint::endpoint,
+        LoadBalancer.create(LoadBalancerType.ROUND_ROBIN), queueTimeout, failover.createRetryBudget(),
+        failover.getMaxAttempts());
+    if (failover.isHealthCheckEnabled()) {
+      pool.startHealthChecks(
+          endpoint -> endpoint.client().get().uri(failover.getHealthCheckPath()).retrieve().toBodilessEntity(),
+          failover.getHealthCheckInterval(), failover.getHealthCheckTimeout());
+    }
 
     this.timeout = docling.getTimeout() != null ? docling.getTimeout() : Duration.ofMinutes(5);
+    this.imageStoreMaxMemory = docling.getImageStore().getMaxMemorySize().toBytes();
+    this.imageStoreSpillDir = docling.getImageStore().getSpillDir();
+    this.referencedImages = docling.getImageStore().isReferenced();
+    final DoclingAsyncProperties async = docling.getAsync();
+    this.asyncEnabled = async.isEnabled();
+    this.asyncTimeout = async.getTimeout() != null ? async.getTimeout() : Duration.ofMinutes(30);
+    this.pollInterval = async.getPollInterval() != null && !async.getPollInterval().isZero()
+        ? async.getPollInterval()
+        : Duration.ofSeconds(1);
+    this.maxPollInterval = async.getMaxPollInterval() != null && async.getMaxPollInterval().compareTo(pollInterval) > 0
+        ? async.getMaxPollInterval()
+        : pollInterval;
+    this.pollBackoff = Math.max(1, async.getBackoffMultiplier());
+    this.batchMaxFiles = Math.max(1, docling.getBatch().getMaxFiles());
+    this.batchMaxBytes = docling.getBatch().getMaxSize().toBytes();
+    this.batchConcurrency = docling.getBatch().getConcurrency() > 0
+        ? docling.getBatch().getConcurrency()
+        : Math.max(1, endpoints.size());
+    this.chunkPages = Math.max(0, docling.getChunk().getPages());
+    this.chunkConcurrency = docling.getChunk().getConcurrency() > 0
+        ? docling.getChunk().getConcurrency()
+        : Math.max(1, endpoints.size());
+
+    log.info("DoclingClient initialized with {} servers (maxAttempts: {}, async: {}): {}", endpoints.size(),
+        failover.getMaxAttempts(), asyncEnabled, docling.getBaseUrls());
+  }
 
-    log.info("DoclingClient initialized with {} servers: {}", webClients.size(), docling.getBaseUrls());
+  @PreDestroy
+  public void shutdown() {
+    pool.close();
   }
 
-  private WebClient getNextClient() {
-    int index = Math.abs(counter.getAndIncrement() % webClients.size());
-    return webClients.get(index);
+  public List<EndpointStats> getEndpointStats() {
+    return pool.getStats();
   }
 
   /**
@@ -71,6 +167,127 @@ public class DoclingClient {
    * @param imageMode "placeholder", "embedded", or "referenced"
    */
   public ParseResult parse(byte[] fileBytes, String filename, String imageMode) {
+    return parse(fileBytes, filename, imageMode, PageSelection.ALL);
+  }
+
+  /**
+   * Parse selected pages of document to markdown.
+   * 선택된 페이지 구간마다 page_range를 지정해 요청하고 결과를 페이지 순서대로 이어 붙인다.
+   * page_range는 PDF처럼 페이지 구분이 있는 문서에만 적용된다.
+   * chunk.pages가 설정되어 있고 선택된 페이지가 그보다 많은 PDF는 chunk.pages 페이지씩 나누어 최대 chunk.concurrency개를
+   * 동시에 요청하므로 여러 서버에서 나누어 파싱한다.
+   *
+   * @param imageMode "placeholder", "embedded", or "referenced"
+   * @param pages     parse only these pages
+   */
+  public ParseResult parse(byte[] fileBytes, String filename, String imageMode, PageSelection pages) {
+    return parse(fileBytes, filename, imageMode, pages, null);
+  }
+
+  /**
+   * Parse selected pages of document to markdown, moving images out of the response.
+   * 응답을 받는 대로 읽으면서 이미지를 images에 넣고, 마크다운에는 {@code ![alt](parsekit-image:N)} 참조만 남긴다.
+   * image-store.referenced이면 referenced 모드의 ZIP 응답에서 이미지 파일을 그대로 옮기고,
+   * 아니면 embedded 모드 응답의 Base64 이미지를 디코딩해 옮긴다.
+   * 응답 전체나 Base64 문자열을 메모리에 올리지 않으므로 이미지가 많은 문서도 max-buffer-size에 걸리지 않는다.
+   *
+   * @param pages  parse only these pages
+   * @param images 꺼낸 이미지를 넣을 보관소
+   */
+  public ParseResult parse(byte[] fileBytes, String filename, PageSelection pages, ImageStore images) {
+    return parse(fileBytes, filename, referencedImages ? "referenced" : "embedded", pages, images);
+  }
+
+  /**
+   * 이미지를 꺼내 보관할 보관소를 만든다. 다 쓰면 닫아야 한다.
+   */
+  public ImageStore newImageStore() {
+    return new ImageStore(imageStoreMaxMemory, imageStoreSpillDir);
+  }
+
+  private ParseResult parse(byte[] fileBytes, String filename, String imageMode, PageSelection pages,
+      ImageStore images) {
+    final int totalPages = isPdf(fileBytes) && (chunkPages > 0 || !pages.isAll()) ? countPages(fileBytes) : 0;
+    final List<PageRange> chunks = chunkRanges(pages, totalPages);
+    if (chunks != null) {
+      log.info("Parsing {} in {} chunks of up to {} pages ({} concurrent)", filename, chunks.size(), chunkPages,
+          Math.min(chunks.size(), chunkConcurrency));
+      return parseRanges(fileBytes, filename, imageMode, images, chunks, chunkConcurrency);
+    }
+    if (pages.isAll()) {
+      return parseRange(fileBytes, filename, imageMode, images, null);
+    }
+    // 페이지 수를 알면 다른 파서와 같이 선택을 문서 범위로 잘라내고, 문서에 없는 선택은 거부한다
+    final List<PageRange> ranges = totalPages > 0 ? pages.resolve(totalPages) : pages.ranges();
+    return parseRanges(fileBytes, filename, imageMode, images, ranges, 1);
+  }
+
+  /**
+   * 구간마다 요청하고 결과를 구간 순서대로 이어 붙인다.
+   */
+  private ParseResult parseRanges(byte[] fileBytes, String filename, String imageMode, ImageStore images,
+      List<PageRange> ranges, int concurrency) {
+    final List<String> contents = Flux.fromIterable(ranges)
+        .flatMapSequential(range -> Mono
+            .fromCallable(() -> parseRange(fileBytes, filename, imageMode, images, range).markdown())
+            .subscribeOn(Schedulers.boundedElastic()), concurrency)
+        .collectList()
+        .block();
+
+    StringBuilder markdown = new StringBuilder();
+    for (String rangeContent : contents) {
+      if (rangeContent.isBlank()) {
+        continue;
+      }
+      if (!markdown.isEmpty()) {
+        markdown.append("\n\n");
+      }
+      markdown.append(rangeContent);
+    }
+    return new ParseResult(filename, markdown.toString());
+  }
+
+  /**
+   * 선택된 페이지를 chunk.pages 페이지씩 나눈다.
+   *
+   * @param totalPages PDF 페이지 수, PDF가 아니거나 페이지 수를 모르면 0
+   * @return 나눈 구간, 나눌 필요가 없거나 PDF가 아니면 null
+   * @throws me.hanju.parsekit.common.exception.BadRequestException 선택된 페이지가 문서에 하나도 없는 경우
+   */
+  private List<PageRange> chunkRanges(PageSelection pages, int totalPages) {
+    if (chunkPages <= 0 || totalPages <= 0 || pages.count(totalPages) <= chunkPages) {
+      return null;
+    }
+
+    final List<PageRange> chunks = new ArrayList<>();
+    for (final PageRange range : pages.resolve(totalPages)) {
+      for (int first = range.first(); first <= range.last(); first += chunkPages) {
+        chunks.add(new PageRange(first, Math.min(range.last(), first + chunkPages - 1)));
+      }
+    }
+    return chunks;
+  }
+
+  private static boolean isPdf(byte[] fileBytes) {
+    return fileBytes != null && fileBytes.length > 4
+        && new String(fileBytes, 0, 5, StandardCharsets.ISO_8859_1).equals("%PDF-");
+  }
+
+  /**
+   * @return PDF 페이지 수, 읽을 수 없으면 0
+   */
+  private static int countPages(byte[] pdfBytes) {
+    try (PDDocument document = PDDocument.load(pdfBytes, "", null, null,
+        MemoryUsageSetting.setupMainMemoryOnly())) {
+      return document.getNumberOfPages();
+    } catch (IOException e) {
+      log.warn("Failed to count PDF pages, sending the document in one request: {}", e.getMessage());
+      return 0;
+    }
+  }
+
+  private ParseResult parseRange(byte[] fileBytes, String filename, String imageMode, ImageStore images,
+      PageRange range) {
     if (fileBytes == null || fileBytes.length == 0) {
       throw new IllegalArgumentException("File bytes cannot be null or empty");
     }
@@ -78,47 +295,381 @@ public class DoclingClient {
       throw new IllegalArgumentException("Filename cannot be null or empty");
     }
 
-    log.debug("Parsing document: {} (size: {} bytes, imageMode: {})", filename, fileBytes.length, imageMode);
+    log.debug("Parsing document: {} (size: {} bytes, imageMode: {}, pageRange: {})",
+        filename, fileBytes.length, imageMode, range);
 
     MultipartBodyBuilder builder = new MultipartBodyBuilder();
+    addFile(builder, fileBytes, filename);
+    builder.part("image_export_mode", imageMode);
+    final Function<WebClient.ResponseSpec, Mono<DoclingConvertResponse>> body;
+    if (images == null) {
+      body = spec -> spec.bodyToMono(DoclingConvertResponse.class);
+    } else if ("referenced".equals(imageMode)) {
+      // referenced 모드의 이미지 파일은 ZIP 응답에만 담긴다
+      builder.part("target_type", "zip");
+      body = spec -> unzipImages(spec, images);
+    } else {
+      body = spec -> extractImages(spec, images);
+    }
+    if (range != null) {
+      builder.part("page_range", range.first());
+      builder.part("page_range", range.last());
+    }
+
+    try {
+      return pool.execute(endpoint -> request(endpoint, builder, filename, body), EndpointPool::isServerFailure);
+    } catch (DoclingClientException | ServiceUnavailableException e) {
+      throw e;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DoclingClientException("Interrupted while waiting for Docling server", e);
+    } catch (Exception e) {
+      log.error("Failed to parse document: {}", filename, e);
+      throw new DoclingClientException("Failed to parse document: " + e.getMessage(), e);
+    }
+  }
+
+  private ParseResult request(DoclingEndpoint endpoint, MultipartBodyBuilder builder, String filename,
+      Function<WebClient.ResponseSpec, Mono<DoclingConvertResponse>> body) {
+    DoclingConvertResponse response = convert(endpoint, builder, body, 1);
+
+    if (response == null || response.document() == null) {
+      throw new DoclingClientException("Empty response from docling service",
+          new IllegalStateException("Response is null"));
+    }
+
+    String mdContent = response.document().mdContent();
+    if (mdContent == null) {
+      throw new DoclingClientException("Invalid response format: missing 'md_content' field",
+          new IllegalStateException("md_content is null"));
+    }
+
+    return new ParseResult(filename, mdContent);
+  }
+
+  /**
+   * 응답 본문을 조각마다 읽으면서 이미지를 images로 옮기고, 이미지를 뺀 나머지 JSON만 읽는다.
+   * 요청이 실패하거나 취소되면 이 요청에서 꺼낸 이미지를 버린다.
+   */
+  private static Mono<DoclingConvertResponse> extractImages(WebClient.ResponseSpec spec, ImageStore images) {
+    return Mono.defer(() -> {
+      final EmbeddedImageExtractor extractor = new EmbeddedImageExtractor(images);
+      return spec.bodyToFlux(DataBuffer.class)
+          .publishOn(Schedulers.boundedElastic())
+          .doOnNext(buffer -> {
+            try {
+              final byte[] bytes = new byte[buffer.readableByteCount()];
+              buffer.read(bytes);
+              extractor.write(bytes, 0, bytes.length);
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            } finally {
+              DataBufferUtils.release(buffer);
+            }
+          })
+          .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+          .then(Mono.fromCallable(() -> OBJECT_MAPPER.readValue(extractor.finish(), DoclingConvertResponse.class)))
+          .doOnError(e -> extractor.abort())
+          .doOnCancel(extractor::abort);
+    });
+  }
+
+  /**
+   * referenced 모드의 ZIP 응답을 받는 대로 풀면서 이미지 파일을 images로 옮기고, 마크다운의 이미지 경로를 참조로 바꾼다.
+   * Docling은 문서 하나면 마크다운 파일 하나와 마크다운이 상대 경로로 참조하는 이미지 파일(artifacts/)을 ZIP에 담는다.
+   * 요청이 실패하면 이 요청에서 옮긴 이미지를 버린다.
+   */
+  private static Mono<DoclingConvertResponse> unzipImages(WebClient.ResponseSpec spec, ImageStore images) {
+    return Mono.fromCallable(() -> {
+      final List<ImageStore.Entry> created = new ArrayList<>();
+      final Map<String, Integer> paths = new HashMap<>();
+      String markdownName = null;
+      String markdown = null;
+      try (ZipInputStream entries = new ZipInputStream(
+          DataBufferUtils.subscriberInputStream(spec.bodyToFlux(DataBuffer.class), 16))) {
+        final byte[] chunk = new byte[8192];
+        for (ZipEntry entry = entries.getNextEntry(); entry != null; entry = entries.getNextEntry()) {
+          if (entry.isDirectory()) {
+            continue;
+          }
+          if (entry.getName().endsWith(".md")) {
+            markdownName = entry.getName();
+            markdown = new String(entries.readAllBytes(), StandardCharsets.UTF_8);
+            continue;
+          }
+          final MediaType type = MediaTypeFactory.getMediaType(entry.getName()).orElse(null);
+          if (type == null || !"image".equals(type.getType())) {
+            continue;
+          }
+          final ImageStore.Entry image = images.create(type.getType() + "/" + type.getSubtype());
+          created.add(image);
+          for (int read = entries.read(chunk); read > 0; read = entries.read(chunk)) {
+            image.write(chunk, 0, read);
+          }
+          image.finish();
+          paths.put(entry.getName(), image.id());
+        }
+      } catch (IOException | RuntimeException e) {
+        created.forEach(ImageStore.Entry::discard);
+        throw e;
+      }
+
+      if (markdown == null) {
+        created.forEach(ImageStore.Entry::discard);
+        throw new DoclingClientException("Invalid response format: no markdown file in zip",
+            new IllegalStateException("markdown entry is missing"));
+      }
+      return new DoclingConvertResponse(new DoclingConvertResponse.DoclingDocument(markdownName,
+          replaceImagePaths(markdown, markdownName, paths)));
+    }).subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /**
+   * 마크다운의 이미지 경로(마크다운 파일 기준 상대 경로) 중 ZIP에서 옮긴 이미지를 {@code parsekit-image:N} 참조로 바꾼다.
+   */
+  private static String replaceImagePaths(String markdown, String markdownName, Map<String, Integer> paths) {
+    final String base = markdownName.substring(0, markdownName.lastIndexOf('/') + 1);
+    return IMAGE_LINK_PATTERN.matcher(markdown).replaceAll(match -> {
+      String path = match.group(2);
+      Integer id = paths.get(base + path);
+      if (id == null) {
+        path = URLDecoder.decode(path, StandardCharsets.UTF_8);
+        id = paths.get(base + path);
+      }
+      return Matcher.quoteReplacement(id != null
+          ? "![" + match.group(1) + "](" + ImageStore.REFERENCE_SCHEME + id + ")"
+          : match.group());
+    });
+  }
+
+  /**
+   * 파일을 변환한다. async.enabled이면 변환 작업을 제출하고, 끝날 때까지 상태를 조회한 뒤 결과를 받는다.
+   * 조회 간격은 poll-interval부터 backoff-multiplier배씩 max-poll-interval까지 늘어나며, 기다리는 동안 연결을 붙잡지 않는다.
+   *
+   * @param body      응답 본문을 읽는 방법 (동기 변환 응답과 비동기 결과 응답의 형식이 같다)
+   * @param documents 요청에 담긴 문서 수 (최대 시간에 곱한다)
+   */
+  private <T> T convert(DoclingEndpoint endpoint, MultipartBodyBuilder builder,
+      Function<WebClient.ResponseSpec, Mono<T>> body, int documents) {
+    if (!asyncEnabled) {
+      return body.apply(endpoint.client().post()
+          .uri("/v1/convert/file")
+          .contentType(MediaType.MULTIPART_FORM_DATA)
+          .body(BodyInserters.fromMultipartData(builder.build()))
+          .retrieve())
+          .block(timeout.multipliedBy(documents));
+    }
+
+    return endpoint.client().post()
+        .uri("/v1/convert/file/async")
+        .contentType(MediaType.MULTIPART_FORM_DATA)
+        .body(BodyInserters.fromMultipartData(builder.build()))
+        .retrieve()
+        .bodyToMono(DoclingTaskStatus.class)
+        .flatMap(task -> awaitTask(endpoint, task, pollInterval)
+            .then(Mono.defer(() -> body.apply(endpoint.client().get()
+                .uri("/v1/result/{taskId}", task.taskId())
+                .retrieve()))))
+        .block(asyncTimeout.multipliedBy(documents));
+  }
+
+  /**
+   * 작업이 끝날 때까지 상태를 조회한다.
+   *
+   * @return 작업이 성공하면 완료, 실패하면 DoclingClientException
+   */
+  private Mono<Void> awaitTask(DoclingEndpoint endpoint, DoclingTaskStatus task, Duration delay) {
+    if (task.taskId() == null) {
+      return Mono.error(new DoclingClientException("Invalid response format: missing 'task_id' field",
+          new IllegalStateException("task_id is null")));
+    }
+    if (DoclingTaskStatus.SUCCESS.equals(task.taskStatus())) {
+      return Mono.empty();
+    }
+    if (DoclingTaskStatus.FAILURE.equals(task.taskStatus())) {
+      return Mono.error(new DoclingClientException("Docling task failed: " + task.taskId(),
+          new IllegalStateException("task_status is failure")));
+    }
+
+    log.debug("Docling task {} is {} (position: {}), polling in {}ms", task.taskId(), task.taskStatus(),
+        task.taskPosition(), delay.toMillis());
+    final Duration next = Duration.ofNanos(
+        Math.min(maxPollInterval.toNanos(), (long) (delay.toNanos() * pollBackoff)));
+    return Mono.delay(delay)
+        .then(endpoint.client().get()
+            .uri("/v1/status/poll/{taskId}", task.taskId())
+            .retrieve()
+            .bodyToMono(DoclingTaskStatus.class))
+        .flatMap(status -> awaitTask(endpoint, status, next));
+  }
+
+  private static void addFile(MultipartBodyBuilder builder, byte[] fileBytes, String filename) {
     builder.part("files", new ByteArrayResource(fileBytes) {
       @Override
       public String getFilename() {
         return filename;
       }
     }).contentType(MediaType.APPLICATION_OCTET_STREAM);
+  }
+
+  /**
+   * 여러 파일을 파싱한다. 파일을 최대 batch.max-files개, 합계 batch.max-size 이하로 묶어 묶음마다 files 파트를 여러 개 담아
+   * 요청하고, 묶음은 최대 batch.concurrency개까지 동시에 보내 여러 서버로 나눈다.
+   * 묶음 요청이 실패하거나 응답에 빠진 파일은 하나씩 다시 요청하여 파일별로 성공/실패를 기록한다.
+   *
+   * @param imageMode "placeholder", "embedded", or "referenced"
+   * @return 파일 순서대로의 결과
+   */
+  public List<BatchParseResult> parseBatch(List<BatchFile> files, String imageMode) {
+    return Flux.fromIterable(groupBatches(files))
+        .flatMapSequential(batch -> Mono.fromCallable(() -> parseGroup(batch, imageMode))
+            .subscribeOn(Schedulers.boundedElastic()), batchConcurrency)
+        .concatMapIterable(results -> results)
+        .collectList()
+        .block();
+  }
+
+  /**
+   * 파일을 순서대로 묶는다. Docling은 결과 파일 이름을 입력 파일 이름(확장자 제외)으로 정하므로 이름이 겹치는 파일은 다른 묶음에 넣는다.
+   */
+  private List<List<BatchFile>> groupBatches(List<BatchFile> files) {
+    final List<List<BatchFile>> batches = new ArrayList<>();
+    List<BatchFile> current = new ArrayList<>();
+    final Set<String> names = new HashSet<>();
+    long currentBytes = 0;
+    for (final BatchFile file : files) {
+      final String name = outputName(file.filename());
+      if (!current.isEmpty() && (current.size() >= batchMaxFiles
+          || currentBytes + file.content().length > batchMaxBytes || names.contains(name))) {
+        batches.add(current);
+        current = new ArrayList<>();
+        names.clear();
+        currentBytes = 0;
+      }
+      current.add(file);
+      names.add(name);
+      currentBytes += file.content().length;
+    }
+    if (!current.isEmpty()) {
+      batches.add(current);
+    }
+    return batches;
+  }
+
+  private List<BatchParseResult> parseGroup(List<BatchFile> batch, String imageMode) {
+    if (batch.size() == 1) {
+      return List.of(parseOne(batch.get(0), imageMode));
+    }
+
+    Map<String, String> markdowns;
+    try {
+      markdowns = convertFiles(batch, imageMode);
+    } catch (RuntimeException e) {
+      log.warn("Batch of {} files failed, parsing them one by one: {}", batch.size(), e.getMessage());
+      markdowns = Map.of();
+    }
+
+    final Map<String, String> converted = markdowns;
+    return batch.stream()
+        .map(file -> {
+          final String markdown = converted.get(outputName(file.filename()));
+          return markdown != null
+              ? BatchParseResult.success(new ParseResult(file.filename(), markdown))
+              : parseOne(file, imageMode);
+        })
+        .toList();
+  }
+
+  private BatchParseResult parseOne(BatchFile file, String imageMode) {
+    try {
+      return BatchParseResult.success(parse(file.content(), file.filename(), imageMode));
+    } catch (RuntimeException e) {
+      log.warn("Failed to parse {} in batch: {}", file.filename(), e.getMessage());
+      return BatchParseResult.failure(file.filename(), e.getMessage());
+    }
+  }
+
+  /**
+   * 파일 여러 개를 요청 하나로 변환한다. Docling은 문서가 하나면 JSON으로, 여럿이면 문서별 마크다운 파일을 담은 ZIP으로 응답한다.
+   *
+   * @return 결과 파일 이름(확장자 제외)별 마크다운, 변환에 실패한 파일은 빠진다
+   */
+  private Map<String, String> convertFiles(List<BatchFile> batch, String imageMode) {
+    log.debug("Parsing batch of {} documents (imageMode: {})", batch.size(), imageMode);
+
+    MultipartBodyBuilder builder = new MultipartBodyBuilder();
+    for (final BatchFile file : batch) {
+      addFile(builder, file.content(), file.filename());
+    }
     builder.part("image_export_mode", imageMode);
 
     try {
-      DoclingConvertResponse response = getNextClient().post()
-          .uri("/v1/convert/file")
-          .contentType(MediaType.MULTIPART_FORM_DATA)
-          .body(BodyInserters.fromMultipartData(builder.build()))
-          .retrieve()
-          .bodyToMono(DoclingConvertResponse.class)
-          .block(timeout);
+      final Map<String, String> markdowns = pool.execute(endpoint -> convert(endpoint, builder,
+          DoclingClient::readMarkdowns, batch.size()), EndpointPool::isServerFailure);
 
-      if (response == null || response.document() == null) {
+      if (markdowns == null) {
         throw new DoclingClientException("Empty response from docling service",
             new IllegalStateException("Response is null"));
       }
+      return markdowns;
 
-      String mdContent = response.document().mdContent();
-      if (mdContent == null) {
-        throw new DoclingClientException("Invalid response format: missing 'md_content' field",
-            new IllegalStateException("md_content is null"));
-      }
-
-      return new ParseResult(filename, mdContent);
-
-    } catch (DoclingClientException e) {
+    } catch (DoclingClientException | ServiceUnavailableException e) {
       throw e;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DoclingClientException("Interrupted while waiting for Docling server", e);
     } catch (Exception e) {
-      log.error("Failed to parse document: {}", filename, e);
-      throw new DoclingClientException("Failed to parse document: " + e.getMessage(), e);
+      throw new DoclingClientException("Failed to parse documents: " + e.getMessage(), e);
     }
   }
 
+  /**
+   * 배치 응답을 받는 대로 읽는다. 응답 전체를 메모리에 올리지 않으므로 max-buffer-size보다 큰 ZIP도 읽을 수 있다.
+   */
+  private static Mono<Map<String, String>> readMarkdowns(WebClient.ResponseSpec spec) {
+    return spec.toEntityFlux(DataBuffer.class).flatMap(response -> Mono.fromCallable(() -> {
+      final MediaType contentType = response.getHeaders().getContentType();
+      try (InputStream body = DataBufferUtils.subscriberInputStream(response.getBody(), 16)) {
+        if (contentType != null && contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+          final DoclingConvertResponse converted = OBJECT_MAPPER.readValue(body, DoclingConvertResponse.class);
+          if (converted.document() == null || converted.document().mdContent() == null) {
+            return Map.<String, String>of();
+          }
+          return Map.of(outputName(converted.document().filename()), converted.document().mdContent());
+        }
+        return readMarkdownEntries(body);
+      }
+    }).subscribeOn(Schedulers.boundedElastic()));
+  }
+
+  private static Map<String, String> readMarkdownEntries(InputStream zip) throws IOException {
+    final Map<String, String> markdowns = new HashMap<>();
+    try (ZipInputStream entries = new ZipInputStream(zip)) {
+      for (ZipEntry entry = entries.getNextEntry(); entry != null; entry = entries.getNextEntry()) {
+        if (!entry.isDirectory() && entry.getName().endsWith(".md")) {
+          markdowns.put(outputName(entry.getName()), new String(entries.readAllBytes(), StandardCharsets.UTF_8));
+        }
+      }
+    }
+    return markdowns;
+  }
+
+  /**
+   * Docling이 결과 파일 이름으로 쓰는 입력 파일 이름(디렉토리와 확장자 제외).
+   */
+  private static String outputName(String filename) {
+    final String name = filename == null ? "" : filename.substring(Math.max(filename.lastIndexOf('/'),
+        filename.lastIndexOf('\\')) + 1);
+    final int dot = name.lastIndexOf('.');
+    return dot > 0 ? name.substring(0, dot) : name;
+  }
+
+  /**
+   * @param endpoint 부하 분산 상태와 동시 요청 제한
+   */
+  private record DoclingEndpoint(WebClient client, Endpoint endpoint) {
+  }
+
   /**
    * Docling이 직접 지원하는 문서 형식.
    *
@@ -154,6 +705,12 @@ public class DoclingClient {
     return SUPPORTED_TYPES.contains(mimeType);
   }
 
+  /**
+   * Markdown 이미지 링크 패턴: ![alt](path)
+   * 캡처 그룹: 1=altText, 2=path
+   */
+  private static final Pattern IMAGE_LINK_PATTERN = Pattern.compile("!\\[([^\\]]*)\\]\\(([^)\\s]+)\\)");
+
   /**
    * Markdown embedded 이미지 패턴: ![alt](data:image/xxx;base64,...)
    * 캡처 그룹: 1=altText, 2=mimeType(image/xxx), 3=base64Data
@@ -0,0 +1,242 @@
+package me.hanju.parsekit.parser.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 마크다운이나 마크다운을 담은 JSON(Docling 응답)에서 data URI 이미지({@code ![alt](data:image/png;base64,...)})를 읽는 대로
+ * 꺼내 디코딩하여 {@link ImageStore}에 넣고, 그 자리에는 {@code ![alt](parsekit-image:N)} 참조만 남긴다.
+ * {@link DoclingClient#EMBEDDED_IMAGE_PATTERN}과 같이 {@code ![alt]} 바로 뒤의 data URI만 꺼내고, 일반 링크는 그대로 둔다.
+ * 입력을 조각으로 받아 바이트 단위로 처리하므로 응답 전체나 Base64 문자열을 메모리에 올리지 않으며, 남는 것은 이미지를 뺀 텍스트뿐이다.
+ * JSON 문자열 안의 Base64는 이스케이프되지 않지만 {@code \/}로 쓰인 슬래시는 처리한다.
+ */
+public final class EmbeddedImageExtractor {
+
+  private static final byte[] MARKER = "(data:image/".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] BASE64_PREFIX = ";base64,".getBytes(StandardCharsets.US_ASCII);
+  private static final int MAX_SUBTYPE_LENGTH = 64;
+  /** 한 번에 디코딩하는 Base64 글자 수 (4의 배수) */
+  private static final int DECODE_CHUNK = 16 * 1024;
+
+  private enum State {
+    TEXT, SUBTYPE, PREFIX, DATA, DATA_ESCAPE
+  }
+
+  /** 마크다운 이미지의 {@code ![alt]} 부분을 어디까지 읽었는지 */
+  private enum Label {
+    NONE, BANG, ALT, CLOSED
+  }
+
+  private final ImageStore images;
+  private final ByteArrayOutputStream text = new ByteArrayOutputStream();
+  /** 이미지인지 아직 모르는 data URI 앞부분 */
+  private final ByteArrayOutputStream held = new ByteArrayOutputStream();
+  private final List<ImageStore.Entry> created = new ArrayList<>();
+  private final byte[] encoded = new byte[DECODE_CHUNK];
+
+  private State state = State.TEXT;
+  private Label label = Label.NONE;
+  private int matched = 0;
+  private final StringBuilder subtype = new StringBuilder();
+  private ImageStore.Entry current;
+  private int encodedLength = 0;
+  private boolean invalid = false;
+
+  public EmbeddedImageExtractor(final ImageStore images) {
+    this.images = images;
+  }
+
+  /**
+   * 입력 전체에서 이미지를 꺼낸다.
+   *
+   * @return 이미지를 참조로 바꾼 텍스트
+   */
+  public static String extract(final byte[] content, final ImageStore images) throws IOException {
+    final EmbeddedImageExtractor extractor = new EmbeddedImageExtractor(images);
+    extractor.write(content, 0, content.length);
+    return new String(extractor.finish(), StandardCharsets.UTF_8);
+  }
+
+  public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+    for (int i = offset; i < offset + length; i++) {
+      process(bytes[i]);
+    }
+  }
+
+  /**
+   * 입력이 끝났다.
+   *
+   * @return 이미지를 참조로 바꾼 입력
+   */
+  public byte[] finish() throws IOException {
+    switch (state) {
+      case DATA -> endImage();
+      case DATA_ESCAPE -> {
+        endImage();
+        text.write('\\');
+      }
+      default -> flushHeld();
+    }
+    state = State.TEXT;
+    return text.toByteArray();
+  }
+
+  /**
+   * 요청이 실패했을 때 지금까지 꺼낸 이미지를 버린다.
+   */
+  public void abort() {
+    created.forEach(ImageStore.Entry::discard);
+  }
+
+  private void process(final byte b) throws IOException {
+    switch (state) {
+      case TEXT -> {
+        if (matched > 0 && b == MARKER[matched]) {
+          held.write(b);
+          if (++matched == MARKER.length) {
+            matched = 0;
+            subtype.setLength(0);
+            state = State.SUBTYPE;
+          }
+          return;
+        }
+        if (matched > 0) {
+          flushHeld();
+        }
+        if (b == MARKER[0] && label == Label.CLOSED) {
+          held.write(b);
+          matched = 1;
+          label = Label.NONE;
+        } else {
+          text.write(b);
+          label = nextLabel(b);
+        }
+      }
+      case SUBTYPE -> {
+        if (b == BASE64_PREFIX[0] && !subtype.isEmpty()) {
+          held.write(b);
+          matched = 1;
+          state = State.PREFIX;
+        } else if (isSubtypeChar(b) && subtype.length() < MAX_SUBTYPE_LENGTH) {
+          held.write(b);
+          subtype.append((char) b);
+        } else {
+          reprocessAsText(b);
+        }
+      }
+      case PREFIX -> {
+        if (b == BASE64_PREFIX[matched]) {
+          held.write(b);
+          if (++matched == BASE64_PREFIX.length) {
+            beginImage();
+          }
+        } else {
+          reprocessAsText(b);
+        }
+      }
+      case DATA -> {
+        if (isBase64Char(b)) {
+          appendEncoded(b);
+        } else if (b == '\\') {
+          state = State.DATA_ESCAPE;
+        } else {
+          endImage();
+          state = State.TEXT;
+          process(b);
+        }
+      }
+      case DATA_ESCAPE -> {
+        if (b == '/') {
+          appendEncoded(b);
+          state = State.DATA;
+        } else {
+          endImage();
+          state = State.TEXT;
+          process((byte) '\\');
+          process(b);
+        }
+      }
+    }
+  }
+
+  private void reprocessAsText(final byte b) throws IOException {
+    flushHeld();
+    state = State.TEXT;
+    process(b);
+  }
+
+  private void flushHeld() {
+    text.writeBytes(held.toByteArray());
+    held.reset();
+    matched = 0;
+    label = Label.NONE;
+  }
+
+  /**
+   * 텍스트로 내보낸 바이트에 따라 {@code ![alt]}를 읽은 상태를 갱신한다. 대체 텍스트에는 ']'가 올 수 없다.
+   */
+  private Label nextLabel(final byte b) {
+    if (label == Label.ALT) {
+      return b == ']' ? Label.CLOSED : Label.ALT;
+    }
+    if (b == '!') {
+      return Label.BANG;
+    }
+    return label == Label.BANG && b == '[' ? Label.ALT : Label.NONE;
+  }
+
+  private void beginImage() throws IOException {
+    current = images.create("image/" + subtype);
+    created.add(current);
+    text.write(("(" + ImageStore.REFERENCE_SCHEME + current.id()).getBytes(StandardCharsets.US_ASCII));
+    held.reset();
+    matched = 0;
+    encodedLength = 0;
+    invalid = false;
+    state = State.DATA;
+  }
+
+  private void appendEncoded(final byte b) throws IOException {
+    encoded[encodedLength++] = b;
+    if (encodedLength == encoded.length) {
+      decodeEncoded();
+    }
+  }
+
+  private void decodeEncoded() throws IOException {
+    if (!invalid && encodedLength > 0) {
+      try {
+        final ByteBuffer decoded = Base64.getDecoder().decode(ByteBuffer.wrap(encoded, 0, encodedLength));
+        current.write(decoded.array(), decoded.arrayOffset() + decoded.position(), decoded.remaining());
+      } catch (final IllegalArgumentException e) {
+        invalid = true;
+      }
+    }
+    encodedLength = 0;
+  }
+
+  private void endImage() throws IOException {
+    decodeEncoded();
+    if (invalid) {
+      current.discard();
+    } else {
+      current.finish();
+    }
+    current = null;
+  }
+
+  private static boolean isSubtypeChar(final byte b) {
+    return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9')
+        || b == '.' || b == '+' || b == '-';
+  }
+
+  private static boolean isBase64Char(final byte b) {
+    return (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z') || (b >= '0' && b <= '9')
+        || b == '+' || b == '/' || b == '=';
+  }
+}
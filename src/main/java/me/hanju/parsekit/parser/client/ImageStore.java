@@ -0,0 +1,201 @@
+package me.hanju.parsekit.parser.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 문서에서 꺼낸 이미지 보관소. 문서 하나를 처리하는 동안 쓰고 close()로 비운다.
+ * 메모리에 담은 이미지 크기의 합이 maxMemoryBytes를 넘으면 그 뒤로 쓰는 이미지는 이미지마다 임시 파일에 쓰므로,
+ * 문서에 이미지가 아무리 많아도 힙 사용량이 일정하게 유지된다.
+ * 마크다운에는 이미지 대신 {@code ![alt](parsekit-image:N)} 참조를 남긴다.
+ */
+@Slf4j
+public final class ImageStore implements AutoCloseable {
+
+  /** 마크다운에 남기는 이미지 참조 URI 접두사 */
+  public static final String REFERENCE_SCHEME = "parsekit-image:";
+
+  /**
+   * 마크다운 이미지 참조 패턴: ![alt](parsekit-image:N)
+   * 캡처 그룹: 1=altText, 2=이미지 번호
+   */
+  public static final Pattern REFERENCE_PATTERN = Pattern.compile(
+      "!\\[([^\\]]*)\\]\\(" + Pattern.quote(REFERENCE_SCHEME) + "(\\d+)\\)");
+
+  private final long maxMemoryBytes;
+  private final Path spillDir;
+  private final AtomicLong memoryBytes = new AtomicLong();
+  private final List<Entry> entries = new ArrayList<>();
+
+  /**
+   * @param maxMemoryBytes 메모리에 담는 이미지 크기의 합 상한
+   * @param spillDir       임시 파일 디렉토리, null이면 시스템 임시 디렉토리
+   */
+  public ImageStore(final long maxMemoryBytes, final Path spillDir) {
+    this.maxMemoryBytes = Math.max(0, maxMemoryBytes);
+    this.spillDir = spillDir;
+  }
+
+  /**
+   * 이미지를 새로 추가한다. 반환된 항목에 이미지 내용을 쓰고 finish()를 호출해야 한다.
+   */
+  public synchronized Entry create(final String mimeType) {
+    final Entry entry = new Entry(entries.size() + 1, mimeType);
+    entries.add(entry);
+    return entry;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  private synchronized Entry entry(final int id) {
+    if (id < 1 || id > entries.size()) {
+      throw new IllegalArgumentException("No image " + id);
+    }
+    return entries.get(id - 1);
+  }
+
+  public String mimeType(final int id) {
+    return entry(id).mimeType;
+  }
+
+  /**
+   * @return 이미지 내용, 디코딩에 실패했거나 버린 이미지면 null
+   */
+  public byte[] read(final int id) {
+    return entry(id).read();
+  }
+
+  /**
+   * @return 이미지의 data URI, 디코딩에 실패했거나 버린 이미지면 null
+   */
+  public String toDataUri(final int id) {
+    final byte[] content = read(id);
+    return content != null
+        ? "data:" + mimeType(id) + ";base64," + Base64.getEncoder().encodeToString(content)
+        : null;
+  }
+
+  /**
+   * @return 임시 파일에 쓴 이미지 수
+   */
+  public synchronized int spilledCount() {
+    return (int) entries.stream().filter(entry -> entry.file != null).count();
+  }
+
+  @Override
+  public void close() {
+    final List<Entry> closing;
+    synchronized (this) {
+      closing = List.copyOf(entries);
+    }
+    closing.forEach(Entry::discard);
+  }
+
+  /**
+   * 보관된 이미지 하나. 메모리에 쓰다가 메모리 상한을 넘으면 임시 파일로 옮겨 이어서 쓴다.
+   */
+  public final class Entry {
+
+    private final int id;
+    private final String mimeType;
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private byte[] content;
+    private Path file;
+    private OutputStream out;
+    private boolean valid = true;
+
+    private Entry(final int id, final String mimeType) {
+      this.id = id;
+      this.mimeType = mimeType;
+    }
+
+    public int id() {
+      return id;
+    }
+
+    public synchronized void write(final byte[] bytes, final int offset, final int length) throws IOException {
+      if (!valid) {
+        return;
+      }
+      if (out == null && memoryBytes.addAndGet(length) > maxMemoryBytes) {
+        memoryBytes.addAndGet(-length - buffer.size());
+        spill();
+      }
+      if (out != null) {
+        out.write(bytes, offset, length);
+      } else {
+        buffer.write(bytes, offset, length);
+      }
+    }
+
+    private void spill() throws IOException {
+      file = spillDir != null
+          ? Files.createTempFile(spillDir, "image", ".bin")
+          : Files.createTempFile("image", ".bin");
+      out = Files.newOutputStream(file);
+      buffer.writeTo(out);
+      buffer = null;
+    }
+
+    /**
+     * 이미지를 다 썼다.
+     */
+    public synchronized void finish() throws IOException {
+      if (out != null) {
+        out.close();
+      } else if (buffer != null) {
+        content = buffer.toByteArray();
+        buffer = null;
+      }
+    }
+
+    synchronized byte[] read() {
+      if (!valid) {
+        return null;
+      }
+      if (file == null) {
+        return content;
+      }
+      try {
+        return Files.readAllBytes(file);
+      } catch (final IOException e) {
+        throw new UncheckedIOException("Failed to read spilled image " + id, e);
+      }
+    }
+
+    /**
+     * 이미지를 버린다. 내용이 올바르지 않거나 요청이 실패했을 때 쓴다.
+     */
+    public synchronized void discard() {
+      valid = false;
+      if (buffer != null || content != null) {
+        memoryBytes.addAndGet(-(buffer != null ? buffer.size() : content.length));
+      }
+      buffer = null;
+      content = null;
+      if (file != null) {
+        try {
+          if (out != null) {
+            out.close();
+          }
+          Files.deleteIfExists(file);
+        } catch (final IOException e) {
+          log.warn("Failed to delete spilled image {}: {}", file, e.getMessage());
+        }
+      }
+    }
+  }
+}
@@ -1,25 +1,51 @@
 package me.hanju.parsekit.parser.client;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
 import lombok.extern.slf4j.Slf4j;
 import me.hanju.parsekit.common.FileTypeDetector;
+import me.hanju.parsekit.common.cache.CacheStats;
+import me.hanju.parsekit.common.cache.TieredCache;
+import me.hanju.parsekit.common.exception.ServiceUnavailableException;
+import me.hanju.parsekit.parser.client.endpoint.Endpoint;
+import me.hanju.parsekit.parser.client.endpoint.EndpointPool;
+import me.hanju.parsekit.parser.client.endpoint.EndpointStats;
+import me.hanju.parsekit.parser.client.endpoint.LoadBalancer;
+import me.hanju.parsekit.parser.client.endpoint.RetryBudget;
 import me.hanju.parsekit.parser.config.ParserProperties;
+import me.hanju.parsekit.parser.config.ParserProperties.FailoverProperties;
+import me.hanju.parsekit.parser.config.ParserProperties.HedgeProperties;
 import me.hanju.parsekit.parser.config.ParserProperties.VlmServer;
 import me.hanju.parsekit.parser.dto.VlmChatRequest;
 import me.hanju.parsekit.parser.dto.VlmChatRequest.ImageContent;
 import me.hanju.parsekit.parser.dto.VlmChatRequest.TextContent;
+import me.hanju.parsekit.parser.dto.VlmChatChunk;
 import me.hanju.parsekit.parser.dto.VlmChatResponse;
+import me.hanju.parsekit.parser.exception.VlmBatchSplitException;
 import me.hanju.parsekit.parser.exception.VlmClientException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @Slf4j
 @Component
@@ -27,12 +53,27 @@ import me.hanju.parsekit.parser.exception.VlmClientException;
 @ConditionalOnProperty(prefix = "parser.vlm", name = "servers[0].base-url")
 public class VlmClient {
 
-  private final List<VlmEndpoint> endpoints;
-  private final AtomicInteger counter = new AtomicInteger(0);
+  private static final ParameterizedTypeReference<ServerSentEvent<String>> SERVER_SENT_EVENT_TYPE =
+      new ParameterizedTypeReference<>() {
+      };
+  /** OpenAI 호환 스트림의 마지막 이벤트 데이터 */
+  private static final String STREAM_DONE = "[DONE]";
+  /** 여러 페이지를 묶은 응답의 페이지 구분자 ({@link #pageDelimiter(int)}) */
+  private static final Pattern PAGE_DELIMITER = Pattern.compile("(?m)^[ \\t]*<<<PAGE (\\d+)>>>[ \\t]*$");
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+  private final EndpointPool<VlmEndpoint> pool;
+  /** 헤지 요청을 사용하지 않으면 null */
+  private final HedgeProperties hedge;
+  private final RetryBudget hedgeBudget;
   private final Duration timeout;
   private final int maxTokens;
+  /** 묶음 요청의 max_tokens 상한, 0이면 제한 없음 */
+  private final int maxBatchTokens;
   private final double temperature;
   private final String defaultPrompt;
+  private final TieredCache ocrCache;
 
   public VlmClient(ParserProperties properties) {
     ParserProperties.VlmProperties vlm = properties.getVlm();
@@ -42,31 +83,103 @@ public class VlmClient {
         .codecs(config -> config.defaultCodecs().maxInMemorySize(bufferSize))
         .build();
 
-    this.endpoints = vlm.getServers().stream()
+    final FailoverProperties failover = vlm.getFailover();
+    final List<VlmEndpoint> endpoints = vlm.getServers().stream()
         .filter(server -> server.getBaseUrl() != null && !server.getBaseUrl().isBlank())
         .map(server -> new VlmEndpoint(
             WebClient.builder()
                 .baseUrl(server.getBaseUrl())
                 .exchangeStrategies(strategies)
                 .build(),
-            server.getModel()))
+            server.getModel(),
+            new Endpoint(server.getBaseUrl(), server.getWeight(),
+                vlm.getConcurrencyLimit().createLimiter(server.getMaxConcurrency()),
+                failover.createCircuitBreaker())))
         .toList();
+    final Duration queueTimeout = vlm.getConcurrencyLimit().getQueueTimeout() != null
+        ? vlm.getConcurrencyLimit().getQueueTimeout()
+        : Duration.ofSeconds(30);
+    this.pool = new EndpointPool<>("VLM", endpoints, VlmEndpoint::endpoint,
+        LoadBalancer.create(vlm.getLoadBalancer()), queueTimeout, failover.createRetryBudget(),
+        failover.getMaxAttempts());
+    if (failover.isHealthCheckEnabled()) {
+      pool.startHealthChecks(
+          endpoint -> endpoint.client().get().uri(failover.getHealthCheckPath()).retrieve().toBodilessEntity(),
+          failover.getHealthCheckInterval(), failover.getHealthCheckTimeout());
+    }
+
+    this.hedge = vlm.getHedge().isEnabled() ? vlm.getHedge() : null;
+    this.hedgeBudget = vlm.getHedge().createBudget();
 
     this.timeout = vlm.getTimeout() != null ? vlm.getTimeout() : Duration.ofMinutes(2);
     this.maxTokens = vlm.getMaxTokens() > 0 ? vlm.getMaxTokens() : 4096;
+    this.maxBatchTokens = Math.max(0, vlm.getMaxBatchTokens());
     this.temperature = vlm.getTemperature() > 0 ? vlm.getTemperature() : 0.01;
     this.defaultPrompt = vlm.getDefaultPrompt() != null ? vlm.getDefaultPrompt()
         : "Extract all text from this image accurately. Return only the extracted text without any additional explanation.";
+    this.ocrCache = new TieredCache("vlm-ocr", vlm.getCache());
 
-    log.info("VlmClient initialized with {} servers", endpoints.size());
+    log.info("VlmClient initialized with {} servers (loadBalancer: {}, maxAttempts: {}, hedge: {})",
+        endpoints.size(), vlm.getLoadBalancer(), failover.getMaxAttempts(),
+        hedge != null ? "p" + Math.round(hedge.getPercentile() * 100) : "off");
     for (VlmServer server : vlm.getServers()) {
-      log.info("  - {} (model: {})", server.getBaseUrl(), server.getModel());
+      log.info("  - {} (model: {}, weight: {}, maxConcurrency: {})", server.getBaseUrl(), server.getModel(),
+          server.getWeight(), server.getMaxConcurrency() > 0 ? server.getMaxConcurrency() : "unlimited");
     }
   }
 
-  private VlmEndpoint getNextEndpoint() {
-    int index = Math.abs(counter.getAndIncrement() % endpoints.size());
-    return endpoints.get(index);
+  @PreDestroy
+  public void shutdown() {
+    pool.close();
+  }
+
+  public List<EndpointStats> getEndpointStats() {
+    return pool.getStats();
+  }
+
+  public CacheStats getOcrCacheStats() {
+    return ocrCache.stats();
+  }
+
+  /**
+   * OCR 결과 캐시 키. 같은 이미지라도 프롬프트, 모델, 생성 옵션이 다르면 결과가 달라지므로 모두 키에 포함한다.
+   */
+  private String cacheKey(final String imageHash, final String prompt, final String model) {
+    return cacheKey(imageHash, prompt, model, maxTokens);
+  }
+
+  /**
+   * @param prompt 요청에 실제로 보낸 프롬프트 (묶음 요청이면 {@link #batchPrompt}의 결과)
+   * @param tokens 요청에 실제로 보낸 max_tokens
+   */
+  private String cacheKey(final String imageHash, final String prompt, final String model, final int tokens) {
+    return String.join(":", "ocr", imageHash, TieredCache.sha256(prompt.getBytes(StandardCharsets.UTF_8)),
+        String.valueOf(model), String.valueOf(tokens), String.valueOf(temperature));
+  }
+
+  /**
+   * 캐시된 OCR 결과를 찾는다. 서버마다 모델이 다를 수 있으므로 모든 서버의 모델로 찾아본다.
+   */
+  private String findCached(final String imageHash, final String prompt) {
+    return findCached(imageHash, prompt, maxTokens);
+  }
+
+  private String findCached(final String imageHash, final String prompt, final int tokens) {
+    for (final String model : pool.getTargets().stream().map(VlmEndpoint::model).distinct().toList()) {
+      final byte[] cached = ocrCache.get(cacheKey(imageHash, prompt, model, tokens));
+      if (cached != null) {
+        return new String(cached, StandardCharsets.UTF_8);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * OCR 결과가 캐시에 있는지 확인한다. 있으면 {@link #ocr(String, String)}는 VLM을 호출하지 않고 캐시된 결과를 반환한다.
+   */
+  public boolean isCached(final String base64EncodedUri, final String prompt) {
+    final String imageHash = imageHash(base64EncodedUri);
+    return imageHash != null && findCached(imageHash, prompt) != null;
   }
 
   public String ocr(final String base64EncodedUri) {
@@ -78,48 +191,288 @@ public class VlmClient {
       throw new IllegalArgumentException("not valid Base64EncodedUri");
     }
 
-    VlmEndpoint endpoint = getNextEndpoint();
-
-    VlmChatRequest request = new VlmChatRequest(
-        endpoint.model(),
-        List.of(new VlmChatRequest.Message(
-            "user",
-            List.of(
-                new ImageContent(base64EncodedUri),
-                new TextContent(prompt)))),
-        maxTokens,
-        temperature);
+    final String imageHash = imageHash(base64EncodedUri);
+    if (imageHash != null) {
+      final String cached = findCached(imageHash, prompt);
+      if (cached != null) {
+        return cached;
+      }
+    }
 
     try {
-      VlmChatResponse response = endpoint.client().post()
-          .uri("/v1/chat/completions")
-          .contentType(MediaType.APPLICATION_JSON)
-          .bodyValue(request)
-          .retrieve()
-          .bodyToMono(VlmChatResponse.class)
-          .block(timeout);
-
-      if (response == null) {
-        throw new VlmClientException("Empty response from VLM service",
-            new IllegalStateException("Response is null"));
+      if (hedge != null) {
+        return pool.executeHedged(endpoint -> request(endpoint, base64EncodedUri, prompt, imageHash),
+            EndpointPool::isServerFailure, hedge.getPercentile(), hedgeBudget);
       }
+      return pool.execute(endpoint -> request(endpoint, base64EncodedUri, prompt, imageHash).block(),
+          EndpointPool::isServerFailure);
+    } catch (VlmClientException | ServiceUnavailableException e) {
+      throw e;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new VlmClientException("Interrupted while waiting for VLM server", e);
+    } catch (Exception e) {
+      log.error("Failed to OCR image", e);
+      throw new VlmClientException("Failed to OCR image: " + e.getMessage(), e);
+    }
+  }
+
+  private Mono<String> request(final VlmEndpoint endpoint, final String base64EncodedUri, final String prompt,
+      final String imageHash) {
+    return endpoint.client().post()
+        .uri("/v1/chat/completions")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(buildRequest(endpoint, base64EncodedUri, prompt, null))
+        .retrieve()
+        .bodyToMono(VlmChatResponse.class)
+        .timeout(timeout)
+        .switchIfEmpty(Mono.error(() -> new VlmClientException("Empty response from VLM service",
+            new IllegalStateException("Response is null"))))
+        .map(response -> {
+          String content = response.getContent();
+          if (content == null) {
+            throw new VlmClientException("Invalid response format: missing content",
+                new IllegalStateException("Content is null"));
+          }
+
+          if (imageHash != null) {
+            ocrCache.put(cacheKey(imageHash, prompt, endpoint.model()), content.getBytes(StandardCharsets.UTF_8));
+          }
+          return content;
+        });
+  }
 
-      String content = response.getContent();
-      if (content == null) {
-        throw new VlmClientException("Invalid response format: missing content",
-            new IllegalStateException("Content is null"));
+  /**
+   * 여러 페이지 이미지를 요청 하나로 OCR한다. 이미지마다 페이지 구분자를 붙여 보내고, 응답을 구분자로 나누어 페이지별 결과를 만든다.
+   * 캐시에 결과가 있는 페이지는 요청에서 빼고, 나눈 결과는 묶음 프롬프트와 묶음 max_tokens를 키로 캐시한다.
+   * 묶음 결과는 페이지 하나씩 OCR한 결과와 품질이 다를 수 있으므로 페이지 하나씩 OCR할 때는 쓰지 않는다.
+   * max_tokens는 요청에 담은 페이지 수만큼 늘리되 max-batch-tokens를 넘지 않는다.
+   *
+   * @return 이미지 순서대로의 OCR 결과
+   * @throws VlmBatchSplitException 응답을 페이지로 나누지 못한 경우
+   */
+  public List<String> ocrBatch(final List<String> base64EncodedUris, final String prompt) {
+    for (final String uri : base64EncodedUris) {
+      if (!FileTypeDetector.validateBase64EncodedUri(uri)) {
+        throw new IllegalArgumentException("not valid Base64EncodedUri");
       }
+    }
 
-      return content;
+    final String[] results = new String[base64EncodedUris.size()];
+    final List<Integer> missing = new ArrayList<>();
+    final String batchPrompt = batchPrompt(prompt, results.length);
+    final int batchTokens = batchMaxTokens(results.length);
+    for (int i = 0; i < results.length; i++) {
+      final String imageHash = imageHash(base64EncodedUris.get(i));
+      results[i] = imageHash != null ? findCached(imageHash, batchPrompt, batchTokens) : null;
+      if (results[i] == null) {
+        missing.add(i);
+      }
+    }
+    if (missing.size() == 1) {
+      results[missing.get(0)] = ocr(base64EncodedUris.get(missing.get(0)), prompt);
+    } else if (missing.size() > 1) {
+      final List<String> uris = missing.stream().map(base64EncodedUris::get).toList();
+      final List<String> pages = requestBatch(uris, prompt);
+      for (int i = 0; i < missing.size(); i++) {
+        results[missing.get(i)] = pages.get(i);
+      }
+    }
+    return List.of(results);
+  }
+
+  private List<String> requestBatch(final List<String> base64EncodedUris, final String prompt) {
+    final String batchPrompt = batchPrompt(prompt, base64EncodedUris.size());
+    final int batchTokens = batchMaxTokens(base64EncodedUris.size());
+    try {
+      return pool.execute(endpoint -> {
+        final VlmChatResponse response = endpoint.client().post()
+            .uri("/v1/chat/completions")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(buildBatchRequest(endpoint, base64EncodedUris, batchPrompt, batchTokens))
+            .retrieve()
+            .bodyToMono(VlmChatResponse.class)
+            .block(timeout.multipliedBy(base64EncodedUris.size()));
+        final String content = response != null ? response.getContent() : null;
+        if (content == null) {
+          throw new VlmClientException("Invalid response format: missing content",
+              new IllegalStateException("Content is null"));
+        }
 
-    } catch (VlmClientException e) {
+        final List<String> pages = splitPages(content, base64EncodedUris.size());
+        if (pages == null) {
+          throw new VlmBatchSplitException(
+              "Cannot split batched VLM response into " + base64EncodedUris.size() + " pages");
+        }
+        for (int i = 0; i < pages.size(); i++) {
+          final String imageHash = imageHash(base64EncodedUris.get(i));
+          if (imageHash != null) {
+            ocrCache.put(cacheKey(imageHash, batchPrompt, endpoint.model(), batchTokens),
+                pages.get(i).getBytes(StandardCharsets.UTF_8));
+          }
+        }
+        return pages;
+      }, EndpointPool::isServerFailure);
+    } catch (VlmClientException | ServiceUnavailableException e) {
       throw e;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new VlmClientException("Interrupted while waiting for VLM server", e);
     } catch (Exception e) {
-      log.error("Failed to OCR image", e);
-      throw new VlmClientException("Failed to OCR image: " + e.getMessage(), e);
+      log.error("Failed to OCR images", e);
+      throw new VlmClientException("Failed to OCR images: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * 여러 페이지를 묶은 응답을 페이지 구분자로 나눈다. 구분자가 1부터 pages까지 순서대로 한 번씩 있어야 한다.
+   *
+   * @return 페이지별 텍스트, 형식이 맞지 않으면 null
+   */
+  static List<String> splitPages(final String content, final int pages) {
+    final List<MatchResult> delimiters = PAGE_DELIMITER.matcher(content).results().toList();
+    if (delimiters.size() != pages || !content.substring(0, delimiters.get(0).start()).isBlank()) {
+      return null;
+    }
+
+    final List<String> result = new ArrayList<>(pages);
+    for (int i = 0; i < pages; i++) {
+      if (Integer.parseInt(delimiters.get(i).group(1)) != i + 1) {
+        return null;
+      }
+      final int end = i + 1 < pages ? delimiters.get(i + 1).start() : content.length();
+      result.add(content.substring(delimiters.get(i).end(), end).strip());
     }
+    return result;
+  }
+
+  /**
+   * 이미지를 OCR하면서 생성되는 텍스트 조각을 SSE 스트림(stream: true)으로 받는다.
+   * 캐시에 결과가 있으면 전체 결과를 한 조각으로 반환하고, 스트림이 끝나면 합친 결과를 캐시에 저장한다.
+   * 스트리밍에서는 timeout을 조각 사이의 최대 대기 시간으로 사용한다.
+   * 첫 조각을 받기 전에 서버 오류가 나면 재시도 예산 안에서 다른 서버로 다시 보내고, 조각을 받기 시작한 뒤의 오류는 그대로 전달한다.
+   *
+   * @return 생성 순서대로의 텍스트 조각
+   */
+  public Flux<String> ocrStream(final String base64EncodedUri, final String prompt) {
+    if (!FileTypeDetector.validateBase64EncodedUri(base64EncodedUri)) {
+      return Flux.error(new IllegalArgumentException("not valid Base64EncodedUri"));
+    }
+
+    return Flux.defer(() -> {
+      final String imageHash = imageHash(base64EncodedUri);
+      final String cached = imageHash != null ? findCached(imageHash, prompt) : null;
+      if (cached != null) {
+        return Flux.just(cached);
+      }
+
+      return pool.executeStream(endpoint -> {
+        final StringBuilder content = new StringBuilder();
+        return endpoint.client().post()
+            .uri("/v1/chat/completions")
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .bodyValue(buildRequest(endpoint, base64EncodedUri, prompt, true))
+            .retrieve()
+            .bodyToFlux(SERVER_SENT_EVENT_TYPE)
+            .timeout(timeout)
+            .mapNotNull(ServerSentEvent::data)
+            .takeWhile(data -> !STREAM_DONE.equals(data.strip()))
+            .mapNotNull(VlmClient::parseChunk)
+            .doOnNext(content::append)
+            .doOnComplete(() -> {
+              if (imageHash != null) {
+                ocrCache.put(cacheKey(imageHash, prompt, endpoint.model()),
+                    content.toString().getBytes(StandardCharsets.UTF_8));
+              }
+            });
+      }, EndpointPool::isServerFailure);
+    })
+        .subscribeOn(Schedulers.boundedElastic())
+        .onErrorMap(e -> !(e instanceof VlmClientException || e instanceof ServiceUnavailableException), e -> {
+          log.error("Failed to OCR image", e);
+          return new VlmClientException("Failed to OCR image: " + e.getMessage(), e);
+        });
+  }
+
+  private static String parseChunk(final String data) {
+    try {
+      return OBJECT_MAPPER.readValue(data, VlmChatChunk.class).getDelta();
+    } catch (JsonProcessingException e) {
+      throw new VlmClientException("Invalid stream chunk: " + data, e);
+    }
+  }
+
+  /**
+   * MIME 타입이 달라도 같은 이미지로 볼 수 있도록 Base64 데이터 부분만 해시한다.
+   *
+   * @return 이미지 해시, 캐시가 꺼져 있으면 null
+   */
+  private String imageHash(final String base64EncodedUri) {
+    if (!ocrCache.isEnabled()) {
+      return null;
+    }
+    return TieredCache.sha256(base64EncodedUri.substring(base64EncodedUri.indexOf(',') + 1)
+        .getBytes(StandardCharsets.US_ASCII));
+  }
+
+  /**
+   * 이미지마다 페이지 구분자를 앞에 붙이고, 마지막에 프롬프트와 출력 형식을 지시한다.
+   */
+  private VlmChatRequest buildBatchRequest(final VlmEndpoint endpoint, final List<String> base64EncodedUris,
+      final String batchPrompt, final int batchTokens) {
+    final List<VlmChatRequest.Content> content = new ArrayList<>();
+    for (int i = 0; i < base64EncodedUris.size(); i++) {
+      content.add(new TextContent(pageDelimiter(i + 1)));
+      content.add(new ImageContent(base64EncodedUris.get(i)));
+    }
+    content.add(new TextContent(batchPrompt));
+    return new VlmChatRequest(
+        endpoint.model(),
+        List.of(new VlmChatRequest.Message("user", content)),
+        batchTokens,
+        temperature);
+  }
+
+  /**
+   * 묶음 요청의 마지막에 붙이는 프롬프트와 출력 형식 지시.
+   */
+  private static String batchPrompt(final String prompt, final int pages) {
+    return prompt + "\n\nThe " + pages
+        + " images above are consecutive document pages. Process each page separately. "
+        + "Start the output for each page with a line containing only <<<PAGE N>>> where N is the page number, "
+        + "in order, and output nothing before the first page.";
+  }
+
+  /**
+   * 묶음 요청의 max_tokens. 페이지 수만큼 늘리되 maxBatchTokens가 있으면 그 값을 넘지 않는다.
+   */
+  private int batchMaxTokens(final int pages) {
+    final long tokens = (long) maxTokens * pages;
+    return (int) (maxBatchTokens > 0 ? Math.min(tokens, maxBatchTokens) : Math.min(tokens, Integer.MAX_VALUE));
+  }
+
+  private static String pageDelimiter(final int page) {
+    return "<<<PAGE " + page + ">>>";
+  }
+
+  private VlmChatRequest buildRequest(final VlmEndpoint endpoint, final String base64EncodedUri,
+      final String prompt, final Boolean stream) {
+    return new VlmChatRequest(
+        endpoint.model(),
+        List.of(new VlmChatRequest.Message(
+            "user",
+            List.of(
+                new ImageContent(base64EncodedUri),
+                new TextContent(prompt)))),
+        maxTokens,
+        temperature,
+        stream);
   }
 
-  private record VlmEndpoint(WebClient client, String model) {
+  /**
+   * @param endpoint 부하 분산 상태와 동시 요청 제한
+   */
+  private record VlmEndpoint(WebClient client, String model, Endpoint endpoint) {
   }
 }
@@ -0,0 +1,126 @@
+package me.hanju.parsekit.parser.client.endpoint;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 서버 하나의 서킷 브레이커.
+ * - CLOSED: 요청을 보낸다. 서버 오류가 failure-threshold번 연속되면 OPEN이 된다.
+ * - OPEN: 요청을 보내지 않는다. 헬스 체크가 성공하거나, 마지막 실패 후 open-duration이 지나면 HALF_OPEN이 된다.
+ * - HALF_OPEN: 시험 요청 하나만 보낸다. 시험 요청이 성공하면 CLOSED, 실패하면 바로 OPEN이 되며,
+ *   그동안 다른 요청은 OPEN과 같이 보내지 않으므로 회복 중인 서버에 쌓인 요청이 한꺼번에 몰리지 않는다.
+ */
+public final class CircuitBreaker {
+
+  public enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  private final int failureThreshold;
+  private final long openDurationNanos;
+  private final LongSupplier clock;
+
+  private State state = State.CLOSED;
+  private int consecutiveFailures = 0;
+  private long openedAt = 0;
+  /** HALF_OPEN에서 시험 요청이 진행 중인지 여부 */
+  private boolean trialInFlight = false;
+
+  /**
+   * @param failureThreshold  OPEN으로 바꿀 연속 서버 오류 수, 0이면 항상 CLOSED
+   * @param openDurationNanos OPEN 상태를 유지하는 시간, 0이면 헬스 체크로만 HALF_OPEN이 된다
+   * @param clock             현재 시각 ({@link System#nanoTime()})
+   */
+  public CircuitBreaker(final int failureThreshold, final long openDurationNanos, final LongSupplier clock) {
+    this.failureThreshold = failureThreshold;
+    this.openDurationNanos = openDurationNanos;
+    this.clock = clock;
+  }
+
+  public CircuitBreaker(final int failureThreshold, final long openDurationNanos) {
+    this(failureThreshold, openDurationNanos, System::nanoTime);
+  }
+
+  /**
+   * 항상 CLOSED인 서킷 브레이커.
+   */
+  public static CircuitBreaker disabled() {
+    return new CircuitBreaker(0, 0);
+  }
+
+  public synchronized State getState() {
+    if (state == State.OPEN && openDurationNanos > 0 && clock.getAsLong() - openedAt >= openDurationNanos) {
+      state = State.HALF_OPEN;
+    }
+    return state;
+  }
+
+  /**
+   * 요청을 보낼 수 있는지 확인한다. OPEN이거나 HALF_OPEN에서 시험 요청이 진행 중이면 false.
+   */
+  public synchronized boolean isAvailable() {
+    final State current = getState();
+    return current == State.CLOSED || (current == State.HALF_OPEN && !trialInFlight);
+  }
+
+  /**
+   * 요청을 보내기 전에 허가를 받는다. HALF_OPEN에서는 시험 요청 하나만 허가한다.
+   * 허가받은 요청은 끝나면 {@link #onSuccess()}, {@link #onFailure()}, {@link #onCancel()} 중 하나를 호출해야 한다.
+   *
+   * @return 요청을 보내도 되면 true
+   */
+  public synchronized boolean tryAcquire() {
+    final State current = getState();
+    if (current == State.HALF_OPEN && !trialInFlight) {
+      trialInFlight = true;
+      return true;
+    }
+    return current == State.CLOSED;
+  }
+
+  public synchronized void onSuccess() {
+    consecutiveFailures = 0;
+    trialInFlight = false;
+    state = State.CLOSED;
+  }
+
+  /**
+   * 결과를 알 수 없게 끝난 요청(취소 등)을 기록한다. 시험 요청이었으면 다른 요청이 시험 요청이 될 수 있다.
+   */
+  public synchronized void onCancel() {
+    trialInFlight = false;
+  }
+
+  /**
+   * 서버 오류를 기록한다. 잘못된 요청(4xx)처럼 서버 상태와 무관한 실패는 기록하지 않는다.
+   */
+  public synchronized void onFailure() {
+    consecutiveFailures++;
+    trialInFlight = false;
+    if (failureThreshold <= 0) {
+      return;
+    }
+    if (getState() == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+      open();
+    }
+  }
+
+  /**
+   * 헬스 체크 결과를 기록한다. OPEN일 때만 반영하며, 성공하면 HALF_OPEN이 되고 실패하면 OPEN 시간을 다시 잰다.
+   */
+  public synchronized void onProbe(final boolean healthy) {
+    if (state != State.OPEN) {
+      return;
+    }
+    if (healthy) {
+      state = State.HALF_OPEN;
+    } else {
+      openedAt = clock.getAsLong();
+    }
+  }
+
+  private void open() {
+    state = State.OPEN;
+    trialInFlight = false;
+    openedAt = clock.getAsLong();
+  }
+}
@@ -0,0 +1,135 @@
+package me.hanju.parsekit.parser.client.endpoint;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서버 하나에 동시에 보내는 요청 수를 제한한다.
+ * 적응형이면 AIMD(additive increase, multiplicative decrease)로 제한을 조정한다.
+ * - 요청이 실패하거나 응답 시간이 기준 응답 시간의 latency-tolerance배를 넘으면 제한에 backoff-ratio를 곱해 줄인다.
+ * - 제한의 절반 이상을 사용 중일 때 요청이 정상적으로 끝나면 제한을 1/limit씩 늘린다 (제한만큼 끝나면 1 증가).
+ * 기준 응답 시간은 정상 응답 시간의 느린 지수 이동 평균이다.
+ */
+public final class ConcurrencyLimiter {
+
+  /** 기준 응답 시간의 EWMA 반영 비율 */
+  private static final double BASELINE_ALPHA = 0.05;
+
+  private final boolean adaptive;
+  private final int minLimit;
+  private final int maxLimit;
+  private final double backoffRatio;
+  private final double latencyTolerance;
+
+  private double limit;
+  private int inFlight = 0;
+  private double baselineNanos = 0;
+
+  private ConcurrencyLimiter(final boolean adaptive, final int initialLimit, final int minLimit, final int maxLimit,
+      final double backoffRatio, final double latencyTolerance) {
+    this.adaptive = adaptive;
+    this.minLimit = Math.max(1, minLimit);
+    this.maxLimit = Math.max(this.minLimit, maxLimit);
+    this.backoffRatio = backoffRatio;
+    this.latencyTolerance = latencyTolerance;
+    this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+  }
+
+  /**
+   * 고정된 제한을 사용한다.
+   *
+   * @param maxConcurrency 최대 동시 요청 수, 0이면 제한하지 않음
+   */
+  public static ConcurrencyLimiter fixed(final int maxConcurrency) {
+    final int limit = maxConcurrency > 0 ? maxConcurrency : Integer.MAX_VALUE;
+    return new ConcurrencyLimiter(false, limit, limit, limit, 1.0, 0);
+  }
+
+  /**
+   * AIMD로 제한을 조정한다.
+   *
+   * @param initialLimit     처음 제한
+   * @param minLimit         최소 제한
+   * @param maxLimit         최대 제한
+   * @param backoffRatio     제한을 줄일 때 곱하는 비율 (0 ~ 1)
+   * @param latencyTolerance 제한을 줄이기 시작할 응답 시간 (기준 응답 시간의 배수)
+   */
+  public static ConcurrencyLimiter adaptive(final int initialLimit, final int minLimit, final int maxLimit,
+      final double backoffRatio, final double latencyTolerance) {
+    return new ConcurrencyLimiter(true, initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance);
+  }
+
+  public boolean isUnlimited() {
+    return !adaptive && maxLimit == Integer.MAX_VALUE;
+  }
+
+  public synchronized int getLimit() {
+    return (int) limit;
+  }
+
+  public synchronized int getInFlight() {
+    return inFlight;
+  }
+
+  public synchronized boolean hasCapacity() {
+    return inFlight < (int) limit;
+  }
+
+  public synchronized boolean tryAcquire() {
+    if (inFlight >= (int) limit) {
+      return false;
+    }
+    inFlight++;
+    return true;
+  }
+
+  /**
+   * 제한에 여유가 생길 때까지 최대 timeoutNanos 동안 기다린다.
+   *
+   * @return 확보했으면 true, 시간 안에 확보하지 못했으면 false
+   */
+  public synchronized boolean acquire(final long timeoutNanos) throws InterruptedException {
+    final long deadline = System.nanoTime() + timeoutNanos;
+    while (inFlight >= (int) limit) {
+      final long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return false;
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+    inFlight++;
+    return true;
+  }
+
+  /**
+   * 요청 슬롯을 반납하고 결과로 제한을 조정한다.
+   *
+   * @param latencyNanos 응답 시간
+   * @param success      요청 성공 여부
+   */
+  public synchronized void release(final long latencyNanos, final boolean success) {
+    final boolean saturated = inFlight * 2 >= (int) limit;
+    inFlight--;
+
+    if (adaptive) {
+      if (!success || (baselineNanos > 0 && latencyNanos > baselineNanos * latencyTolerance)) {
+        limit = Math.max(minLimit, limit * backoffRatio);
+      } else if (saturated) {
+        limit = Math.min(maxLimit, limit + 1.0 / limit);
+      }
+      if (success) {
+        baselineNanos = baselineNanos == 0
+            ? latencyNanos
+            : BASELINE_ALPHA * latencyNanos + (1 - BASELINE_ALPHA) * baselineNanos;
+      }
+    }
+    notifyAll();
+  }
+
+  /**
+   * 결과를 알 수 없게 끝난 요청(취소 등)의 슬롯을 반납한다. 제한은 조정하지 않는다.
+   */
+  public synchronized void release() {
+    inFlight--;
+    notifyAll();
+  }
+}
@@ -0,0 +1,194 @@
+package me.hanju.parsekit.parser.client.endpoint;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 부하 분산 대상 서버 하나의 상태.
+ * 진행 중인 요청 수, 응답 시간의 지수 이동 평균(EWMA), 요청/실패 수를 집계하고
+ * {@link ConcurrencyLimiter}로 서버별 동시 요청 수를, {@link CircuitBreaker}로 장애 서버로 가는 요청을 막는다.
+ */
+public class Endpoint {
+
+  /** 새 응답 시간의 EWMA 반영 비율 */
+  private static final double EWMA_ALPHA = 0.3;
+  /**
+   * 응답 시간 EWMA가 줄어드는 시간 상수. 마지막 응답 이후 이 시간이 지날 때마다 1/e로 줄어들므로,
+   * 느려서 요청을 받지 못하던 서버도 시간이 지나면 다시 선택되어 응답 시간을 새로 잰다.
+   */
+  private static final double EWMA_DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+  /**
+   * 비용 계산에 더하는 최소 응답 시간. 아직 응답 시간을 모르는 서버는 이 값으로 계산되어 먼저 선택되고,
+   * 모든 서버의 응답 시간을 모를 때는 진행 중인 요청 수만으로 비교된다.
+   */
+  private static final double MIN_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final String url;
+  private final int weight;
+  private final ConcurrencyLimiter limiter;
+  private final CircuitBreaker circuitBreaker;
+  private final LongSupplier clock;
+
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong failures = new AtomicLong();
+  private double ewmaLatencyNanos = 0;
+  /** 응답 시간 EWMA를 마지막으로 갱신한 시각 */
+  private long ewmaUpdatedNanos;
+
+  /**
+   * @param url            서버 주소
+   * @param weight         가중치 (1 이상, 클수록 더 많은 요청을 받는다)
+   * @param limiter        모든 요청을 합친 동시 요청 제한
+   * @param circuitBreaker 서버 장애 감지
+   * @param clock          현재 시각 ({@link System#nanoTime()})
+   */
+  public Endpoint(final String url, final int weight, final ConcurrencyLimiter limiter,
+      final CircuitBreaker circuitBreaker, final LongSupplier clock) {
+    this.url = url;
+    this.weight = Math.max(1, weight);
+    this.limiter = limiter;
+    this.circuitBreaker = circuitBreaker;
+    this.clock = clock;
+  }
+
+  public Endpoint(final String url, final int weight, final ConcurrencyLimiter limiter,
+      final CircuitBreaker circuitBreaker) {
+    this(url, weight, limiter, circuitBreaker, System::nanoTime);
+  }
+
+  public Endpoint(final String url, final int weight, final ConcurrencyLimiter limiter) {
+    this(url, weight, limiter, CircuitBreaker.disabled());
+  }
+
+  /**
+   * 고정된 동시 요청 제한을 사용한다.
+   *
+   * @param maxConcurrency 최대 동시 요청 수, 0이면 제한하지 않음
+   */
+  public Endpoint(final String url, final int weight, final int maxConcurrency) {
+    this(url, weight, ConcurrencyLimiter.fixed(maxConcurrency));
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  public int getWeight() {
+    return weight;
+  }
+
+  public int getOutstanding() {
+    return limiter.getInFlight();
+  }
+
+  public CircuitBreaker getCircuitBreaker() {
+    return circuitBreaker;
+  }
+
+  /**
+   * 서킷 브레이커가 요청을 받을 수 있는지 확인한다 (OPEN이 아니고, HALF_OPEN이면 시험 요청이 진행 중이 아님).
+   */
+  public boolean isAvailable() {
+    return circuitBreaker.isAvailable();
+  }
+
+  /**
+   * 마지막 응답 이후 지난 시간만큼 줄어든 응답 시간 EWMA.
+   */
+  public synchronized double getEwmaLatencyNanos() {
+    return decayedLatencyNanos(clock.getAsLong());
+  }
+
+  private double decayedLatencyNanos(final long now) {
+    final long elapsed = Math.max(0, now - ewmaUpdatedNanos);
+    return ewmaLatencyNanos * Math.exp(-elapsed / EWMA_DECAY_NANOS);
+  }
+
+  /**
+   * 동시 요청 제한에 여유가 있는지 확인한다. 확인 후 다른 요청이 먼저 슬롯을 가져갈 수 있다.
+   */
+  public boolean hasCapacity() {
+    return limiter.hasCapacity();
+  }
+
+  /**
+   * 기다리지 않고 요청 슬롯을 확보한다. 서킷 브레이커가 HALF_OPEN이면 시험 요청 하나만 확보할 수 있다.
+   *
+   * @return 확보했으면 true
+   */
+  public boolean tryAcquire() {
+    return limiter.tryAcquire() && admit();
+  }
+
+  /**
+   * 요청 슬롯이 날 때까지 최대 timeoutNanos 동안 기다려 확보한다.
+   * 슬롯을 확보한 뒤 서킷 브레이커가 요청을 받지 않으면(다른 시험 요청이 진행 중 등) 슬롯을 돌려주고 false를 반환한다.
+   *
+   * @return 확보했으면 true
+   */
+  public boolean acquire(final long timeoutNanos) throws InterruptedException {
+    return limiter.acquire(timeoutNanos) && admit();
+  }
+
+  /**
+   * 확보한 슬롯으로 요청을 보내도 되는지 서킷 브레이커에 묻고, 안 되면 슬롯을 돌려준다.
+   */
+  private boolean admit() {
+    if (circuitBreaker.tryAcquire()) {
+      return true;
+    }
+    limiter.release();
+    return false;
+  }
+
+  /**
+   * 요청 슬롯을 반납하고 결과를 기록한다.
+   *
+   * @param startNanos 요청을 시작한 시각 (clock 기준, 기본은 {@link System#nanoTime()})
+   * @param success    서버 오류 없이 끝났는지 여부 (잘못된 요청으로 인한 4xx는 성공으로 본다),
+   *                   실패한 요청의 응답 시간은 EWMA에 반영하지 않는다
+   */
+  public void release(final long startNanos, final boolean success) {
+    final long now = clock.getAsLong();
+    final long latencyNanos = now - startNanos;
+    limiter.release(latencyNanos, success);
+
+    requests.incrementAndGet();
+    if (success) {
+      recordLatency(latencyNanos, now);
+      circuitBreaker.onSuccess();
+    } else {
+      failures.incrementAndGet();
+      circuitBreaker.onFailure();
+    }
+  }
+
+  /**
+   * 완료 여부를 알 수 없게 끝난 요청(취소 등)의 슬롯을 반납한다. 통계에는 반영하지 않는다.
+   */
+  public void release() {
+    limiter.release();
+    circuitBreaker.onCancel();
+  }
+
+  private synchronized void recordLatency(final long latencyNanos, final long now) {
+    ewmaLatencyNanos = ewmaLatencyNanos == 0
+        ? latencyNanos
+        : EWMA_ALPHA * latencyNanos + (1 - EWMA_ALPHA) * decayedLatencyNanos(now);
+    ewmaUpdatedNanos = now;
+  }
+
+  /**
+   * 새 요청을 이 서버에 보낼 때의 예상 비용. 진행 중인 요청이 모두 끝나고 새 요청까지 처리하는 시간을 가중치로 나눈다.
+   */
+  public double cost() {
+    return (getOutstanding() + 1) * (getEwmaLatencyNanos() + MIN_LATENCY_NANOS) / weight;
+  }
+
+  public EndpointStats stats() {
+    return new EndpointStats(url, weight, limiter.isUnlimited() ? 0 : limiter.getLimit(), getOutstanding(),
+        requests.get(), failures.get(), getEwmaLatencyNanos() / 1_000_000.0,
+        circuitBreaker.getState().name().toLowerCase());
+  }
+}
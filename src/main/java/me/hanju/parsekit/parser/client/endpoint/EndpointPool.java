@@ -0,0 +1,378 @@
+package me.hanju.parsekit.parser.client.endpoint;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import lombok.extern.slf4j.Slf4j;
+import me.hanju.parsekit.common.exception.ServiceUnavailableException;
+import me.hanju.parsekit.parser.client.endpoint.CircuitBreaker.State;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 같은 서비스를 제공하는 서버 묶음. 서버 선택, 동시 요청 제한, 서킷 브레이커, 재시도와 장애 조치, 헤지 요청, 헬스 체크를 맡는다.
+ * 서버 오류가 나면 재시도 예산 안에서 아직 시도하지 않은 정상 서버로 다시 보낸다.
+ *
+ * @param <T> 서버 하나의 클라이언트 정보 (WebClient, 모델 등)
+ */
+@Slf4j
+public final class EndpointPool<T> implements AutoCloseable {
+
+  /**
+   * 서버 하나에 보내는 요청.
+   */
+  @FunctionalInterface
+  public interface Attempt<T, R> {
+    R call(T target) throws Exception;
+  }
+
+  /** 헤지 시점을 정하는 데 쓰는 최근 응답 시간 수 */
+  private static final int LATENCY_WINDOW_SIZE = 1000;
+
+  private final String name;
+  private final List<T> targets;
+  private final Function<T, Endpoint> endpointOf;
+  private final LoadBalancer loadBalancer;
+  private final Duration queueTimeout;
+  private final RetryBudget retryBudget;
+  private final int maxAttempts;
+  /** 모든 서버를 합친 최근 성공 요청의 응답 시간 */
+  private final LatencyWindow latencies = new LatencyWindow(LATENCY_WINDOW_SIZE);
+  private Disposable healthCheck;
+
+  /**
+   * @param name         로그와 오류 메시지에 쓰는 서비스 이름
+   * @param targets      서버 목록
+   * @param endpointOf   서버의 부하 분산 상태
+   * @param loadBalancer 서버 선택 전략
+   * @param queueTimeout 모든 서버가 동시 요청 제한에 도달했을 때 기다리는 최대 시간
+   * @param retryBudget  재시도 예산
+   * @param maxAttempts  요청 하나의 최대 시도 횟수 (첫 시도 포함), 1이면 재시도하지 않음
+   */
+  public EndpointPool(final String name, final List<T> targets, final Function<T, Endpoint> endpointOf,
+      final LoadBalancer loadBalancer, final Duration queueTimeout, final RetryBudget retryBudget,
+      final int maxAttempts) {
+    this.name = name;
+    this.targets = List.copyOf(targets);
+    this.endpointOf = endpointOf;
+    this.loadBalancer = loadBalancer;
+    this.queueTimeout = queueTimeout;
+    this.retryBudget = retryBudget;
+    this.maxAttempts = Math.max(1, maxAttempts);
+  }
+
+  public List<T> getTargets() {
+    return targets;
+  }
+
+  public List<EndpointStats> getStats() {
+    return targets.stream().map(target -> endpointOf.apply(target).stats()).toList();
+  }
+
+  /**
+   * 서킷 브레이커가 열리지 않았고 동시 요청 여유가 있는 서버 중에서 부하 분산 전략으로 서버를 고르고 요청 슬롯을 확보한다.
+   * 모든 서버가 동시 요청 제한에 도달했으면 정상 서버 중에서 고른 서버에 슬롯이 날 때까지 queue-timeout 동안 기다린다.
+   * 반환된 서버는 요청이 끝난 뒤 반드시 {@link Endpoint#release(long, boolean)}해야 한다.
+   *
+   * @throws ServiceUnavailableException 정상 서버가 없거나 queue-timeout 안에 슬롯을 확보하지 못한 경우
+   */
+  public T acquire() throws InterruptedException {
+    return acquire(Set.of());
+  }
+
+  private T acquire(final Set<T> excluded) throws InterruptedException {
+    final T available = tryAcquire(excluded);
+    if (available != null) {
+      return available;
+    }
+
+    final List<T> healthy = healthyTargets(excluded);
+    if (healthy.isEmpty()) {
+      log.warn("No healthy {} server is available (all circuit breakers are open)", name);
+      throw new ServiceUnavailableException("No healthy " + name + " server is available, try again later");
+    }
+    final T selected = select(healthy);
+    if (!endpointOf.apply(selected).acquire(queueTimeout.toNanos())) {
+      log.warn("All {} servers are at their concurrency limit, gave up after {}", name, queueTimeout);
+      throw new ServiceUnavailableException("All " + name + " servers are busy, try again later");
+    }
+    return selected;
+  }
+
+  /**
+   * 기다리지 않고 동시 요청 여유가 있는 정상 서버의 요청 슬롯을 확보한다.
+   *
+   * @return 확보한 서버, 여유가 있는 서버가 없으면 null
+   */
+  private T tryAcquire(final Set<T> excluded) {
+    while (true) {
+      final List<T> available = targets.stream()
+          .filter(target -> !excluded.contains(target))
+          .filter(target -> endpointOf.apply(target).isAvailable() && endpointOf.apply(target).hasCapacity())
+          .toList();
+      if (available.isEmpty()) {
+        return null;
+      }
+      final T selected = select(available);
+      if (endpointOf.apply(selected).tryAcquire()) {
+        return selected;
+      }
+    }
+  }
+
+  private List<T> healthyTargets(final Set<T> excluded) {
+    return targets.stream()
+        .filter(target -> !excluded.contains(target) && endpointOf.apply(target).isAvailable())
+        .toList();
+  }
+
+  private T select(final List<T> candidates) {
+    return candidates.get(loadBalancer.select(candidates.stream().map(endpointOf).toList()));
+  }
+
+  /**
+   * 서버를 골라 요청을 보낸다. 서버 오류가 나면 최대 시도 횟수와 재시도 예산 안에서 아직 시도하지 않은 정상 서버로 다시 보낸다.
+   *
+   * @param attempt       서버 하나에 보내는 요청
+   * @param serverFailure 서버 장애로 볼 오류인지 판단 (서킷 브레이커에 기록하고 재시도한다)
+   * @return 요청 결과
+   * @throws ServiceUnavailableException 요청을 보낼 서버를 확보하지 못한 경우
+   * @throws Exception                   재시도하지 않은 마지막 오류
+   */
+  public <R> R execute(final Attempt<T, R> attempt, final Predicate<Throwable> serverFailure) throws Exception {
+    retryBudget.onRequest();
+    final Set<T> tried = new HashSet<>();
+    while (true) {
+      final T target = acquire(tried);
+      final Endpoint endpoint = endpointOf.apply(target);
+      final long startNanos = System.nanoTime();
+      boolean success = false;
+      try {
+        final R result = attempt.call(target);
+        success = true;
+        latencies.record(System.nanoTime() - startNanos);
+        return result;
+      } catch (Exception e) {
+        if (!serverFailure.test(e)) {
+          success = true;
+          throw e;
+        }
+        tried.add(target);
+        if (tried.size() >= maxAttempts || healthyTargets(tried).isEmpty() || !retryBudget.tryRetry()) {
+          throw e;
+        }
+        log.warn("{} request to {} failed, retrying on another server: {}", name, endpoint.getUrl(), e.getMessage());
+      } finally {
+        endpoint.release(startNanos, success);
+      }
+    }
+  }
+
+  /**
+   * 서버를 골라 스트리밍 요청을 보낸다. 첫 조각을 받기 전에 서버 오류가 나면 {@link #execute}와 같이 최대 시도 횟수와
+   * 재시도 예산 안에서 아직 시도하지 않은 정상 서버로 다시 보낸다. 조각을 받기 시작한 뒤의 오류는 이미 전달한 조각과
+   * 이어 붙일 수 없으므로 그대로 전달한다. 스트림이 끝나거나 취소되면 서버의 요청 슬롯을 반납한다.
+   *
+   * @param attempt       서버 하나에 보내는 스트리밍 요청
+   * @param serverFailure 서버 장애로 볼 오류인지 판단
+   * @return 응답 조각, 서버를 확보하지 못하면 ServiceUnavailableException으로 끝난다
+   */
+  public <R> Flux<R> executeStream(final Function<T, Flux<R>> attempt, final Predicate<Throwable> serverFailure) {
+    return Flux.defer(() -> {
+      retryBudget.onRequest();
+      return stream(attempt, serverFailure, new HashSet<>());
+    });
+  }
+
+  private <R> Flux<R> stream(final Function<T, Flux<R>> attempt, final Predicate<Throwable> serverFailure,
+      final Set<T> tried) {
+    final AtomicBoolean received = new AtomicBoolean();
+    // 슬롯이 날 때까지 기다릴 수 있으므로 블로킹 작업용 스케줄러에서 서버를 확보한다
+    final Mono<Call<T>> acquire = Mono.fromCallable(() -> new Call<>(acquire(tried), System.nanoTime()))
+        .subscribeOn(Schedulers.boundedElastic());
+    return Flux.<R, Call<T>>usingWhen(acquire,
+        call -> attempt.apply(call.target()).doOnNext(chunk -> received.set(true)),
+        call -> Mono.fromRunnable(() -> endpointOf.apply(call.target()).release(call.startNanos(), true)),
+        (call, error) -> Mono.fromRunnable(() -> {
+          tried.add(call.target());
+          endpointOf.apply(call.target()).release(call.startNanos(), !serverFailure.test(error));
+        }),
+        call -> Mono.fromRunnable(() -> endpointOf.apply(call.target()).release()))
+        .onErrorResume(e -> !received.get() && serverFailure.test(e) && !tried.isEmpty()
+            && tried.size() < maxAttempts && !healthyTargets(tried).isEmpty() && retryBudget.tryRetry(), e -> {
+              log.warn("{} stream failed before the first chunk, retrying on another server: {}", name,
+                  e.getMessage());
+              return stream(attempt, serverFailure, tried);
+            });
+  }
+
+  /**
+   * 스트리밍 요청 하나가 확보한 서버와 시작 시각.
+   */
+  private record Call<T>(T target, long startNanos) {
+  }
+
+  /**
+   * 헤지 요청을 사용하여 요청을 보낸다. 첫 요청이 최근 응답 시간의 백분위수 안에 끝나지 않거나 그 전에 서버 오류로 실패하면
+   * 헤지 예산 안에서 동시 요청 여유가 있는 다른 정상 서버로 같은 요청을 하나 더 보내고, 먼저 성공한 응답을 사용한다.
+   * 남은 요청은 취소한다. 최근 응답 시간 표본이 부족하면 {@link #execute}와 같이 동작한다.
+   *
+   * @param attempt       서버 하나에 보내는 요청 (각 요청은 스스로 응답 시간을 제한해야 한다)
+   * @param serverFailure 서버 장애로 볼 오류인지 판단
+   * @param quantile      헤지 요청을 보낼 응답 시간 백분위수 (0 ~ 1)
+   * @param hedgeBudget   헤지 예산
+   * @return 먼저 성공한 요청의 결과
+   * @throws ServiceUnavailableException 요청을 보낼 서버를 확보하지 못한 경우
+   * @throws Exception                   모든 요청이 실패한 경우 마지막 오류
+   */
+  public <R> R executeHedged(final Function<T, Mono<R>> attempt, final Predicate<Throwable> serverFailure,
+      final double quantile, final RetryBudget hedgeBudget) throws Exception {
+    final long hedgeDelayNanos = latencies.percentile(quantile);
+    if (hedgeDelayNanos <= 0) {
+      return execute(target -> attempt.apply(target).block(), serverFailure);
+    }
+
+    hedgeBudget.onRequest();
+    final Set<T> tried = new HashSet<>();
+    final List<CompletableFuture<R>> calls = new ArrayList<>();
+    try {
+      final T primary = acquire(tried);
+      tried.add(primary);
+      calls.add(call(primary, attempt, serverFailure));
+
+      try {
+        return calls.get(0).get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        log.debug("{} request to {} exceeded p{} latency ({} ms), hedging", name,
+            endpointOf.apply(primary).getUrl(), Math.round(quantile * 100), hedgeDelayNanos / 1_000_000);
+      } catch (ExecutionException e) {
+        if (!serverFailure.test(e.getCause())) {
+          throw unwrap(e);
+        }
+      }
+
+      if (hedgeBudget.tryRetry()) {
+        final T hedge = tryAcquire(tried);
+        if (hedge != null) {
+          tried.add(hedge);
+          calls.add(call(hedge, attempt, serverFailure));
+        }
+      }
+      return firstSuccess(calls);
+    } finally {
+      calls.forEach(call -> call.cancel(true));
+    }
+  }
+
+  /**
+   * 확보한 서버에 요청을 보낸다. 요청이 끝나거나 취소되면 서버의 요청 슬롯을 반납한다.
+   */
+  private <R> CompletableFuture<R> call(final T target, final Function<T, Mono<R>> attempt,
+      final Predicate<Throwable> serverFailure) {
+    final Endpoint endpoint = endpointOf.apply(target);
+    final long startNanos = System.nanoTime();
+    return Mono.defer(() -> attempt.apply(target))
+        .doOnSuccess(result -> {
+          endpoint.release(startNanos, true);
+          latencies.record(System.nanoTime() - startNanos);
+        })
+        .doOnError(e -> endpoint.release(startNanos, !serverFailure.test(e)))
+        .doOnCancel(endpoint::release)
+        .toFuture();
+  }
+
+  /**
+   * 먼저 성공한 요청의 결과를 기다린다. 모두 실패하면 마지막 오류를 던진다.
+   */
+  private static <R> R firstSuccess(final List<CompletableFuture<R>> calls) throws Exception {
+    final CompletableFuture<R> winner = new CompletableFuture<>();
+    final AtomicInteger remaining = new AtomicInteger(calls.size());
+    for (final CompletableFuture<R> call : calls) {
+      call.whenComplete((result, error) -> {
+        if (error == null) {
+          winner.complete(result);
+        } else if (remaining.decrementAndGet() == 0) {
+          winner.completeExceptionally(error);
+        }
+      });
+    }
+    try {
+      return winner.get();
+    } catch (ExecutionException e) {
+      throw unwrap(e);
+    }
+  }
+
+  private static Exception unwrap(final ExecutionException e) {
+    return e.getCause() instanceof Exception cause ? cause : e;
+  }
+
+  /**
+   * 서킷 브레이커가 열린 서버에 interval마다 헬스 체크 요청을 보낸다. 성공하면 그 서버로 다시 요청을 보내기 시작한다.
+   *
+   * @param probe   서버 하나의 헬스 체크 요청, 오류 없이 끝나면 정상으로 본다
+   * @param timeout 헬스 체크 응답 대기 시간
+   */
+  public void startHealthChecks(final Function<T, Mono<?>> probe, final Duration interval, final Duration timeout) {
+    healthCheck = Flux.interval(interval, interval)
+        .onBackpressureDrop()
+        .concatMap(tick -> Flux.fromIterable(targets)
+            .filter(target -> endpointOf.apply(target).getCircuitBreaker().getState() == State.OPEN)
+            .flatMap(target -> probe.apply(target)
+                .timeout(timeout)
+                .thenReturn(true)
+                .onErrorReturn(false)
+                .doOnNext(healthy -> onProbe(target, healthy))))
+        .subscribe();
+  }
+
+  private void onProbe(final T target, final boolean healthy) {
+    final Endpoint endpoint = endpointOf.apply(target);
+    if (healthy) {
+      log.info("{} server {} passed health check, resuming requests", name, endpoint.getUrl());
+    } else {
+      log.debug("{} server {} failed health check", name, endpoint.getUrl());
+    }
+    endpoint.getCircuitBreaker().onProbe(healthy);
+  }
+
+  @Override
+  public void close() {
+    if (healthCheck != null) {
+      healthCheck.dispose();
+    }
+  }
+
+  /**
+   * 서버 장애로 볼 WebClient 오류인지 판단한다. 연결 실패, 응답 시간 초과, 5xx와 429 응답은 서버 장애로,
+   * 그 밖의 4xx 응답이나 응답 형식 오류는 요청 자체의 문제로 본다.
+   */
+  public static boolean isServerFailure(final Throwable error) {
+    for (Throwable e = error; e != null; e = e.getCause() == e ? null : e.getCause()) {
+      if (e instanceof WebClientResponseException response) {
+        return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+      }
+      if (e instanceof WebClientRequestException || e instanceof TimeoutException || e instanceof IOException) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,24 @@
+package me.hanju.parsekit.parser.client.endpoint;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 서버별 부하 분산 통계.
+ *
+ * @param concurrencyLimit 현재 동시 요청 제한 (적응형이면 조정된 값), 0이면 제한 없음
+ * @param outstanding      진행 중인 요청 수
+ * @param requests         완료된 요청 수 (실패 포함)
+ * @param failures         실패한 요청 수
+ * @param ewmaLatencyMs    성공한 요청 응답 시간의 지수 이동 평균 (밀리초, 마지막 응답 이후 시간에 따라 줄어듦), 아직 없으면 0
+ * @param circuit          서킷 브레이커 상태 (closed, open, half_open)
+ */
+public record EndpointStats(
+    @JsonProperty("url") String url,
+    @JsonProperty("weight") int weight,
+    @JsonProperty("concurrency_limit") int concurrencyLimit,
+    @JsonProperty("outstanding") int outstanding,
+    @JsonProperty("requests") long requests,
+    @JsonProperty("failures") long failures,
+    @JsonProperty("ewma_latency_ms") double ewmaLatencyMs,
+    @JsonProperty("circuit") String circuit) {
+}
@@ -0,0 +1,23 @@
+package me.hanju.parsekit.parser.client.endpoint;
+
+import java.util.List;
+
+/**
+ * 모든 후보의 예상 비용({@link Endpoint#cost()})을 비교하여 가장 낮은 서버를 선택한다.
+ */
+class EwmaBalancer implements LoadBalancer {
+
+  @Override
+  public int select(final List<Endpoint> candidates) {
+    int selected = 0;
+    double selectedCost = Double.MAX_VALUE;
+    for (int i = 0; i < candidates.size(); i++) {
+      final double cost = candidates.get(i).cost();
+      if (cost < selectedCost) {
+        selected = i;
+        selectedCost = cost;
+      }
+    }
+    return selected;
+  }
+}
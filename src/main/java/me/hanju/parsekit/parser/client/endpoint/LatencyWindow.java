@@ -0,0 +1,46 @@
+package me.hanju.parsekit.parser.client.endpoint;
+
+import java.util.Arrays;
+
+/**
+ * 최근 성공한 요청의 응답 시간. 헤지 요청을 보낼 시점을 백분위수로 정하는 데 쓴다.
+ */
+public final class LatencyWindow {
+
+  /** 백분위수를 계산하는 데 필요한 최소 표본 수 */
+  static final int MIN_SAMPLES = 20;
+
+  private final long[] samples;
+  private int next = 0;
+  private int count = 0;
+
+  /**
+   * @param size 보관할 최근 응답 시간 수
+   */
+  public LatencyWindow(final int size) {
+    this.samples = new long[Math.max(MIN_SAMPLES, size)];
+  }
+
+  public synchronized void record(final long latencyNanos) {
+    samples[next] = latencyNanos;
+    next = (next + 1) % samples.length;
+    count = Math.min(count + 1, samples.length);
+  }
+
+  /**
+   * @param quantile 0 ~ 1 (예: 0.95)
+   * @return 최근 응답 시간의 백분위수 (나노초), 표본이 부족하면 0
+   */
+  public long percentile(final double quantile) {
+    final long[] sorted;
+    synchronized (this) {
+      if (count < MIN_SAMPLES) {
+        return 0;
+      }
+      sorted = Arrays.copyOf(samples, count);
+    }
+    Arrays.sort(sorted);
+    final int index = (int) Math.ceil(Math.min(1, Math.max(0, quantile)) * sorted.length) - 1;
+    return sorted[Math.max(0, index)];
+  }
+}
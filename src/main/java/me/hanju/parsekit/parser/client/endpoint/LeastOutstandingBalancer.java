@@ -0,0 +1,24 @@
+package me.hanju.parsekit.parser.client.endpoint;
+
+import java.util.List;
+
+/**
+ * 가중치 대비 진행 중인 요청이 가장 적은 서버를 선택한다. 같으면 앞쪽 서버를 선택한다.
+ */
+class LeastOutstandingBalancer implements LoadBalancer {
+
+  @Override
+  public int select(final List<Endpoint> candidates) {
+    int selected = 0;
+    double selectedLoad = Double.MAX_VALUE;
+    for (int i = 0; i < candidates.size(); i++) {
+      final Endpoint endpoint = candidates.get(i);
+      final double load = (double) (endpoint.getOutstanding() + 1) / endpoint.getWeight();
+      if (load < selectedLoad) {
+        selected = i;
+        selectedLoad = load;
+      }
+    }
+    return selected;
+  }
+}
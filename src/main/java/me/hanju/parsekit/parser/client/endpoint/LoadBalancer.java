@@ -0,0 +1,37 @@
+package me.hanju.parsekit.parser.client.endpoint;
+
+import java.util.List;
+
+/**
+ * 요청을 보낼 서버를 고르는 전략.
+ */
+public interface LoadBalancer {
+
+  /**
+   * 후보 서버 중 하나를 고른다.
+   *
+   * @param candidates 후보 서버 (비어 있지 않음)
+   * @return 고른 서버의 인덱스
+   */
+  int select(List<Endpoint> candidates);
+
+  static LoadBalancer create(final LoadBalancerType type) {
+    return switch (type) {
+      case ROUND_ROBIN -> new RoundRobinBalancer();
+      case LEAST_OUTSTANDING -> new LeastOutstandingBalancer();
+      case EWMA -> new EwmaBalancer();
+      case P2C -> new PowerOfTwoChoicesBalancer();
+    };
+  }
+
+  enum LoadBalancerType {
+    /** 가중치 비율대로 돌아가며 선택 (smooth weighted round-robin) */
+    ROUND_ROBIN,
+    /** 가중치 대비 진행 중인 요청이 가장 적은 서버 선택 */
+    LEAST_OUTSTANDING,
+    /** 진행 중인 요청 수와 응답 시간 EWMA로 계산한 예상 비용이 가장 낮은 서버 선택 */
+    EWMA,
+    /** 가중치 비율로 무작위로 두 서버를 뽑아 예상 비용이 낮은 서버 선택 (power of two choices) */
+    P2C
+  }
+}
@@ -0,0 +1,48 @@
+package me.hanju.parsekit.parser.client.endpoint;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 가중치 비율로 무작위로 서로 다른 두 서버를 뽑아 예상 비용({@link Endpoint#cost()})이 낮은 서버를 선택한다.
+ * 모든 서버를 비교하는 방식과 달리 여러 요청이 동시에 같은 서버로 몰리지 않는다.
+ */
+class PowerOfTwoChoicesBalancer implements LoadBalancer {
+
+  @Override
+  public int select(final List<Endpoint> candidates) {
+    if (candidates.size() == 1) {
+      return 0;
+    }
+
+    final int first = pick(candidates, -1);
+    final int second = pick(candidates, first);
+    return candidates.get(first).cost() <= candidates.get(second).cost() ? first : second;
+  }
+
+  /**
+   * 가중치 비율로 서버 하나를 뽑는다.
+   *
+   * @param excluded 제외할 인덱스, 없으면 -1
+   */
+  private static int pick(final List<Endpoint> candidates, final int excluded) {
+    long totalWeight = 0;
+    for (int i = 0; i < candidates.size(); i++) {
+      if (i != excluded) {
+        totalWeight += candidates.get(i).getWeight();
+      }
+    }
+
+    long point = ThreadLocalRandom.current().nextLong(totalWeight);
+    for (int i = 0; i < candidates.size(); i++) {
+      if (i == excluded) {
+        continue;
+      }
+      point -= candidates.get(i).getWeight();
+      if (point < 0) {
+        return i;
+      }
+    }
+    return excluded == 0 ? 1 : 0;
+  }
+}
@@ -0,0 +1,66 @@
+package me.hanju.parsekit.parser.client.endpoint;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 재시도 예산. 서버 장애 때 재시도가 몰려 부하가 몇 배로 늘어나지 않도록 재시도 수를 요청 수에 비례하게 제한한다.
+ * 요청마다 ratio만큼, 초마다 min-per-second만큼 토큰이 쌓이고 재시도마다 토큰 하나를 쓴다.
+ */
+public final class RetryBudget {
+
+  /** 쌓아 둘 수 있는 최대 토큰 수 (한 번에 몰아 쓸 수 있는 재시도 수) */
+  private static final double MAX_TOKENS = 10;
+
+  private final double ratio;
+  private final double minPerSecond;
+  private final LongSupplier clock;
+
+  private double tokens;
+  private long lastRefill;
+
+  /**
+   * @param ratio        요청 하나당 허용하는 재시도 수 (예: 0.2면 요청 5개당 재시도 1번)
+   * @param minPerSecond 요청이 적을 때도 초마다 허용하는 재시도 수
+   * @param clock        현재 시각 ({@link System#nanoTime()})
+   */
+  public RetryBudget(final double ratio, final double minPerSecond, final LongSupplier clock) {
+    this.ratio = Math.max(0, ratio);
+    this.minPerSecond = Math.max(0, minPerSecond);
+    this.clock = clock;
+    this.tokens = Math.min(MAX_TOKENS, this.minPerSecond);
+    this.lastRefill = clock.getAsLong();
+  }
+
+  public RetryBudget(final double ratio, final double minPerSecond) {
+    this(ratio, minPerSecond, System::nanoTime);
+  }
+
+  /**
+   * 첫 시도를 기록한다.
+   */
+  public synchronized void onRequest() {
+    refill();
+    tokens = Math.min(MAX_TOKENS, tokens + ratio);
+  }
+
+  /**
+   * 재시도할 토큰이 있으면 하나 쓴다.
+   *
+   * @return 재시도해도 되면 true
+   */
+  public synchronized boolean tryRetry() {
+    refill();
+    if (tokens < 1) {
+      return false;
+    }
+    tokens -= 1;
+    return true;
+  }
+
+  private void refill() {
+    final long now = clock.getAsLong();
+    tokens = Math.min(MAX_TOKENS, tokens + minPerSecond * (now - lastRefill) / TimeUnit.SECONDS.toNanos(1));
+    lastRefill = now;
+  }
+}
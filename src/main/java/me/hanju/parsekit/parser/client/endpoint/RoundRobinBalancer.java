@@ -0,0 +1,33 @@
+package me.hanju.parsekit.parser.client.endpoint;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 가중치 비율대로 돌아가며 선택한다 (nginx의 smooth weighted round-robin).
+ * 가중치가 모두 같으면 일반 라운드 로빈과 같다.
+ */
+class RoundRobinBalancer implements LoadBalancer {
+
+  private final Map<Endpoint, Long> currentWeights = new IdentityHashMap<>();
+
+  @Override
+  public synchronized int select(final List<Endpoint> candidates) {
+    long totalWeight = 0;
+    int selected = 0;
+    long selectedWeight = Long.MIN_VALUE;
+    for (int i = 0; i < candidates.size(); i++) {
+      final Endpoint endpoint = candidates.get(i);
+      final long current = currentWeights.getOrDefault(endpoint, 0L) + endpoint.getWeight();
+      currentWeights.put(endpoint, current);
+      totalWeight += endpoint.getWeight();
+      if (current > selectedWeight) {
+        selected = i;
+        selectedWeight = current;
+      }
+    }
+    currentWeights.put(candidates.get(selected), selectedWeight - totalWeight);
+    return selected;
+  }
+}
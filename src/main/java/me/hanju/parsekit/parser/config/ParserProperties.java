@@ -1,14 +1,21 @@
 package me.hanju.parsekit.parser.config;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
 import lombok.Getter;
 import lombok.Setter;
+import me.hanju.parsekit.common.cache.CacheProperties;
+import me.hanju.parsekit.parser.client.endpoint.CircuitBreaker;
+import me.hanju.parsekit.parser.client.endpoint.ConcurrencyLimiter;
+import me.hanju.parsekit.parser.client.endpoint.LoadBalancer.LoadBalancerType;
+import me.hanju.parsekit.parser.client.endpoint.RetryBudget;
 
 @Getter
 @Setter
@@ -25,19 +32,232 @@ public class ParserProperties {
     private List<String> baseUrls = new ArrayList<>();
     private Duration timeout;
     private int maxBufferSize;
+    /** 모든 요청을 합쳐 서버 하나에 동시에 보내는 최대 요청 수, 0이면 제한하지 않음 */
+    private int maxConcurrency = 0;
+    private ConcurrencyLimitProperties concurrencyLimit = new ConcurrencyLimitProperties();
+    private FailoverProperties failover = new FailoverProperties();
+    private DoclingBatchProperties batch = new DoclingBatchProperties();
+    private DoclingChunkProperties chunk = new DoclingChunkProperties();
+    private DoclingAsyncProperties async = new DoclingAsyncProperties();
+    private ImageStoreProperties imageStore = new ImageStoreProperties();
+  }
+
+  /**
+   * 문서에서 꺼낸 이미지 보관 설정 (하이브리드 파서). 메모리에 담은 이미지 크기의 합이 max-memory-size를 넘으면
+   * 그 뒤의 이미지는 임시 파일에 쓴다.
+   */
+  @Getter
+  @Setter
+  public static class ImageStoreProperties {
+    /** 요청 하나에서 메모리에 담는 이미지 크기의 합 */
+    private DataSize maxMemorySize = DataSize.ofMegabytes(32);
+    /** 임시 파일 디렉토리, 비우면 시스템 임시 디렉토리 */
+    private Path spillDir;
+    /** 이미지를 referenced 모드의 ZIP 응답(이미지 파일)으로 받음, false면 embedded 모드(마크다운 안의 Base64)로 받음 */
+    private boolean referenced = false;
+  }
+
+  /**
+   * 비동기 변환 설정. 변환 작업을 제출한 뒤 끝날 때까지 상태를 주기적으로 조회하고 결과를 받으므로,
+   * 변환하는 동안 연결을 붙잡아 두지 않아 프록시의 유휴 연결 제한에 걸리지 않는다.
+   */
+  @Getter
+  @Setter
+  public static class DoclingAsyncProperties {
+    private boolean enabled = false;
+    /** 첫 상태 조회까지의 간격 */
+    private Duration pollInterval = Duration.ofSeconds(1);
+    /** 상태 조회 간격 상한 */
+    private Duration maxPollInterval = Duration.ofSeconds(10);
+    /** 작업이 끝나지 않았을 때 다음 조회 간격에 곱하는 비율 */
+    private double backoffMultiplier = 2.0;
+    /** 제출부터 결과를 받을 때까지의 최대 시간 (timeout 대신 사용) */
+    private Duration timeout = Duration.ofMinutes(30);
+  }
+
+  /**
+   * 큰 PDF 분할 설정. 페이지 구간(page_range)마다 따로 요청하여 여러 서버에서 동시에 파싱하고 결과를 페이지 순서대로 이어 붙인다.
+   */
+  @Getter
+  @Setter
+  public static class DoclingChunkProperties {
+    /** 요청 하나에 담는 최대 페이지 수, 0이면 나누지 않음 (선택된 페이지가 이보다 많은 PDF만 나눔) */
+    private int pages = 0;
+    /** 문서 하나에서 동시에 보내는 구간 요청 수, 0이면 서버 수 */
+    private int concurrency = 0;
+  }
+
+  /**
+   * 배치 파싱(POST /api/parse/batch) 설정. 파일을 묶어 요청 하나에 files 파트 여러 개로 보낸다.
+   */
+  @Getter
+  @Setter
+  public static class DoclingBatchProperties {
+    /** 요청 하나에 담는 최대 파일 수 */
+    private int maxFiles = 20;
+    /** 요청 하나에 담는 파일 크기의 합 (이보다 큰 파일은 혼자 보냄) */
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+    /** 동시에 보내는 묶음 요청 수, 0이면 서버 수 */
+    private int concurrency = 0;
+  }
+
+  /**
+   * 서버 장애 대응 설정. 서버 오류가 연속되면 서킷 브레이커를 열어 그 서버로 요청을 보내지 않고,
+   * 실패한 요청은 재시도 예산 안에서 다른 정상 서버로 다시 보낸다. 열린 서버는 헬스 체크가 성공하면 다시 사용한다.
+   */
+  @Getter
+  @Setter
+  public static class FailoverProperties {
+    /** 서킷 브레이커를 여는 연속 서버 오류 수, 0이면 서킷 브레이커를 사용하지 않음 */
+    private int failureThreshold = 5;
+    /** 서킷 브레이커를 연 뒤 헬스 체크 없이도 다시 요청을 보내 보기까지의 시간 */
+    private Duration openDuration = Duration.ofSeconds(30);
+    /** 요청 하나의 최대 시도 횟수 (첫 시도 포함, 재시도는 다른 서버로 보냄), 1이면 재시도하지 않음 */
+    private int maxAttempts = 2;
+    /** 요청 하나당 허용하는 재시도 수 (0.2면 요청 5개당 재시도 1번) */
+    private double retryBudgetRatio = 0.2;
+    /** 요청이 적을 때도 초마다 허용하는 재시도 수 */
+    private double minRetriesPerSecond = 1;
+    /** 서킷 브레이커가 열린 서버에 보내는 헬스 체크 경로 */
+    private String healthCheckPath = "/health";
+    /** 헬스 체크 주기, 0이면 헬스 체크하지 않음 (open-duration이 지나면 다시 요청을 보내 봄) */
+    private Duration healthCheckInterval = Duration.ofSeconds(10);
+    private Duration healthCheckTimeout = Duration.ofSeconds(5);
+
+    public CircuitBreaker createCircuitBreaker() {
+      return new CircuitBreaker(failureThreshold, openDuration != null ? openDuration.toNanos() : 0);
+    }
+
+    public RetryBudget createRetryBudget() {
+      return new RetryBudget(retryBudgetRatio, minRetriesPerSecond);
+    }
+
+    public boolean isHealthCheckEnabled() {
+      return failureThreshold > 0 && healthCheckInterval != null && !healthCheckInterval.isZero()
+          && healthCheckPath != null && !healthCheckPath.isBlank();
+    }
+  }
+
+  /**
+   * 헤지 요청 설정. 요청이 최근 응답 시간의 백분위수 안에 끝나지 않으면 다른 서버로 같은 요청을 하나 더 보내고
+   * 먼저 온 응답을 사용한다 (늦은 요청은 취소). 느리거나 멈춘 서버 때문에 늘어나는 꼬리 지연을 줄인다.
+   */
+  @Getter
+  @Setter
+  public static class HedgeProperties {
+    private boolean enabled = false;
+    /** 헤지 요청을 보낼 응답 시간 백분위수 (0 ~ 1) */
+    private double percentile = 0.95;
+    /** 요청 하나당 허용하는 헤지 요청 수 (0.1이면 요청 10개당 최대 1번) */
+    private double budgetRatio = 0.1;
+
+    public RetryBudget createBudget() {
+      return new RetryBudget(budgetRatio, 0);
+    }
+  }
+
+  /**
+   * 서버별 동시 요청 제한 설정.
+   * 켜져 있으면 응답 시간과 오류에 따라 AIMD로 제한을 조정한다 (max-concurrency가 있으면 그 값을 넘지 않는다).
+   * 꺼져 있으면 max-concurrency를 고정 제한으로 사용한다.
+   */
+  @Getter
+  @Setter
+  public static class ConcurrencyLimitProperties {
+    /** 적응형 제한 사용 여부 */
+    private boolean enabled = false;
+    private int initialLimit = 4;
+    private int minLimit = 1;
+    private int maxLimit = 32;
+    /** 오류나 느린 응답이 있을 때 제한에 곱하는 비율 */
+    private double backoffRatio = 0.9;
+    /** 제한을 줄이기 시작할 응답 시간 (평소 응답 시간의 배수) */
+    private double latencyTolerance = 2.0;
+    /** 모든 서버가 제한에 도달했을 때 빈 슬롯을 기다리는 최대 시간, 넘으면 503을 반환한다 */
+    private Duration queueTimeout = Duration.ofSeconds(30);
+
+    public ConcurrencyLimiter createLimiter(final int maxConcurrency) {
+      if (!enabled) {
+        return ConcurrencyLimiter.fixed(maxConcurrency);
+      }
+      return ConcurrencyLimiter.adaptive(initialLimit, minLimit,
+          maxConcurrency > 0 ? Math.min(maxLimit, maxConcurrency) : maxLimit, backoffRatio, latencyTolerance);
+    }
   }
 
   @Getter
   @Setter
   public static class VlmProperties {
     private List<VlmServer> servers = new ArrayList<>();
+    /** 서버 선택 전략 */
+    private LoadBalancerType loadBalancer = LoadBalancerType.P2C;
     private Duration timeout;
     private int maxBufferSize;
     private int maxTokens;
+    /** 여러 페이지를 묶은 요청의 max_tokens 상한 (모델 출력 한도), 0이면 max-tokens × 페이지 수 그대로 */
+    private int maxBatchTokens;
     private double temperature = 0.01;
     private String defaultPrompt = "Extract all text from this image accurately. Return only the extracted text.";
     private String embeddedImagePrompt = "This is an embedded image from a document. Extract and describe all text, diagrams, charts, or visual content. Format the output as markdown.";
     private String imageFormat = "png";
+    /** 요청 하나에서 동시에 OCR하는 최대 페이지 수 */
+    private int pageConcurrency = 4;
+    /** 요청 하나에 묶어 OCR하는 최대 페이지 수, 1이면 페이지마다 요청 (VLM이 메시지 하나에 여러 이미지를 받아야 함) */
+    private int batchSize = 1;
+    /** 요청 하나에서 동시에 OCR하는 문서 내 이미지 최대 개수 */
+    private int embeddedImageConcurrency = 4;
+    private TextLayerProperties textLayer = new TextLayerProperties();
+    private PreprocessProperties preprocess = new PreprocessProperties();
+    private DedupProperties dedup = new DedupProperties();
+    private ConcurrencyLimitProperties concurrencyLimit = new ConcurrencyLimitProperties();
+    private FailoverProperties failover = new FailoverProperties();
+    private HedgeProperties hedge = new HedgeProperties();
+    /** VLM OCR 결과 캐시 (키: 이미지 내용 해시 + 프롬프트 + 모델 + max-tokens + temperature) */
+    private CacheProperties cache = new CacheProperties();
+  }
+
+  /**
+   * 문서 내 중복 이미지 OCR 생략 설정. 같은 이미지는 한 번만 OCR하고 결과를 재사용한다.
+   */
+  @Getter
+  @Setter
+  public static class DedupProperties {
+    /** 내용이 완전히 같은 이미지를 묶음 */
+    private boolean enabled = true;
+    /** 다시 인코딩되거나 크기가 달라진 같은 이미지도 차이 해시(dHash)로 묶음 */
+    private boolean perceptual = false;
+    /** 같은 이미지로 볼 차이 해시의 최대 해밍 거리 (0 ~ 64) */
+    private int maxDistance = 4;
+  }
+
+  /**
+   * VLM OCR 전 이미지 전처리 설정.
+   */
+  @Getter
+  @Setter
+  public static class PreprocessProperties {
+    private boolean enabled = false;
+    /** 이미지 긴 변의 최대 픽셀 수, 0이면 줄이지 않음 */
+    private int maxLongEdge = 0;
+    /** 페이지 이미지를 흑백으로 변환 (문서에 포함된 이미지는 제외) */
+    private boolean grayscale = false;
+    /** 재인코딩 형식 (jpeg, png), 비어 있으면 원본 형식 유지 */
+    private String format = "";
+    /** JPEG 품질 (0.0 ~ 1.0) */
+    private double quality = 0.85;
+  }
+
+  /**
+   * PDF 텍스트 레이어 사용 설정. 켜져 있으면 쓸 만한 텍스트가 있는 페이지는 VLM OCR 없이 텍스트를 추출한다.
+   */
+  @Getter
+  @Setter
+  public static class TextLayerProperties {
+    private boolean enabled = false;
+    /** 텍스트 레이어로 인정할 최소 글자 수 (공백 제외) */
+    private int minChars = 50;
+    /** 깨지지 않은 글자의 최소 비율 */
+    private double minPrintableRatio = 0.9;
   }
 
   @Getter
@@ -45,5 +265,9 @@ public class ParserProperties {
   public static class VlmServer {
     private String baseUrl;
     private String model;
+    /** 모든 요청을 합쳐 이 서버에 동시에 보내는 최대 요청 수, 0이면 제한하지 않음 */
+    private int maxConcurrency = 0;
+    /** 부하 분산 가중치 (성능이 좋은 서버일수록 크게) */
+    private int weight = 1;
   }
 }
@@ -1,16 +1,42 @@
 package me.hanju.parsekit.parser.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import me.hanju.parsekit.common.FileTypeDetector;
+import me.hanju.parsekit.common.PageSelection;
+import me.hanju.parsekit.common.cache.CacheStats;
 import me.hanju.parsekit.common.exception.BadRequestException;
+import me.hanju.parsekit.parser.client.DoclingClient;
+import me.hanju.parsekit.parser.client.VlmClient;
+import me.hanju.parsekit.parser.client.endpoint.EndpointStats;
+import me.hanju.parsekit.parser.dto.BatchFile;
+import me.hanju.parsekit.parser.dto.BatchParseResponse;
+import me.hanju.parsekit.parser.dto.BatchParseResult;
+import me.hanju.parsekit.parser.dto.ParseEvent;
 import me.hanju.parsekit.parser.dto.ParseResult;
 import me.hanju.parsekit.parser.service.IParserService;
 
@@ -18,25 +44,159 @@ import me.hanju.parsekit.parser.service.IParserService;
  * 파싱 API 컨트롤러.
  * 설정에 따라 등록된 IParserService 구현체를 사용한다.
  */
+@Slf4j
 @RestController
 @RequestMapping("/api/parse")
 @RequiredArgsConstructor
 public class ParserController {
 
   private final IParserService parserService;
+  private final ObjectProvider<VlmClient> vlmClient;
+  private final ObjectProvider<DoclingClient> doclingClient;
+  private final ObjectMapper objectMapper;
 
   @PostMapping(value = "/parse", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
   public ResponseEntity<ParseResult> parse(
       @RequestParam("file") final MultipartFile file,
-      @RequestParam(value = "dpi", defaultValue = "150") final int dpi) {
+      @RequestParam(value = "dpi", defaultValue = "150") final int dpi,
+      @RequestParam(value = "pages", required = false) final String pages) {
     if (file.isEmpty()) {
       throw new BadRequestException("File is empty");
     }
 
     final byte[] content = FileTypeDetector.getBytes(file);
     final String filename = file.getOriginalFilename();
-    final ParseResult result = parserService.parse(content, filename, dpi);
+    final PageSelection selection = PageSelection.parse(pages);
+    final ParseResult result = parserService.parse(content, filename, dpi, selection);
 
     return ResponseEntity.ok(result);
   }
+
+  /**
+   * 여러 파일을 파싱한다. 일부 파일이 실패해도 200으로 응답하고, 파일별 status와 error로 실패를 알린다.
+   */
+  @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  public ResponseEntity<BatchParseResponse> parseBatch(
+      @RequestParam("files") final List<MultipartFile> files,
+      @RequestParam(value = "dpi", defaultValue = "150") final int dpi) {
+    if (files.isEmpty()) {
+      throw new BadRequestException("No files");
+    }
+
+    final List<BatchFile> batch = new ArrayList<>();
+    final Map<Integer, BatchParseResult> rejected = new HashMap<>();
+    for (int i = 0; i < files.size(); i++) {
+      final MultipartFile file = files.get(i);
+      if (file.isEmpty()) {
+        rejected.put(i, BatchParseResult.failure(file.getOriginalFilename(), "File is empty"));
+      } else {
+        batch.add(new BatchFile(file.getOriginalFilename(), FileTypeDetector.getBytes(file)));
+      }
+    }
+
+    final Iterator<BatchParseResult> parsed = parserService.parseBatch(batch, dpi).iterator();
+    final List<BatchParseResult> results = new ArrayList<>(files.size());
+    for (int i = 0; i < files.size(); i++) {
+      results.add(rejected.containsKey(i) ? rejected.get(i) : parsed.next());
+    }
+    return ResponseEntity.ok(BatchParseResponse.of(results));
+  }
+
+  /**
+   * 파싱 결과를 생성되는 대로 NDJSON으로 스트리밍한다 (한 줄에 이벤트 하나, {@link ParseEvent} 참고).
+   * 응답이 시작된 뒤 발생한 오류는 HTTP 상태 대신 error 이벤트로 전달한다.
+   */
+  @PostMapping(value = "/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = "application/x-ndjson")
+  public ResponseEntity<StreamingResponseBody> parseStream(
+      @RequestParam("file") final MultipartFile file,
+      @RequestParam(value = "dpi", defaultValue = "150") final int dpi,
+      @RequestParam(value = "pages", required = false) final String pages) {
+    if (file.isEmpty()) {
+      throw new BadRequestException("File is empty");
+    }
+
+    final byte[] content = FileTypeDetector.getBytes(file);
+    final String filename = file.getOriginalFilename();
+    final PageSelection selection = PageSelection.parse(pages);
+
+    final StreamingResponseBody stream = outputStream -> {
+      final Consumer<ParseEvent> events = event -> writeEvent(outputStream, event);
+      try {
+        final ParseResult result = parserService.parseStream(content, filename, dpi, selection, events);
+        events.accept(ParseEvent.done(result));
+      } catch (RuntimeException e) {
+        if (isClientDisconnect(e)) {
+          log.warn("Client disconnected while streaming {}: {}", filename, e.getMessage());
+          return;
+        }
+        log.error("Failed to parse {}", filename, e);
+        events.accept(ParseEvent.error(e.getMessage()));
+      }
+    };
+
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType("application/x-ndjson"))
+        .body(stream);
+  }
+
+  /**
+   * 이벤트 한 줄을 쓴다. 여러 페이지를 동시에 OCR하므로 여러 스레드에서 호출될 수 있다.
+   *
+   * @throws ClientDisconnectedException 응답을 쓰지 못한 경우 (클라이언트 연결 끊김)
+   */
+  private void writeEvent(final OutputStream outputStream, final ParseEvent event) {
+    synchronized (outputStream) {
+      try {
+        outputStream.write((objectMapper.writeValueAsString(event) + "\n").getBytes(StandardCharsets.UTF_8));
+        outputStream.flush();
+      } catch (IOException e) {
+        throw new ClientDisconnectedException(e);
+      }
+    }
+  }
+
+  /**
+   * 응답 쓰기 실패로 끝났는지 확인한다. 파싱 중 발생한 다른 입출력 오류와 구분하며, 파서가 감싸서 던진 경우도 찾는다.
+   */
+  private static boolean isClientDisconnect(final Throwable error) {
+    for (Throwable e = error; e != null; e = e.getCause() == e ? null : e.getCause()) {
+      if (e instanceof ClientDisconnectedException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * 스트리밍 응답을 쓰지 못했다. 파싱 오류와 달리 error 이벤트를 보낼 수 없다.
+   */
+  private static final class ClientDisconnectedException extends UncheckedIOException {
+
+    private ClientDisconnectedException(final IOException cause) {
+      super(cause);
+    }
+  }
+
+  /**
+   * VLM OCR 결과 캐시 통계 (VLM 서버가 설정되지 않았으면 비활성 상태로 반환)
+   * GET /api/parse/cache
+   */
+  @GetMapping("/cache")
+  public ResponseEntity<CacheStats> cacheStats() {
+    final VlmClient client = vlmClient.getIfAvailable();
+    return ResponseEntity.ok(client != null ? client.getOcrCacheStats() : CacheStats.disabled());
+  }
+
+  /**
+   * VLM, Docling 서버별 부하 분산 통계 (동시 요청 제한, 진행 중인 요청 수, 응답 시간 EWMA, 요청/실패 수)
+   * GET /api/parse/endpoints
+   */
+  @GetMapping("/endpoints")
+  public ResponseEntity<Map<String, List<EndpointStats>>> endpointStats() {
+    final VlmClient vlm = vlmClient.getIfAvailable();
+    final DoclingClient docling = doclingClient.getIfAvailable();
+    return ResponseEntity.ok(Map.of(
+        "vlm", vlm != null ? vlm.getEndpointStats() : List.of(),
+        "docling", docling != null ? docling.getEndpointStats() : List.of()));
+  }
 }
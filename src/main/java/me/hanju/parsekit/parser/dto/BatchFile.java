@@ -0,0 +1,10 @@
+package me.hanju.parsekit.parser.dto;
+
+/**
+ * 배치 파싱할 파일 하나.
+ *
+ * @param filename 원본 파일명
+ * @param content  파일 내용
+ */
+public record BatchFile(String filename, byte[] content) {
+}
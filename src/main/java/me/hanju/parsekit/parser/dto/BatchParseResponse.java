@@ -0,0 +1,22 @@
+package me.hanju.parsekit.parser.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 배치 파싱 결과. 일부 파일이 실패해도 나머지 파일의 결과를 반환한다.
+ *
+ * @param results 요청한 파일 순서대로의 결과
+ */
+public record BatchParseResponse(
+    @JsonProperty("total") int total,
+    @JsonProperty("succeeded") int succeeded,
+    @JsonProperty("failed") int failed,
+    @JsonProperty("results") List<BatchParseResult> results) {
+
+  public static BatchParseResponse of(final List<BatchParseResult> results) {
+    final int succeeded = (int) results.stream().filter(BatchParseResult::isSuccess).count();
+    return new BatchParseResponse(results.size(), succeeded, results.size() - succeeded, results);
+  }
+}
@@ -0,0 +1,36 @@
+package me.hanju.parsekit.parser.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 배치 파싱에서 파일 하나의 결과.
+ *
+ * @param status   success 또는 failed
+ * @param markdown 파싱 결과, 실패하면 null
+ * @param error    실패 이유, 성공하면 null
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchParseResult(
+    @JsonProperty("filename") String filename,
+    @JsonProperty("status") String status,
+    @JsonProperty("markdown") String markdown,
+    @JsonProperty("error") String error) {
+
+  public static final String SUCCESS = "success";
+  public static final String FAILED = "failed";
+
+  public static BatchParseResult success(final ParseResult result) {
+    return new BatchParseResult(result.filename(), SUCCESS, result.markdown(), null);
+  }
+
+  public static BatchParseResult failure(final String filename, final String error) {
+    return new BatchParseResult(filename, FAILED, null, error);
+  }
+
+  @JsonIgnore
+  public boolean isSuccess() {
+    return SUCCESS.equals(status);
+  }
+}
@@ -0,0 +1,18 @@
+package me.hanju.parsekit.parser.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Docling 비동기 변환 작업 상태 (/v1/convert/file/async, /v1/status/poll/{task_id} 응답).
+ *
+ * @param taskStatus pending, started, success, failure
+ * @param taskPosition 대기열에서의 위치 (대기 중일 때)
+ */
+public record DoclingTaskStatus(
+    @JsonProperty("task_id") String taskId,
+    @JsonProperty("task_status") String taskStatus,
+    @JsonProperty("task_position") Integer taskPosition) {
+
+  public static final String SUCCESS = "success";
+  public static final String FAILURE = "failure";
+}
@@ -0,0 +1,18 @@
+package me.hanju.parsekit.parser.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 요청 하나에서 OCR한 이미지 통계.
+ *
+ * @param images     OCR 대상 이미지 수
+ * @param ocrCalls   VLM을 호출하여 OCR한 횟수 (캐시 결과와 실패한 OCR은 제외)
+ * @param cacheHits  VLM을 호출하지 않고 OCR 캐시의 결과를 쓴 이미지 수
+ * @param callsSaved 중복 이미지의 결과를 재사용하여 줄인 VLM 호출 수
+ */
+public record OcrStats(
+    @JsonProperty("images") int images,
+    @JsonProperty("ocr_calls") int ocrCalls,
+    @JsonProperty("cache_hits") int cacheHits,
+    @JsonProperty("calls_saved") int callsSaved) {
+}
@@ -0,0 +1,38 @@
+package me.hanju.parsekit.parser.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 스트리밍 파싱(NDJSON)의 이벤트 한 줄.
+ * - delta: VLM이 생성 중인 페이지의 텍스트 조각 (여러 페이지를 동시에 OCR하므로 페이지끼리 섞여 도착할 수 있다)
+ * - page: 완성된 페이지 마크다운 (페이지 순서대로 도착한다, 페이지 구분 없이 한 번에 파싱한 경우 page가 없다)
+ * - done: 파싱 완료
+ * - error: 파싱 실패
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ParseEvent(
+    @JsonProperty("type") String type,
+    @JsonProperty("page") Integer page,
+    @JsonProperty("text") String text,
+    @JsonProperty("markdown") String markdown,
+    @JsonProperty("filename") String filename,
+    @JsonProperty("ocr") OcrStats ocr,
+    @JsonProperty("message") String message) {
+
+  public static ParseEvent delta(final int page, final String text) {
+    return new ParseEvent("delta", page, text, null, null, null, null);
+  }
+
+  public static ParseEvent page(final Integer page, final String markdown) {
+    return new ParseEvent("page", page, null, markdown, null, null, null);
+  }
+
+  public static ParseEvent done(final ParseResult result) {
+    return new ParseEvent("done", null, null, null, result.filename(), result.ocr(), null);
+  }
+
+  public static ParseEvent error(final String message) {
+    return new ParseEvent("error", null, null, null, null, null, message);
+  }
+}
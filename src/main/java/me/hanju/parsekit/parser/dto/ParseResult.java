@@ -1,6 +1,16 @@
 package me.hanju.parsekit.parser.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * @param ocr VLM OCR 통계, OCR하지 않은 파서는 null
+ */
 public record ParseResult(
     String filename,
-    String markdown) {
+    String markdown,
+    @JsonInclude(JsonInclude.Include.NON_NULL) OcrStats ocr) {
+
+  public ParseResult(final String filename, final String markdown) {
+    this(filename, markdown, null);
+  }
 }
@@ -0,0 +1,36 @@
+package me.hanju.parsekit.parser.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * OpenAI 호환 스트리밍 응답(stream: true)의 SSE 이벤트 하나.
+ */
+public record VlmChatChunk(
+    @JsonProperty("id") String id,
+    @JsonProperty("model") String model,
+    @JsonProperty("choices") List<Choice> choices) {
+
+  public record Choice(
+      @JsonProperty("index") int index,
+      @JsonProperty("delta") Delta delta,
+      @JsonProperty("finish_reason") String finishReason) {
+  }
+
+  public record Delta(
+      @JsonProperty("role") String role,
+      @JsonProperty("content") String content) {
+  }
+
+  /**
+   * 이번 이벤트에서 생성된 텍스트 조각을 반환한다. 역할만 알리는 첫 이벤트나 마지막 이벤트에는 없을 수 있다.
+   */
+  public String getDelta() {
+    if (choices == null || choices.isEmpty()) {
+      return null;
+    }
+    Delta delta = choices.get(0).delta();
+    return delta != null ? delta.content() : null;
+  }
+}
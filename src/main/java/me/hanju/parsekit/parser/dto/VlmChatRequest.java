@@ -2,13 +2,22 @@ package me.hanju.parsekit.parser.dto;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+/**
+ * @param stream true이면 SSE 스트림으로 응답받는다, null이면 필드를 보내지 않는다
+ */
 public record VlmChatRequest(
     @JsonProperty("model") String model,
     @JsonProperty("messages") List<Message> messages,
     @JsonProperty("max_tokens") int maxTokens,
-    @JsonProperty("temperature") double temperature) {
+    @JsonProperty("temperature") double temperature,
+    @JsonInclude(JsonInclude.Include.NON_NULL) @JsonProperty("stream") Boolean stream) {
+
+  public VlmChatRequest(String model, List<Message> messages, int maxTokens, double temperature) {
+    this(model, messages, maxTokens, temperature, null);
+  }
 
   public record Message(
       @JsonProperty("role") String role,
@@ -0,0 +1,12 @@
+package me.hanju.parsekit.parser.exception;
+
+/**
+ * 여러 페이지를 묶은 VLM 응답을 페이지 구분자로 나누지 못했을 때 발생한다.
+ * 전송 오류나 서버 오류와 달리 페이지마다 다시 OCR하면 해결될 수 있다.
+ */
+public class VlmBatchSplitException extends VlmClientException {
+
+  public VlmBatchSplitException(String message) {
+    super(message, null);
+  }
+}
@@ -1,6 +1,8 @@
 package me.hanju.parsekit.parser.service;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -9,11 +11,15 @@ import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.hanju.parsekit.common.FileTypeDetector;
+import me.hanju.parsekit.common.FileTypeDetector.FileCategory;
 import me.hanju.parsekit.common.FileTypeDetector.FileTypeInfo;
+import me.hanju.parsekit.common.PageSelection;
 import me.hanju.parsekit.common.exception.UnsupportedMediaTypeException;
 import me.hanju.parsekit.converter.service.JodConverterService;
 import me.hanju.parsekit.parser.client.DoclingClient;
 import me.hanju.parsekit.parser.client.VlmClient;
+import me.hanju.parsekit.parser.dto.BatchFile;
+import me.hanju.parsekit.parser.dto.BatchParseResult;
 import me.hanju.parsekit.parser.dto.ParseResult;
 
 /**
@@ -21,7 +27,9 @@ import me.hanju.parsekit.parser.dto.ParseResult;
  * - 플레인 텍스트: 지원 안함
  * - 마크다운: embedded 이미지를 placeholder로 대체 후 반환
  * - Docling 지원 형식 (PDF, DOCX, XLSX, PPTX, HTML, CSV, 이미지): 바로 파싱
+ * - 페이지 선택: PDF는 선택된 페이지 구간만 Docling에 요청하고, PDF가 아닌 문서는 PDF로 변환 후 요청
  * - 기타 문서: PDF 변환 후 파싱
+ * - 배치 파싱: Docling이 바로 지원하는 파일은 묶어서 요청하고, 나머지는 하나씩 파싱
  */
 @Slf4j
 @Service
@@ -36,7 +44,7 @@ public class DoclingParserService implements IParserService {
   private static final String IMAGE_MODE = "placeholder";
 
   @Override
-  public ParseResult parse(byte[] content, String filename, int dpi) {
+  public ParseResult parse(byte[] content, String filename, int dpi, PageSelection pages) {
     final FileTypeInfo info = FileTypeDetector.detect(content, filename);
 
     return switch (info.category()) {
@@ -56,19 +64,48 @@ public class DoclingParserService implements IParserService {
         yield doclingClient.parse(content, filename, IMAGE_MODE);
       }
       case DOCUMENT, SPREADSHEET, PRESENTATION, PDF -> {
-        if (DoclingClient.isSupported(info.mimeType())) {
+        // 페이지 선택은 PDF에만 적용되므로 다른 문서는 PDF로 변환한다
+        final boolean direct = pages.isAll() || info.category() == FileCategory.PDF;
+        if (DoclingClient.isSupported(info.mimeType()) && direct) {
           log.info("Parsing with Docling: {}", filename);
-          yield doclingClient.parse(content, filename, IMAGE_MODE);
+          yield doclingClient.parse(content, filename, IMAGE_MODE, pages);
         } else {
           log.info("Converting to PDF, then parsing: {}", filename);
           final byte[] pdfBytes = jodConverter.convertToPdf(content);
-          final ParseResult doclingResult = doclingClient.parse(pdfBytes, info.baseFilename() + ".pdf", IMAGE_MODE);
+          final ParseResult doclingResult = doclingClient.parse(pdfBytes, info.baseFilename() + ".pdf", IMAGE_MODE, pages);
           yield new ParseResult(filename, doclingResult.markdown());
         }
       }
     };
   }
 
+  /**
+   * Docling이 바로 지원하는 문서와 이미지는 여러 파일을 묶어 요청하고, 변환이 필요한 파일은 하나씩 파싱한다.
+   */
+  @Override
+  public List<BatchParseResult> parseBatch(List<BatchFile> files, int dpi) {
+    final BatchParseResult[] results = new BatchParseResult[files.size()];
+    final List<Integer> direct = new ArrayList<>();
+    for (int i = 0; i < files.size(); i++) {
+      final BatchFile file = files.get(i);
+      final FileTypeInfo info = FileTypeDetector.detect(file.content(), file.filename());
+      if (info.category() != FileCategory.PLAIN_TEXT && info.category() != FileCategory.MARKDOWN
+          && DoclingClient.isSupported(info.mimeType())) {
+        direct.add(i);
+      } else {
+        results[i] = IParserService.super.parseBatch(List.of(file), dpi).get(0);
+      }
+    }
+
+    log.info("Parsing batch of {} files ({} sent to Docling in batches)", files.size(), direct.size());
+    final List<BatchParseResult> parsed = doclingClient.parseBatch(
+        direct.stream().map(files::get).toList(), IMAGE_MODE);
+    for (int i = 0; i < direct.size(); i++) {
+      results[direct.get(i)] = parsed.get(i);
+    }
+    return List.of(results);
+  }
+
   private String replaceEmbeddedImagesWithPlaceholder(String markdown) {
     return DoclingClient.EMBEDDED_IMAGE_PATTERN.matcher(markdown)
         .replaceAll(match -> {
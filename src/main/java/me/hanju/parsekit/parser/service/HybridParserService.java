@@ -1,6 +1,11 @@
 package me.hanju.parsekit.parser.service;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -9,19 +14,31 @@ import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.hanju.parsekit.common.FileTypeDetector;
+import me.hanju.parsekit.common.FileTypeDetector.FileCategory;
 import me.hanju.parsekit.common.FileTypeDetector.FileTypeInfo;
+import me.hanju.parsekit.common.PageSelection;
 import me.hanju.parsekit.common.exception.UnsupportedMediaTypeException;
 import me.hanju.parsekit.converter.service.JodConverterService;
 import me.hanju.parsekit.parser.client.DoclingClient;
+import me.hanju.parsekit.parser.client.EmbeddedImageExtractor;
+import me.hanju.parsekit.parser.client.ImageStore;
 import me.hanju.parsekit.parser.client.VlmClient;
 import me.hanju.parsekit.parser.config.ParserProperties;
+import me.hanju.parsekit.parser.dto.OcrStats;
 import me.hanju.parsekit.parser.dto.ParseResult;
+import me.hanju.parsekit.parser.service.ImagePreprocessor.ImageKind;
+import me.hanju.parsekit.parser.service.ImagePreprocessor.Report;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * 하이브리드 파서 서비스 (Docling + VLM).
  * - 플레인 텍스트: 지원 안함
  * - 마크다운: embedded 이미지를 VLM OCR로 대체 후 반환
- * - 이미지/문서/스프레드시트/프레젠테이션/PDF: Docling embedded 모드로 파싱 후 이미지를 VLM OCR로 대체
+ * - 이미지/문서/스프레드시트/프레젠테이션/PDF: Docling embedded(또는 referenced) 모드로 파싱 후 이미지를 VLM OCR로 대체
+ *   (응답을 받는 대로 이미지를 보관소로 옮기므로 응답 전체나 Base64 문자열을 메모리에 올리지 않음)
+ * - 페이지 선택: PDF는 선택된 페이지 구간만 Docling에 요청하고, PDF가 아닌 문서는 PDF로 변환 후 요청
  * - 기타 문서: PDF 변환 → Docling 파싱 → 이미지 VLM OCR
  */
 @Slf4j
@@ -34,11 +51,11 @@ public class HybridParserService implements IParserService {
   private final VlmClient vlmClient;
   private final JodConverterService jodConverter;
   private final ParserProperties parserProperties;
-
-  private static final String IMAGE_MODE = "embedded";
+  private final ImagePreprocessor imagePreprocessor;
+  private final ImageDeduplicator imageDeduplicator;
 
   @Override
-  public ParseResult parse(byte[] content, String filename, int dpi) {
+  public ParseResult parse(byte[] content, String filename, int dpi, PageSelection pages) {
     final FileTypeInfo info = FileTypeDetector.detect(content, filename);
 
     return switch (info.category()) {
@@ -46,59 +63,167 @@ public class HybridParserService implements IParserService {
         throw new UnsupportedMediaTypeException("Plain text files not supported: " + filename);
       case MARKDOWN -> {
         log.info("Markdown file, replacing embedded images with VLM OCR: {}", filename);
-        final String markdownContent = new String(content, StandardCharsets.UTF_8);
-        final String markdown = replaceEmbeddedImages(markdownContent);
-        yield new ParseResult(filename, markdown);
+        final Report report = imagePreprocessor.newReport();
+        try (ImageStore images = doclingClient.newImageStore()) {
+          final String markdownContent = extractImages(content, images);
+          final ParseResult result = replaceEmbeddedImages(filename, markdownContent, images, report);
+          logReport(filename, report);
+          yield result;
+        }
       }
       case IMAGE -> {
         log.info("Image file, OCR with VLM directly: {}", filename);
-        final String encodedUri = FileTypeDetector.toBase64EncodedUri(info.mimeType(), content);
+        final Report report = imagePreprocessor.newReport();
+        final String encodedUri = imagePreprocessor.prepare(content, info.mimeType(), ImageKind.PAGE, report)
+            .toBase64EncodedUri();
         final String ocrResult = vlmClient.ocr(encodedUri);
+        logReport(filename, report);
         yield new ParseResult(filename, ocrResult);
       }
       case DOCUMENT, SPREADSHEET, PRESENTATION, PDF -> {
-        final ParseResult doclingResult;
-        if (DoclingClient.isSupported(info.mimeType())) {
-          log.info("Parsing with Docling: {}", filename);
-          doclingResult = doclingClient.parse(content, filename, IMAGE_MODE);
-        } else {
-          log.info("Converting to PDF, then parsing: {}", filename);
-          final byte[] pdfBytes = jodConverter.convertToPdf(content);
-          doclingResult = doclingClient.parse(pdfBytes, info.baseFilename() + ".pdf", IMAGE_MODE);
+        try (ImageStore images = doclingClient.newImageStore()) {
+          final ParseResult doclingResult;
+          // 페이지 선택은 PDF에만 적용되므로 다른 문서는 PDF로 변환한다
+          final boolean direct = pages.isAll() || info.category() == FileCategory.PDF;
+          if (DoclingClient.isSupported(info.mimeType()) && direct) {
+            log.info("Parsing with Docling: {}", filename);
+            doclingResult = doclingClient.parse(content, filename, pages, images);
+          } else {
+            log.info("Converting to PDF, then parsing: {}", filename);
+            final byte[] pdfBytes = jodConverter.convertToPdf(content);
+            doclingResult = doclingClient.parse(pdfBytes, info.baseFilename() + ".pdf", pages, images);
+          }
+          if (images.spilledCount() > 0) {
+            log.info("Spilled {}/{} embedded images of {} to temp files", images.spilledCount(), images.size(),
+                filename);
+          }
+          final Report report = imagePreprocessor.newReport();
+          final ParseResult result = replaceEmbeddedImages(filename, doclingResult.markdown(), images, report);
+          logReport(filename, report);
+          yield result;
         }
-        final String markdown = replaceEmbeddedImages(doclingResult.markdown());
-        yield new ParseResult(filename, markdown);
       }
     };
   }
 
-  private String replaceEmbeddedImages(String markdown) {
-    Matcher matcher = DoclingClient.EMBEDDED_IMAGE_PATTERN.matcher(markdown);
-    StringBuffer result = new StringBuffer();
+  private void logReport(String filename, Report report) {
+    if (imagePreprocessor.isEnabled()) {
+      log.info("Preprocessed images for {}: {}", filename, report);
+    }
+  }
+
+  private static String extractImages(byte[] content, ImageStore images) {
+    try {
+      return EmbeddedImageExtractor.extract(content, images);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to store embedded images", e);
+    }
+  }
 
-    int count = 0;
+  /**
+   * 마크다운의 이미지 참조를 VLM OCR 결과로 대체한다.
+   * 이미지를 먼저 모두 찾아 중복을 묶은 뒤, 서로 다른 이미지만 최대 embedded-image-concurrency개까지 동시에 OCR하고
+   * 원래 위치에 결과를 넣는다. 이미지 내용은 보관소에서 필요할 때마다 읽는다.
+   * OCR에 실패한 이미지는 원래 이미지 마크업(data URI)으로 되돌리고, 디코딩에 실패한 이미지는 placeholder로 둔다.
+   */
+  private ParseResult replaceEmbeddedImages(String filename, String markdown, ImageStore store, Report report) {
+    final List<EmbeddedImage> images = new ArrayList<>();
+    final Matcher matcher = ImageStore.REFERENCE_PATTERN.matcher(markdown);
     while (matcher.find()) {
-      count++;
-      String altText = matcher.group(1);
-      String imageMimeType = matcher.group(2);
-      String base64Data = matcher.group(3);
-
-      try {
-        byte[] imageBytes = FileTypeDetector.decodeBase64(base64Data);
-        String prompt = buildPrompt(altText);
-        String ocrResult = vlmClient.ocr(FileTypeDetector.toBase64EncodedUri(imageMimeType, imageBytes), prompt);
-        matcher.appendReplacement(result, Matcher.quoteReplacement(ocrResult));
-      } catch (Exception e) {
-        log.warn("Failed to OCR image {}: {}", count, e.getMessage());
-        matcher.appendReplacement(result, Matcher.quoteReplacement(matcher.group(0)));
-      }
+      final int id = Integer.parseInt(matcher.group(2));
+      images.add(new EmbeddedImage(images.size() + 1, matcher.start(), matcher.end(), matcher.group(1),
+          buildPrompt(matcher.group(1)), store.mimeType(id), id));
+    }
+    if (images.isEmpty()) {
+      return new ParseResult(filename, markdown);
     }
-    matcher.appendTail(result);
 
-    if (count > 0) {
-      log.info("Replaced {} embedded images with VLM results", count);
+    final int[] representatives = imageDeduplicator.representatives(
+        new AbstractList<byte[]>() {
+          @Override
+          public byte[] get(int index) {
+            return store.read(images.get(index).id());
+          }
+
+          @Override
+          public int size() {
+            return images.size();
+          }
+        },
+        images.stream().map(EmbeddedImage::prompt).toList());
+    final List<EmbeddedImage> distinct = images.stream()
+        .filter(image -> representatives[image.index() - 1] == image.index() - 1)
+        .toList();
+
+    final int concurrency = Math.max(1, parserProperties.getVlm().getEmbeddedImageConcurrency());
+    final Map<Integer, OcrText> results = Flux.fromIterable(distinct)
+        .flatMapSequential(image -> Mono.fromCallable(() -> ocr(image, store.read(image.id()), report))
+            .subscribeOn(Schedulers.boundedElastic())
+            .map(text -> Map.entry(image.index() - 1, text))
+            .onErrorResume(e -> {
+              log.warn("Failed to OCR image {}: {}", image.index(), e.getMessage());
+              return Mono.empty();
+            }), concurrency)
+        .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+        .block();
+
+    final StringBuilder result = new StringBuilder(markdown.length());
+    int position = 0;
+    for (final EmbeddedImage image : images) {
+      final OcrText text = results.get(representatives[image.index() - 1]);
+      result.append(markdown, position, image.start())
+          .append(text != null ? text.text() : restore(image, store));
+      position = image.end();
     }
-    return result.toString();
+    result.append(markdown, position, markdown.length());
+
+    final int cacheHits = (int) results.values().stream().filter(OcrText::cached).count();
+    final OcrStats stats = new OcrStats(images.size(), results.size() - cacheHits, cacheHits,
+        images.size() - distinct.size());
+    log.info("Replaced {} embedded images with VLM results ({} OCR calls, {} cache hits, {} saved by deduplication)",
+        stats.images(), stats.ocrCalls(), stats.cacheHits(), stats.callsSaved());
+    return new ParseResult(filename, result.toString(), stats);
+  }
+
+  /**
+   * OCR하지 못한 이미지의 마크업을 되돌린다.
+   */
+  private static String restore(EmbeddedImage image, ImageStore store) {
+    final String dataUri = store.toDataUri(image.id());
+    if (dataUri != null) {
+      return "![" + image.altText() + "](" + dataUri + ")";
+    }
+    return image.altText().isBlank() ? "<!-- image -->" : "<!-- image: " + image.altText() + " -->";
+  }
+
+  private OcrText ocr(EmbeddedImage image, byte[] content, Report report) {
+    if (content == null) {
+      throw new IllegalArgumentException("Invalid base64 image data");
+    }
+    final String encodedUri = imagePreprocessor.prepare(content, image.mimeType(), ImageKind.EMBEDDED, report)
+        .toBase64EncodedUri();
+    final boolean cached = vlmClient.isCached(encodedUri, image.prompt());
+    return new OcrText(vlmClient.ocr(encodedUri, image.prompt()), cached);
+  }
+
+  /**
+   * 이미지 하나의 OCR 결과.
+   *
+   * @param cached VLM을 호출하지 않고 OCR 캐시의 결과를 썼는지 여부
+   */
+  private record OcrText(String text, boolean cached) {
+  }
+
+  /**
+   * 마크다운에서 찾은 이미지 참조.
+   *
+   * @param index 마크다운에서의 순번 (1부터)
+   * @param start 이미지 마크업 시작 위치
+   * @param end   이미지 마크업 끝 위치 (제외)
+   * @param id    보관소의 이미지 번호
+   */
+  private record EmbeddedImage(int index, int start, int end, String altText, String prompt, String mimeType,
+      int id) {
   }
 
   private String buildPrompt(String altText) {
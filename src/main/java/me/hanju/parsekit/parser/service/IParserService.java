@@ -1,5 +1,13 @@
 package me.hanju.parsekit.parser.service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import me.hanju.parsekit.common.PageSelection;
+import me.hanju.parsekit.parser.dto.BatchFile;
+import me.hanju.parsekit.parser.dto.BatchParseResult;
+import me.hanju.parsekit.parser.dto.ParseEvent;
 import me.hanju.parsekit.parser.dto.ParseResult;
 
 /**
@@ -14,9 +22,52 @@ public interface IParserService {
    * @param content  파일 내용
    * @param filename 원본 파일명
    * @param dpi      이미지 변환 시 해상도 (필요한 경우)
+   * @param pages    파싱할 페이지 선택 (페이지 구분이 있는 문서에만 적용)
+   * @return 파싱 결과
+   */
+  ParseResult parse(byte[] content, String filename, int dpi, PageSelection pages);
+
+  /**
+   * 파싱하면서 결과를 이벤트로 전달한다.
+   * 기본 구현은 파싱이 끝난 뒤 전체 마크다운을 page 이벤트 하나로 전달한다.
+   * 페이지별로 결과를 만드는 구현체는 페이지가 완성될 때마다, VLM을 사용하는 구현체는 텍스트 조각이 생성될 때마다 전달한다.
+   *
+   * @param events 이벤트를 받을 콜백 (여러 스레드에서 호출될 수 있다)
    * @return 파싱 결과
    */
-  ParseResult parse(byte[] content, String filename, int dpi);
+  default ParseResult parseStream(byte[] content, String filename, int dpi, PageSelection pages,
+      Consumer<ParseEvent> events) {
+    final ParseResult result = parse(content, filename, dpi, pages);
+    events.accept(ParseEvent.page(null, result.markdown()));
+    return result;
+  }
+
+  /**
+   * 여러 파일을 파싱한다. 일부 파일이 실패해도 나머지 파일을 계속 파싱한다.
+   * 기본 구현은 파일을 하나씩 파싱한다.
+   *
+   * @param files 파싱할 파일
+   * @param dpi   이미지 변환 시 해상도 (필요한 경우)
+   * @return 파일 순서대로의 결과
+   */
+  default List<BatchParseResult> parseBatch(List<BatchFile> files, int dpi) {
+    final List<BatchParseResult> results = new ArrayList<>(files.size());
+    for (final BatchFile file : files) {
+      try {
+        results.add(BatchParseResult.success(parse(file.content(), file.filename(), dpi)));
+      } catch (RuntimeException e) {
+        results.add(BatchParseResult.failure(file.filename(), e.getMessage()));
+      }
+    }
+    return results;
+  }
+
+  /**
+   * 전체 페이지를 파싱한다.
+   */
+  default ParseResult parse(byte[] content, String filename, int dpi) {
+    return parse(content, filename, dpi, PageSelection.ALL);
+  }
 
   /**
    * 기본 DPI(150)로 파싱한다.
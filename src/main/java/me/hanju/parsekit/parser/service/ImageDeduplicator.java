@@ -0,0 +1,146 @@
+package me.hanju.parsekit.parser.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.imageio.ImageIO;
+
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.hanju.parsekit.common.cache.TieredCache;
+import me.hanju.parsekit.parser.config.ParserProperties;
+import me.hanju.parsekit.parser.config.ParserProperties.DedupProperties;
+
+/**
+ * 문서 하나에서 반복되는 이미지(로고, 머리글 배너, 워터마크 등)를 찾아 한 번만 OCR하도록 묶는다.
+ * 내용 해시(SHA-256)가 같은 이미지를 묶고, perceptual 옵션이 켜져 있으면 다시 인코딩되거나 크기가 달라진 같은 이미지도
+ * 차이 해시(dHash)로 묶는다. 프롬프트가 다르면 OCR 결과가 달라지므로 같은 프롬프트를 쓰는 이미지끼리만 묶는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageDeduplicator {
+
+  private static final int HASH_WIDTH = 9;
+  private static final int HASH_HEIGHT = 8;
+  /** 차이 해시가 같아도 다른 이미지로 볼 가로세로 비율 차이 */
+  private static final double MAX_ASPECT_RATIO_DIFFERENCE = 0.1;
+  /** 차이 해시가 같아도 다른 이미지로 볼 평균 밝기 차이 (단색 이미지는 차이 해시가 모두 0이다) */
+  private static final int MAX_MEAN_GRAY_DIFFERENCE = 16;
+
+  private final ParserProperties parserProperties;
+
+  /**
+   * 이미지의 지각적 특징. 차이 해시와 함께 가로세로 비율, 평균 밝기를 비교한다.
+   */
+  record PerceptualHash(long differenceHash, double aspectRatio, int meanGray) {
+
+    boolean isSimilar(final PerceptualHash other, final int maxDistance) {
+      return Long.bitCount(differenceHash ^ other.differenceHash) <= maxDistance
+          && Math.abs(aspectRatio - other.aspectRatio) <= MAX_ASPECT_RATIO_DIFFERENCE * Math.max(aspectRatio, 1e-9)
+          && Math.abs(meanGray - other.meanGray) <= MAX_MEAN_GRAY_DIFFERENCE;
+    }
+  }
+
+  /**
+   * 각 이미지가 어떤 이미지의 OCR 결과를 재사용할지 정한다.
+   *
+   * @param images  이미지 바이트 (디코딩에 실패한 이미지는 null, 다른 이미지와 묶지 않는다)
+   * @param prompts 이미지별 OCR 프롬프트
+   * @return 이미지별 대표 이미지의 인덱스, 대표 이미지는 자기 자신의 인덱스를 가진다
+   */
+  public int[] representatives(final List<byte[]> images, final List<String> prompts) {
+    final DedupProperties dedup = parserProperties.getVlm().getDedup();
+    final int[] representatives = new int[images.size()];
+    final Map<String, Integer> exact = new HashMap<>();
+    final List<Integer> perceptualCandidates = new ArrayList<>();
+    final Map<Integer, PerceptualHash> perceptualHashes = new HashMap<>();
+
+    for (int i = 0; i < images.size(); i++) {
+      representatives[i] = i;
+      final byte[] image = images.get(i);
+      if (!dedup.isEnabled() || image == null) {
+        continue;
+      }
+
+      final String key = prompts.get(i) + '\0' + TieredCache.sha256(image);
+      final Integer same = exact.putIfAbsent(key, i);
+      if (same != null) {
+        representatives[i] = same;
+        continue;
+      }
+
+      if (dedup.isPerceptual()) {
+        final PerceptualHash hash = perceptualHash(image);
+        if (hash == null) {
+          continue;
+        }
+        for (final int candidate : perceptualCandidates) {
+          if (Objects.equals(prompts.get(candidate), prompts.get(i))
+              && perceptualHashes.get(candidate).isSimilar(hash, dedup.getMaxDistance())) {
+            representatives[i] = candidate;
+            exact.put(key, candidate);
+            break;
+          }
+        }
+        if (representatives[i] == i) {
+          perceptualCandidates.add(i);
+          perceptualHashes.put(i, hash);
+        }
+      }
+    }
+    return representatives;
+  }
+
+  /**
+   * 이미지를 9x8 흑백으로 줄인 뒤 가로로 이웃한 픽셀의 밝기를 비교하여 64비트 차이 해시를 만든다.
+   *
+   * @return 지각적 특징, 디코딩할 수 없는 이미지는 null
+   */
+  static PerceptualHash perceptualHash(final byte[] image) {
+    final BufferedImage decoded;
+    try {
+      decoded = ImageIO.read(new ByteArrayInputStream(image));
+    } catch (final IOException | RuntimeException e) {
+      log.debug("Cannot decode image for perceptual hash: {}", e.getMessage());
+      return null;
+    }
+    if (decoded == null) {
+      return null;
+    }
+
+    final BufferedImage small = new BufferedImage(HASH_WIDTH, HASH_HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+    final Graphics2D graphics = small.createGraphics();
+    try {
+      graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      graphics.drawImage(decoded, 0, 0, HASH_WIDTH, HASH_HEIGHT, null);
+    } finally {
+      graphics.dispose();
+    }
+
+    long hash = 0;
+    int sum = 0;
+    for (int y = 0; y < HASH_HEIGHT; y++) {
+      for (int x = 0; x < HASH_WIDTH; x++) {
+        final int gray = small.getRaster().getSample(x, y, 0);
+        sum += gray;
+        if (x > 0) {
+          hash = (hash << 1) | (small.getRaster().getSample(x - 1, y, 0) > gray ? 1 : 0);
+        }
+      }
+    }
+    return new PerceptualHash(hash, (double) decoded.getWidth() / decoded.getHeight(),
+        sum / (HASH_WIDTH * HASH_HEIGHT));
+  }
+}
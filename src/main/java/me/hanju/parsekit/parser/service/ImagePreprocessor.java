@@ -0,0 +1,245 @@
+package me.hanju.parsekit.parser.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import me.hanju.parsekit.common.FileTypeDetector;
+import me.hanju.parsekit.parser.config.ParserProperties;
+import me.hanju.parsekit.parser.config.ParserProperties.PreprocessProperties;
+
+/**
+ * VLM OCR 전에 이미지를 줄이는 전처리 단계.
+ * 긴 변 축소, 흑백 변환(페이지 이미지만), JPEG/PNG 재인코딩을 적용한다.
+ * 디코딩할 수 없는 이미지이거나 처리 결과가 원본보다 나아지지 않으면 원본을 그대로 사용한다.
+ */
+@Slf4j
+@Service
+public class ImagePreprocessor {
+
+  private final PreprocessProperties preprocess;
+  private final String outputFormat;
+
+  public ImagePreprocessor(final ParserProperties parserProperties) {
+    this.preprocess = parserProperties.getVlm().getPreprocess();
+
+    final String format = preprocess.getFormat() == null ? "" : preprocess.getFormat().toLowerCase();
+    this.outputFormat = switch (format) {
+      case "", "original" -> null;
+      case "jpg", "jpeg" -> "jpeg";
+      case "png" -> "png";
+      default -> {
+        // ImageIO에 WebP 인코더가 없으므로 JPEG로 대체한다
+        log.warn("Unsupported preprocess format '{}', using jpeg instead", format);
+        yield "jpeg";
+      }
+    };
+
+    if (preprocess.isEnabled()) {
+      log.info("ImagePreprocessor enabled (maxLongEdge={}, grayscale={}, format={}, quality={})",
+          preprocess.getMaxLongEdge(), preprocess.isGrayscale(), outputFormat, preprocess.getQuality());
+    }
+  }
+
+  public enum ImageKind {
+    /** 문서 페이지를 렌더링한 이미지 또는 업로드된 이미지 */
+    PAGE,
+    /** 문서에 포함된 그림, 차트 등 (색상 정보를 유지하기 위해 흑백 변환하지 않는다) */
+    EMBEDDED
+  }
+
+  /**
+   * VLM에 보낼 이미지.
+   */
+  public record PreparedImage(String mimeType, byte[] content) {
+
+    public String toBase64EncodedUri() {
+      return FileTypeDetector.toBase64EncodedUri(mimeType, content);
+    }
+  }
+
+  /**
+   * 요청 하나에서 전처리한 이미지의 크기 합계. 여러 스레드에서 동시에 기록할 수 있다.
+   */
+  public static final class Report {
+
+    private final AtomicLong images = new AtomicLong();
+    private final AtomicLong originalBytes = new AtomicLong();
+    private final AtomicLong processedBytes = new AtomicLong();
+
+    private void record(final int original, final int processed) {
+      images.incrementAndGet();
+      originalBytes.addAndGet(original);
+      processedBytes.addAndGet(processed);
+    }
+
+    public long savedBytes() {
+      return originalBytes.get() - processedBytes.get();
+    }
+
+    @Override
+    public String toString() {
+      final long original = originalBytes.get();
+      return String.format("%d images, %d -> %d bytes (saved %d bytes, %.1f%%)",
+          images.get(), original, processedBytes.get(), savedBytes(),
+          original == 0 ? 0.0 : savedBytes() * 100.0 / original);
+    }
+  }
+
+  public boolean isEnabled() {
+    return preprocess.isEnabled();
+  }
+
+  public Report newReport() {
+    return new Report();
+  }
+
+  /**
+   * 이미지를 전처리한다. 전처리가 꺼져 있으면 원본을 그대로 반환한다.
+   *
+   * @param image    이미지 바이트
+   * @param mimeType 이미지 MIME 타입
+   * @param kind     이미지 종류
+   * @param report   크기 합계를 기록할 리포트
+   * @return VLM에 보낼 이미지
+   */
+  public PreparedImage prepare(final byte[] image, final String mimeType, final ImageKind kind,
+      final Report report) {
+    if (!preprocess.isEnabled()) {
+      return new PreparedImage(mimeType, image);
+    }
+
+    PreparedImage result = new PreparedImage(mimeType, image);
+    try {
+      final BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(image));
+      if (decoded != null) {
+        result = process(decoded, image, mimeType, kind);
+      }
+    } catch (final IOException | RuntimeException e) {
+      log.warn("Failed to preprocess image, using original: {}", e.getMessage());
+    }
+
+    report.record(image.length, result.content().length);
+    return result;
+  }
+
+  private PreparedImage process(final BufferedImage decoded, final byte[] original, final String mimeType,
+      final ImageKind kind) throws IOException {
+    final BufferedImage resized = resize(decoded, preprocess.getMaxLongEdge());
+    final boolean grayscale = preprocess.isGrayscale() && kind == ImageKind.PAGE;
+    final boolean changed = resized != decoded || grayscale;
+
+    final String currentFormat = mimeType.substring(mimeType.indexOf('/') + 1);
+    final String format = outputFormat != null ? outputFormat : currentFormat;
+    if (!changed && format.equals(currentFormat) && !"jpeg".equals(format)) {
+      return new PreparedImage(mimeType, original);
+    }
+
+    final BufferedImage converted = toColorModel(resized, grayscale, format);
+    final byte[] encoded = encode(converted, format);
+    if (encoded != null && encoded.length < original.length) {
+      return new PreparedImage("image/" + format, encoded);
+    }
+    if (!changed) {
+      // 크기와 색상이 그대로인데 용량이 줄지 않으면 원본이 낫다
+      return new PreparedImage(mimeType, original);
+    }
+
+    // 재인코딩 형식이 오히려 크면 (예: 단색 위주의 페이지를 JPEG으로) 원본 형식으로 인코딩한 것과 비교한다
+    final byte[] fallback = format.equals(currentFormat) ? null : encode(converted, currentFormat);
+    if (fallback != null && (encoded == null || fallback.length < encoded.length)) {
+      return new PreparedImage(mimeType, fallback);
+    }
+    return encoded != null ? new PreparedImage("image/" + format, encoded) : new PreparedImage(mimeType, original);
+  }
+
+  /**
+   * 긴 변이 maxLongEdge를 넘으면 비율을 유지하며 줄인다. 한 번에 크게 줄이면 글자가 뭉개지므로 절반씩 나누어 줄인다.
+   */
+  static BufferedImage resize(final BufferedImage image, final int maxLongEdge) {
+    final int longEdge = Math.max(image.getWidth(), image.getHeight());
+    if (maxLongEdge <= 0 || longEdge <= maxLongEdge) {
+      return image;
+    }
+
+    final double scale = (double) maxLongEdge / longEdge;
+    final int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * scale));
+    final int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+    BufferedImage current = image;
+    int width = image.getWidth();
+    int height = image.getHeight();
+    do {
+      width = Math.max(targetWidth, width / 2);
+      height = Math.max(targetHeight, height / 2);
+      current = draw(current, width, height, BufferedImage.TYPE_INT_RGB);
+    } while (width != targetWidth || height != targetHeight);
+    return current;
+  }
+
+  private static BufferedImage toColorModel(final BufferedImage image, final boolean grayscale, final String format) {
+    if (grayscale) {
+      return image.getType() == BufferedImage.TYPE_BYTE_GRAY
+          ? image
+          : draw(image, image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+    }
+    // JPEG은 알파 채널을 지원하지 않는다
+    if ("jpeg".equals(format) && image.getColorModel().hasAlpha()) {
+      return draw(image, image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+    }
+    return image;
+  }
+
+  private static BufferedImage draw(final BufferedImage source, final int width, final int height, final int type) {
+    final BufferedImage target = new BufferedImage(width, height, type);
+    final Graphics2D graphics = target.createGraphics();
+    try {
+      graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      graphics.setColor(Color.WHITE);
+      graphics.fillRect(0, 0, width, height);
+      graphics.drawImage(source, 0, 0, width, height, null);
+    } finally {
+      graphics.dispose();
+    }
+    return target;
+  }
+
+  private byte[] encode(final BufferedImage image, final String format) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    if (!"jpeg".equals(format)) {
+      return ImageIO.write(image, format, out) ? out.toByteArray() : null;
+    }
+
+    final Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+    if (!writers.hasNext()) {
+      return null;
+    }
+    final ImageWriter writer = writers.next();
+    try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+      final ImageWriteParam param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality((float) preprocess.getQuality());
+      writer.setOutput(output);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,105 @@
+package me.hanju.parsekit.parser.service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.hanju.parsekit.common.PageSelection;
+import me.hanju.parsekit.common.PageSelection.PageRange;
+import me.hanju.parsekit.parser.config.ParserProperties;
+import me.hanju.parsekit.parser.config.ParserProperties.TextLayerProperties;
+
+/**
+ * PDF 페이지별 텍스트 레이어를 검사한다.
+ * 쓸 만한 텍스트가 있는 페이지는 로컬에서 추출한 텍스트를 사용하고, 나머지 페이지만 VLM OCR로 보내기 위해 사용한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PdfTextLayerService {
+
+  private final ParserProperties parserProperties;
+
+  /**
+   * 텍스트 레이어 검사 결과.
+   *
+   * @param totalPages 문서 전체 페이지 수
+   * @param textPages  쓸 만한 텍스트가 있는 페이지 번호와 추출한 텍스트 (페이지 순서)
+   */
+  public record TextLayer(int totalPages, Map<Integer, String> textPages) {
+  }
+
+  public boolean isEnabled() {
+    return parserProperties.getVlm().getTextLayer().isEnabled();
+  }
+
+  /**
+   * 선택된 페이지의 텍스트 레이어를 추출하고 쓸 만한 텍스트가 있는 페이지만 반환한다.
+   *
+   * @param pdfBytes PDF 파일 내용
+   * @param pages    검사할 페이지 선택
+   * @return 검사 결과, PDF를 읽을 수 없으면 null
+   * @throws me.hanju.parsekit.common.exception.BadRequestException 선택된 페이지가 문서에 하나도 없는 경우
+   */
+  public TextLayer analyze(final byte[] pdfBytes, final PageSelection pages) {
+    final int totalPages;
+    final Map<Integer, String> textPages = new TreeMap<>();
+
+    try (PDDocument document = PDDocument.load(pdfBytes, "", null, null,
+        MemoryUsageSetting.setupMainMemoryOnly())) {
+      totalPages = document.getNumberOfPages();
+      final PDFTextStripper stripper = new PDFTextStripper();
+      stripper.setSortByPosition(true);
+
+      for (final PageRange range : pages.resolve(totalPages)) {
+        for (int page = range.first(); page <= range.last(); page++) {
+          stripper.setStartPage(page);
+          stripper.setEndPage(page);
+          final String text = stripper.getText(document).strip();
+          if (isUsable(text)) {
+            textPages.put(page, text);
+          }
+        }
+      }
+    } catch (final IOException e) {
+      log.warn("Failed to read text layer, falling back to OCR for all pages: {}", e.getMessage());
+      return null;
+    }
+
+    log.info("Text layer found on {}/{} selected pages", textPages.size(), pages.count(totalPages));
+    return new TextLayer(totalPages, textPages);
+  }
+
+  /**
+   * 추출한 텍스트가 OCR을 대신할 만한지 판단한다.
+   * 공백을 제외한 글자 수가 min-chars 이상이고, 그중 대체 문자(U+FFFD)나 제어 문자가 아닌 글자의 비율이
+   * min-printable-ratio 이상이어야 한다. 글꼴에 유니코드 매핑이 없는 PDF는 깨진 글자가 추출되므로 걸러진다.
+   */
+  boolean isUsable(final String text) {
+    final TextLayerProperties textLayer = parserProperties.getVlm().getTextLayer();
+
+    int visible = 0;
+    int printable = 0;
+    for (int i = 0; i < text.length(); i++) {
+      final char c = text.charAt(i);
+      if (Character.isWhitespace(c)) {
+        continue;
+      }
+      visible++;
+      if (c != '\uFFFD' && !Character.isISOControl(c) && Character.getType(c) != Character.PRIVATE_USE) {
+        printable++;
+      }
+    }
+
+    return visible >= textLayer.getMinChars()
+        && visible > 0
+        && (double) printable / visible >= textLayer.getMinPrintableRatio();
+  }
+}
@@ -3,6 +3,9 @@ package me.hanju.parsekit.parser.service;
 import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.tika.metadata.Metadata;
 import org.apache.tika.parser.AutoDetectParser;
 import org.apache.tika.parser.ParseContext;
@@ -14,6 +17,9 @@ import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 import me.hanju.parsekit.common.FileTypeDetector;
 import me.hanju.parsekit.common.FileTypeDetector.FileTypeInfo;
+import me.hanju.parsekit.common.PageSelection;
+import me.hanju.parsekit.common.PageSelection.PageRange;
+import me.hanju.parsekit.common.exception.BadRequestException;
 import me.hanju.parsekit.common.exception.UnsupportedMediaTypeException;
 import me.hanju.parsekit.parser.client.DoclingClient;
 import me.hanju.parsekit.parser.client.VlmClient;
@@ -25,7 +31,8 @@ import me.hanju.parsekit.parser.exception.TikaParserException;
  * Docling과 VLM이 설정되지 않았을 때 순정 Tika Parser로 텍스트를 추출한다.
  * - 플레인 텍스트: 변환 없이 그대로 반환
  * - 이미지: 지원 안함 (OCR 불가)
- * - 기타 문서: Tika Parser로 텍스트 추출
+ * - PDF 페이지 선택: 선택된 페이지만 PDFBox로 텍스트 추출
+ * - 기타 문서: Tika Parser로 텍스트 추출 (페이지 선택 무시)
  */
 @Slf4j
 @Service
@@ -36,7 +43,7 @@ public class TikaParserService implements IParserService {
   private static final int WRITE_LIMIT = -1;
 
   @Override
-  public ParseResult parse(byte[] content, String filename, int dpi) {
+  public ParseResult parse(byte[] content, String filename, int dpi, PageSelection pages) {
     final FileTypeInfo info = FileTypeDetector.detect(content, filename);
 
     return switch (info.category()) {
@@ -47,7 +54,15 @@ public class TikaParserService implements IParserService {
       }
       case IMAGE ->
         throw new UnsupportedMediaTypeException("Image files not supported without VLM: " + filename);
-      case DOCUMENT, SPREADSHEET, PRESENTATION, PDF -> {
+      case PDF -> {
+        if (pages.isAll()) {
+          log.info("Parsing with Tika: {}", filename);
+          yield new ParseResult(filename, extractText(content));
+        }
+        log.info("Extracting text from selected pages: {} (pages={})", filename, pages);
+        yield new ParseResult(filename, extractPdfText(content, pages));
+      }
+      case DOCUMENT, SPREADSHEET, PRESENTATION -> {
         log.info("Parsing with Tika: {}", filename);
         final String extractedText = extractText(content);
         yield new ParseResult(filename, extractedText);
@@ -68,4 +83,22 @@ public class TikaParserService implements IParserService {
 
     return handler.toString().trim();
   }
+
+  private String extractPdfText(byte[] content, PageSelection pages) {
+    try (PDDocument document = PDDocument.load(content, "", null, null,
+        MemoryUsageSetting.setupMainMemoryOnly())) {
+      PDFTextStripper stripper = new PDFTextStripper();
+      StringBuilder text = new StringBuilder();
+      for (PageRange range : pages.resolve(document.getNumberOfPages())) {
+        stripper.setStartPage(range.first());
+        stripper.setEndPage(range.last());
+        text.append(stripper.getText(document));
+      }
+      return text.toString().trim();
+    } catch (BadRequestException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new TikaParserException("Failed to extract text from document", e);
+    }
+  }
 }
@@ -1,6 +1,13 @@
 package me.hanju.parsekit.parser.service;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -10,6 +17,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.hanju.parsekit.common.FileTypeDetector;
 import me.hanju.parsekit.common.FileTypeDetector.FileTypeInfo;
+import me.hanju.parsekit.common.PageSelection;
+import me.hanju.parsekit.common.PageSelection.PageRange;
 import me.hanju.parsekit.common.exception.UnsupportedMediaTypeException;
 import me.hanju.parsekit.converter.service.JodConverterService;
 import me.hanju.parsekit.converter.service.MarkdownService;
@@ -18,7 +27,15 @@ import me.hanju.parsekit.converter.service.PopplerConverterService.PageImage;
 import me.hanju.parsekit.parser.client.DoclingClient;
 import me.hanju.parsekit.parser.client.VlmClient;
 import me.hanju.parsekit.parser.config.ParserProperties;
+import me.hanju.parsekit.parser.dto.ParseEvent;
 import me.hanju.parsekit.parser.dto.ParseResult;
+import me.hanju.parsekit.parser.exception.VlmBatchSplitException;
+import me.hanju.parsekit.parser.service.ImagePreprocessor.ImageKind;
+import me.hanju.parsekit.parser.service.ImagePreprocessor.Report;
+import me.hanju.parsekit.parser.service.PdfTextLayerService.TextLayer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * VLM 전용 파서 서비스.
@@ -27,6 +44,10 @@ import me.hanju.parsekit.parser.dto.ParseResult;
  * - 문서/스프레드시트/프레젠테이션: PDF → 이미지 변환 후 OCR
  * - PDF: 이미지 변환 후 OCR
  * - 이미지: 바로 OCR
+ * 페이지 선택이 주어지면 선택된 페이지만 이미지로 변환하여 OCR한다.
+ * 텍스트 레이어 검사가 켜져 있으면 텍스트가 있는 페이지는 OCR 없이 텍스트를 추출한다.
+ * 페이지는 요청별 동시 OCR 제한(page-concurrency) 안에서 동시에 OCR한다.
+ * 스트리밍 파싱에서는 VLM 응답을 SSE로 받아 생성되는 대로 전달한다.
  */
 @Slf4j
 @Service
@@ -40,48 +61,212 @@ public class VlmParserService implements IParserService {
   private final JodConverterService jodConverter;
   private final PopplerConverterService popplerConverter;
   private final ParserProperties parserProperties;
+  private final PdfTextLayerService textLayerService;
+  private final ImagePreprocessor imagePreprocessor;
 
   @Override
-  public ParseResult parse(byte[] content, String filename, int dpi) {
-    final FileTypeInfo info = FileTypeDetector.detect(content, filename);
+  public ParseResult parse(byte[] content, String filename, int dpi, PageSelection pages) {
+    return parse(content, filename, dpi, pages, null);
+  }
 
-    final String imageFormat = parserProperties.getVlm().getImageFormat();
-    final String imageMimeType = "image/" + imageFormat;
+  /**
+   * VLM이 생성하는 텍스트 조각을 delta 이벤트로, 완성된 페이지를 page 이벤트로 전달하며 파싱한다.
+   */
+  @Override
+  public ParseResult parseStream(byte[] content, String filename, int dpi, PageSelection pages,
+      Consumer<ParseEvent> events) {
+    return parse(content, filename, dpi, pages, events);
+  }
+
+  /**
+   * @param events 스트리밍 이벤트 콜백, 스트리밍하지 않으면 null
+   */
+  private ParseResult parse(byte[] content, String filename, int dpi, PageSelection pages,
+      Consumer<ParseEvent> events) {
+    final FileTypeInfo info = FileTypeDetector.detect(content, filename);
+    final Report report = imagePreprocessor.newReport();
 
-    final List<PageImage> images = switch (info.category()) {
+    final String markdown = switch (info.category()) {
       case PLAIN_TEXT ->
         throw new UnsupportedMediaTypeException("Plain text files not supported: " + filename);
       case MARKDOWN -> {
         log.info("Converting Markdown to HTML to PDF to images: {}", filename);
         final byte[] htmlBytes = markdownService.convertToFullHtml(content, info.baseFilename());
         final byte[] pdfBytes = jodConverter.convertToPdf(htmlBytes);
-        yield popplerConverter.convertPdfToImages(pdfBytes, imageFormat, dpi);
+        yield parsePdf(pdfBytes, dpi, pages, report, events);
       }
       case DOCUMENT, SPREADSHEET, PRESENTATION -> {
         log.info("Converting to PDF to images: {}", filename);
         final byte[] pdfBytes = jodConverter.convertToPdf(content);
-        yield popplerConverter.convertPdfToImages(pdfBytes, imageFormat, dpi);
+        yield parsePdf(pdfBytes, dpi, pages, report, events);
       }
       case PDF -> {
         log.info("Converting PDF to images: {}", filename);
-        yield popplerConverter.convertPdfToImages(content, imageFormat, dpi);
+        yield parsePdf(content, dpi, pages, report, events);
       }
       case IMAGE -> {
         log.info("Image file, passing through: {}", filename);
-        yield List.of(new PageImage(1, imageFormat, content, 1));
+        pages.resolve(1);
+        final String text = ocrAsync(1, content, info.mimeType(), report, events).block();
+        if (events != null) {
+          events.accept(ParseEvent.page(1, text));
+        }
+        yield text;
       }
     };
 
-    final StringBuilder markdown = new StringBuilder();
-    for (final PageImage image : images) {
-      if (!markdown.isEmpty()) {
-        markdown.append("\n\n---\n\n");
+    if (imagePreprocessor.isEnabled()) {
+      log.info("Preprocessed images for {}: {}", filename, report);
+    }
+    return new ParseResult(filename, markdown);
+  }
+
+  /**
+   * PDF의 선택된 페이지를 페이지 순서대로 마크다운으로 변환한다.
+   * 텍스트 레이어 검사가 켜져 있으면 쓸 만한 텍스트가 있는 페이지는 추출한 텍스트를 사용하고,
+   * 나머지 페이지만 이미지로 변환하여 OCR한다.
+   * 페이지는 최대 page-concurrency개까지 동시에 OCR하고, 결과는 페이지 순서대로 합친다.
+   * batch-size가 2 이상이면 연속된 페이지를 batch-size개씩 묶어 OCR이 필요한 페이지를 요청 하나로 OCR한다
+   * (이때 page-concurrency는 동시에 보내는 묶음 수).
+   */
+  private String parsePdf(byte[] pdfBytes, int dpi, PageSelection pages, Report report,
+      Consumer<ParseEvent> events) {
+    final String imageFormat = parserProperties.getVlm().getImageFormat();
+    final String imageMimeType = "image/" + imageFormat;
+    final int concurrency = Math.max(1, parserProperties.getVlm().getPageConcurrency());
+    // 스트리밍 중에는 페이지별 delta 이벤트를 보내야 하므로 페이지를 묶지 않는다
+    final int batchSize = events == null ? Math.max(1, parserProperties.getVlm().getBatchSize()) : 1;
+    final TextLayer textLayer = textLayerService.isEnabled() ? textLayerService.analyze(pdfBytes, pages) : null;
+    final PageSelection ocrPages = textLayer != null ? pagesWithoutText(textLayer, pages) : pages;
+
+    try (Stream<PageImage> images = ocrPages == null
+        ? Stream.<PageImage>empty()
+        : popplerConverter.streamPdfToImages(pdfBytes, imageFormat, dpi, ocrPages)) {
+      final Iterator<PageImage> iterator = images.iterator();
+      // 이미지는 렌더링 순서대로 꺼내야 하므로 map에서 꺼내고, OCR만 동시에 실행한다
+      final Flux<PageInput> inputs = textLayer == null
+          ? Flux.fromIterable(() -> iterator)
+              .map(image -> new PageInput(image.page(), null, image))
+          : Flux.fromIterable(pages.resolve(textLayer.totalPages()))
+              .concatMapIterable(range -> IntStream.rangeClosed(range.first(), range.last()).boxed().toList())
+              .map(page -> {
+                final String text = textLayer.textPages().get(page);
+                return text != null ? new PageInput(page, text, null) : new PageInput(page, null, iterator.next());
+              });
+
+      final StringBuilder markdown = new StringBuilder();
+      inputs
+          .buffer(batchSize)
+          .flatMapSequential(batch -> ocrPages(batch, imageMimeType, concurrency, report, events), concurrency)
+          .doOnNext(result -> {
+            if (events != null) {
+              events.accept(ParseEvent.page(result.page(), result.markdown()));
+            }
+            appendPage(markdown, result.markdown());
+          })
+          .blockLast();
+      return markdown.toString();
+    }
+  }
+
+  /**
+   * 선택된 페이지 중 텍스트 레이어가 없는 페이지만 고른다. 모두 텍스트가 있으면 null을 반환한다.
+   */
+  private static PageSelection pagesWithoutText(TextLayer textLayer, PageSelection pages) {
+    final List<PageRange> ranges = new ArrayList<>();
+    for (final PageRange range : pages.resolve(textLayer.totalPages())) {
+      for (int page = range.first(); page <= range.last(); page++) {
+        if (textLayer.textPages().containsKey(page)) {
+          continue;
+        }
+        final int last = ranges.size() - 1;
+        if (last >= 0 && ranges.get(last).last() == page - 1) {
+          ranges.set(last, new PageRange(ranges.get(last).first(), page));
+        } else {
+          ranges.add(new PageRange(page, page));
+        }
       }
-      markdown.append(vlmClient.ocr(
-          FileTypeDetector.toBase64EncodedUri(imageMimeType, image.content()),
-          parserProperties.getVlm().getDefaultPrompt()));
+    }
+    return ranges.isEmpty() ? null : new PageSelection(ranges);
+  }
+
+  private record PageResult(int page, String markdown) {
+  }
+
+  /**
+   * @param text  텍스트 레이어에서 추출한 텍스트, OCR할 페이지는 null
+   * @param image OCR할 페이지 이미지, 텍스트가 있는 페이지는 null
+   */
+  private record PageInput(int page, String text, PageImage image) {
+  }
+
+  /**
+   * 묶음의 페이지를 페이지 순서대로 변환한다. OCR할 페이지가 둘 이상이면 요청 하나로 OCR하고,
+   * 응답을 페이지로 나누지 못하면 최대 concurrency개씩 한 페이지씩 다시 OCR한다.
+   * 전송 오류나 서버 오류는 VlmClient에서 이미 다른 서버로 재시도했으므로 그대로 전달한다.
+   */
+  private Flux<PageResult> ocrPages(List<PageInput> batch, String mimeType, int concurrency, Report report,
+      Consumer<ParseEvent> events) {
+    final List<PageImage> images = batch.stream().map(PageInput::image).filter(Objects::nonNull).toList();
+    if (images.size() <= 1) {
+      return Flux.fromIterable(batch)
+          .concatMap(input -> input.image() == null
+              ? Mono.just(new PageResult(input.page(), input.text()))
+              : ocrPage(input.image(), mimeType, report, events));
     }
 
-    return new ParseResult(filename, markdown.toString());
+    final String prompt = parserProperties.getVlm().getDefaultPrompt();
+    return Mono
+        .fromCallable(() -> images.stream()
+            .map(image -> imagePreprocessor.prepare(image.content(), mimeType, ImageKind.PAGE, report)
+                .toBase64EncodedUri())
+            .toList())
+        .flatMap(uris -> Mono.fromCallable(() -> vlmClient.ocrBatch(uris, prompt))
+            .onErrorResume(VlmBatchSplitException.class, e -> {
+              log.warn("{} for pages {}, falling back to single-page OCR", e.getMessage(),
+                  images.stream().map(PageImage::page).toList());
+              return Flux.fromIterable(uris)
+                  .flatMapSequential(uri -> Mono.fromCallable(() -> vlmClient.ocr(uri, prompt))
+                      .subscribeOn(Schedulers.boundedElastic()), concurrency)
+                  .collectList();
+            }))
+        .subscribeOn(Schedulers.boundedElastic())
+        .flatMapIterable(texts -> {
+          final Iterator<String> ocrTexts = texts.iterator();
+          return batch.stream()
+              .map(input -> new PageResult(input.page(), input.image() == null ? input.text() : ocrTexts.next()))
+              .toList();
+        });
+  }
+
+  private Mono<PageResult> ocrPage(PageImage image, String mimeType, Report report, Consumer<ParseEvent> events) {
+    return ocrAsync(image.page(), image.content(), mimeType, report, events)
+        .map(text -> new PageResult(image.page(), text));
+  }
+
+  /**
+   * 이미지를 OCR한다. 스트리밍 중이면 VLM 응답을 스트림으로 받아 텍스트 조각마다 delta 이벤트를 전달한다.
+   */
+  private Mono<String> ocrAsync(int page, byte[] image, String mimeType, Report report,
+      Consumer<ParseEvent> events) {
+    final String prompt = parserProperties.getVlm().getDefaultPrompt();
+    // 전처리와 VlmClient 호출은 블로킹이므로 블로킹 작업용 스케줄러에서 실행한다
+    final Mono<String> encodedUri = Mono
+        .fromCallable(() -> imagePreprocessor.prepare(image, mimeType, ImageKind.PAGE, report).toBase64EncodedUri())
+        .subscribeOn(Schedulers.boundedElastic());
+    if (events == null) {
+      return encodedUri.map(uri -> vlmClient.ocr(uri, prompt));
+    }
+    return encodedUri
+        .flatMapMany(uri -> vlmClient.ocrStream(uri, prompt))
+        .doOnNext(text -> events.accept(ParseEvent.delta(page, text)))
+        .collect(Collectors.joining());
+  }
+
+  private static void appendPage(StringBuilder markdown, String page) {
+    if (!markdown.isEmpty()) {
+      markdown.append("\n\n---\n\n");
+    }
+    markdown.append(page);
   }
 }
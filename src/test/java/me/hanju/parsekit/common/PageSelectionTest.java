@@ -0,0 +1,86 @@
+package me.hanju.parsekit.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import me.hanju.parsekit.common.PageSelection.PageRange;
+import me.hanju.parsekit.common.exception.BadRequestException;
+
+class PageSelectionTest {
+
+  @Nested
+  @DisplayName("parse()")
+  class Parse {
+
+    @Test
+    @DisplayName("null이나 빈 문자열은 전체 페이지로 처리한다")
+    void shouldReturnAllForBlank() {
+      assertThat(PageSelection.parse(null).isAll()).isTrue();
+      assertThat(PageSelection.parse(" ").isAll()).isTrue();
+    }
+
+    @Test
+    @DisplayName("구간과 단일 페이지를 정렬하고 이어지는 구간을 합친다")
+    void shouldMergeRanges() {
+      final PageSelection selection = PageSelection.parse("9, 1-5,4-6,7");
+
+      assertThat(selection.ranges()).containsExactly(
+          new PageRange(1, 7),
+          new PageRange(9, 9));
+      assertThat(selection).hasToString("1-7,9");
+    }
+
+    @Test
+    @DisplayName("끝이 열린 구간을 지원한다")
+    void shouldParseOpenEndedRange() {
+      final PageSelection selection = PageSelection.parse("3-");
+
+      assertThat(selection.ranges()).containsExactly(new PageRange(3, Integer.MAX_VALUE));
+      assertThat(selection).hasToString("3-");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "a", "0", "5-3", "1,,2", "-3", "1-x" })
+    @DisplayName("잘못된 형식은 BadRequestException을 던진다")
+    void shouldThrowForInvalidSpec(final String spec) {
+      assertThatThrownBy(() -> PageSelection.parse(spec))
+          .isInstanceOf(BadRequestException.class);
+    }
+  }
+
+  @Nested
+  @DisplayName("resolve()")
+  class Resolve {
+
+    @Test
+    @DisplayName("전체 페이지는 문서 전체 구간을 반환한다")
+    void shouldResolveAll() {
+      assertThat(PageSelection.ALL.resolve(12)).containsExactly(new PageRange(1, 12));
+    }
+
+    @Test
+    @DisplayName("문서 페이지 수를 넘는 구간은 잘라낸다")
+    void shouldClipToDocument() {
+      final PageSelection selection = PageSelection.parse("2-4,8-,20");
+
+      assertThat(selection.resolve(10)).containsExactly(
+          new PageRange(2, 4),
+          new PageRange(8, 10));
+      assertThat(selection.count(10)).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("선택된 페이지가 문서에 없으면 BadRequestException을 던진다")
+    void shouldThrowWhenNothingSelected() {
+      assertThatThrownBy(() -> PageSelection.parse("11-").resolve(10))
+          .isInstanceOf(BadRequestException.class)
+          .hasMessageContaining("document has 10 pages");
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package me.hanju.parsekit.common.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class TieredCacheTest {
+
+  private static CacheProperties properties(final long maxMemoryBytes, final Path diskDir) {
+    final CacheProperties properties = new CacheProperties();
+    properties.setEnabled(true);
+    properties.setMaxMemorySize(DataSize.ofBytes(maxMemoryBytes));
+    properties.setDiskDir(diskDir);
+    return properties;
+  }
+
+  @Nested
+  @DisplayName("메모리 계층")
+  class Memory {
+
+    @Test
+    @DisplayName("저장한 값을 조회하고 적중/실패를 집계한다")
+    void shouldCountHitsAndMisses() {
+      final TieredCache cache = new TieredCache("test", properties(1024, null));
+
+      cache.put("a", new byte[] { 1, 2, 3 });
+
+      assertThat(cache.get("a")).containsExactly(1, 2, 3);
+      assertThat(cache.get("b")).isNull();
+      assertThat(cache.stats().memoryHits()).isEqualTo(1);
+      assertThat(cache.stats().misses()).isEqualTo(1);
+      assertThat(cache.stats().hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("최대 크기를 넘으면 가장 오래 사용하지 않은 항목부터 제거한다")
+    void shouldEvictLeastRecentlyUsed() {
+      final TieredCache cache = new TieredCache("test", properties(10, null));
+
+      cache.put("a", new byte[4]);
+      cache.put("b", new byte[4]);
+      cache.get("a");
+      cache.put("c", new byte[4]);
+
+      assertThat(cache.contains("a")).isTrue();
+      assertThat(cache.contains("b")).isFalse();
+      assertThat(cache.contains("c")).isTrue();
+      assertThat(cache.stats().memoryBytes()).isEqualTo(8);
+      assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("TTL이 지난 항목은 조회되지 않는다")
+    void shouldExpireEntries() throws InterruptedException {
+      final CacheProperties properties = properties(1024, null);
+      properties.setTtl(Duration.ofMillis(10));
+      final TieredCache cache = new TieredCache("test", properties);
+
+      cache.put("a", new byte[] { 1 });
+      Thread.sleep(30);
+
+      assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    @DisplayName("비활성화되면 저장하지 않는다")
+    void shouldIgnoreWhenDisabled() {
+      final CacheProperties properties = properties(1024, null);
+      properties.setEnabled(false);
+      final TieredCache cache = new TieredCache("test", properties);
+
+      cache.put("a", new byte[] { 1 });
+
+      assertThat(cache.get("a")).isNull();
+      assertThat(cache.stats().enabled()).isFalse();
+    }
+  }
+
+  @Nested
+  @DisplayName("디스크 계층")
+  class Disk {
+
+    @Test
+    @DisplayName("메모리에서 밀려난 항목을 디스크에서 찾는다")
+    void shouldFallBackToDisk(@TempDir final Path dir) {
+      final TieredCache cache = new TieredCache("test", properties(4, dir));
+
+      cache.put("a", new byte[] { 1, 2, 3, 4 });
+      cache.put("b", new byte[] { 5, 6, 7, 8 });
+
+      assertThat(cache.get("a")).containsExactly(1, 2, 3, 4);
+      assertThat(cache.stats().diskHits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("재시작 후에도 디스크 계층의 항목을 사용한다")
+    void shouldSurviveRestart(@TempDir final Path dir) {
+      new TieredCache("test", properties(1024, dir)).put("a", new byte[] { 9 });
+
+      final TieredCache restarted = new TieredCache("test", properties(1024, dir));
+
+      assertThat(restarted.stats().diskBytes()).isEqualTo(1);
+      assertThat(restarted.get("a")).containsExactly(9);
+    }
+  }
+}
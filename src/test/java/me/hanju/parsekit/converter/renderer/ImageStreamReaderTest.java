@@ -0,0 +1,75 @@
+package me.hanju.parsekit.converter.renderer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ImageStreamReaderTest {
+
+  @Nested
+  @DisplayName("read()")
+  class Read {
+
+    @ParameterizedTest
+    @ValueSource(strings = { "png", "jpeg" })
+    @DisplayName("이어서 기록된 이미지를 하나씩 잘라 읽는다")
+    void shouldSplitConcatenatedImages(final String format) throws IOException {
+      final byte[] first = encode(format, 40, 30, Color.RED);
+      final byte[] second = encode(format, 64, 48, Color.BLUE);
+
+      final InputStream in = new ByteArrayInputStream(concat(first, second));
+
+      assertThat(ImageStreamReader.read(in, format)).isEqualTo(first);
+      assertThat(ImageStreamReader.read(in, format)).isEqualTo(second);
+      assertThat(ImageStreamReader.read(in, format)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "png", "jpeg" })
+    @DisplayName("이미지 중간에서 스트림이 끝나면 EOFException을 던진다")
+    void shouldThrowOnTruncatedImage(final String format) throws IOException {
+      final byte[] image = encode(format, 40, 30, Color.GREEN);
+      final InputStream in = new ByteArrayInputStream(Arrays.copyOf(image, image.length / 2));
+
+      assertThatThrownBy(() -> ImageStreamReader.read(in, format))
+          .isInstanceOf(EOFException.class);
+    }
+  }
+
+  private static byte[] encode(final String format, final int width, final int height, final Color color)
+      throws IOException {
+    final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    final Graphics2D graphics = image.createGraphics();
+    graphics.setColor(color);
+    graphics.fillRect(0, 0, width / 2, height);
+    graphics.setColor(Color.WHITE);
+    graphics.fillRect(width / 2, 0, width / 2, height);
+    graphics.dispose();
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(image, format, out);
+    return out.toByteArray();
+  }
+
+  private static byte[] concat(final byte[] first, final byte[] second) {
+    final byte[] result = Arrays.copyOf(first, first.length + second.length);
+    System.arraycopy(second, 0, result, first.length, second.length);
+    return result;
+  }
+}
@@ -0,0 +1,194 @@
+package me.hanju.parsekit.converter.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import me.hanju.parsekit.converter.config.ConverterProperties;
+import me.hanju.parsekit.converter.config.ConverterProperties.IoMode;
+import me.hanju.parsekit.converter.config.ConverterProperties.RenderEngine;
+import me.hanju.parsekit.converter.config.ConverterProperties.RenderMode;
+import me.hanju.parsekit.converter.renderer.PdfBoxPdfRenderer;
+import me.hanju.parsekit.converter.renderer.PdfRenderer;
+import me.hanju.parsekit.converter.renderer.PopplerPdfRenderer;
+import me.hanju.parsekit.converter.service.PopplerConverterService.PageImage;
+
+/**
+ * PDF 이미지 변환 벤치마크. 기본 test 태스크에서는 제외되며 {@code ./gradlew benchmark}로 실행한다.
+ */
+@Tag("benchmark")
+class PopplerConverterBenchmarkTest {
+
+  private static final Path SAMPLE_PDF = Path.of("data/inputs/text_sample.pdf");
+  private static final int TARGET_PAGES = 100;
+  private static final int DPI = 150;
+
+  private static byte[] pdfBytes;
+
+  @BeforeAll
+  static void setUp() throws IOException {
+    pdfBytes = buildDocument(Files.readAllBytes(SAMPLE_PDF), TARGET_PAGES);
+  }
+
+  @Test
+  @DisplayName("페이지별 프로세스 실행과 배치 렌더링의 초당 페이지 수를 비교한다")
+  void compareRenderModes() {
+    final Result perPage = measure(properties(RenderEngine.POPPLER, RenderMode.PER_PAGE, 1));
+    final Result batch = measure(properties(RenderEngine.POPPLER, RenderMode.BATCH, 1));
+
+    System.out.printf("per-page: %s%nbatch:    %s%n", perPage, batch);
+  }
+
+  @Test
+  @DisplayName("워커 수에 따른 배치 렌더링의 초당 페이지 수를 비교한다")
+  void compareWorkerCounts() {
+    final int cores = Runtime.getRuntime().availableProcessors();
+    final Result single = measure(properties(RenderEngine.POPPLER, RenderMode.BATCH, 1));
+    final Result parallel = measure(properties(RenderEngine.POPPLER, RenderMode.BATCH, cores));
+
+    System.out.printf("1 worker:   %s%n%d workers: %s%n", single, cores, parallel);
+  }
+
+  @Test
+  @DisplayName("임시 파일 입출력과 stdin/stdout 파이프 입출력을 비교한다")
+  void compareIoModes() {
+    final ConverterProperties file = properties(RenderEngine.POPPLER, RenderMode.BATCH, 1);
+    final ConverterProperties pipe = properties(RenderEngine.POPPLER, RenderMode.BATCH, 1);
+    pipe.getPoppler().setIoMode(IoMode.PIPE);
+
+    System.out.printf("file: %s%npipe: %s%n", measure(file), measure(pipe));
+  }
+
+  @Test
+  @DisplayName("Poppler와 PDFBox 엔진의 지연 시간, 처리량, 힙 사용량을 비교한다")
+  void compareEngines() {
+    final int cores = Runtime.getRuntime().availableProcessors();
+    final Result poppler = measure(properties(RenderEngine.POPPLER, RenderMode.BATCH, cores));
+    final Result pdfbox = measure(properties(RenderEngine.PDFBOX, RenderMode.BATCH, cores));
+
+    System.out.printf("poppler: %s%npdfbox:  %s%n", poppler, pdfbox);
+  }
+
+  private static ConverterProperties properties(final RenderEngine engine, final RenderMode mode,
+      final int maxWorkers) {
+    final ConverterProperties properties = new ConverterProperties();
+    properties.setEngine(engine);
+    properties.setMaxWorkers(maxWorkers);
+    properties.getPoppler().setRenderMode(mode);
+    return properties;
+  }
+
+  private Result measure(final ConverterProperties properties) {
+    final PdfRenderer renderer = properties.getEngine() == RenderEngine.PDFBOX
+        ? new PdfBoxPdfRenderer()
+        : new PopplerPdfRenderer(properties);
+    final PopplerConverterService service = new PopplerConverterService(properties, renderer);
+
+    try {
+      // 워밍업
+      service.convertPdfToImages(pdfBytes, "png", DPI);
+      System.gc();
+
+      final HeapSampler heap = new HeapSampler();
+      final long start = System.nanoTime();
+      long firstPageNanos = 0;
+      int pages = 0;
+      try (Stream<PageImage> images = service.streamPdfToImages(pdfBytes, "png", DPI)) {
+        final Iterator<PageImage> iterator = images.iterator();
+        while (iterator.hasNext()) {
+          iterator.next();
+          if (pages++ == 0) {
+            firstPageNanos = System.nanoTime() - start;
+          }
+        }
+      }
+      final long totalNanos = System.nanoTime() - start;
+      final long peakHeap = heap.stop();
+
+      assertThat(pages).isEqualTo(TARGET_PAGES);
+      return new Result(pages, firstPageNanos, totalNanos, peakHeap);
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  private record Result(int pages, long firstPageNanos, long totalNanos, long peakHeapBytes) {
+
+    @Override
+    public String toString() {
+      return String.format("%.2f pages/sec, first page %d ms, total %d ms, peak heap %d MB",
+          pages / (totalNanos / 1_000_000_000.0),
+          firstPageNanos / 1_000_000,
+          totalNanos / 1_000_000,
+          peakHeapBytes / (1024 * 1024));
+    }
+  }
+
+  /**
+   * 측정 구간 동안 힙 사용량의 최대값을 주기적으로 기록한다.
+   */
+  private static final class HeapSampler {
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final AtomicLong peak = new AtomicLong();
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final Thread thread;
+
+    private HeapSampler() {
+      this.thread = new Thread(() -> {
+        while (running.get()) {
+          peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+          try {
+            Thread.sleep(5);
+          } catch (final InterruptedException e) {
+            return;
+          }
+        }
+      });
+      this.thread.setDaemon(true);
+      this.thread.start();
+    }
+
+    private long stop() {
+      running.set(false);
+      thread.interrupt();
+      return peak.get();
+    }
+  }
+
+  /**
+   * 샘플 PDF의 페이지를 반복해서 원하는 페이지 수의 문서를 만든다.
+   */
+  private static byte[] buildDocument(final byte[] sample, final int pages) throws IOException {
+    try (PDDocument source = PDDocument.load(sample);
+        PDDocument target = new PDDocument()) {
+      while (target.getNumberOfPages() < pages) {
+        for (final PDPage page : source.getPages()) {
+          if (target.getNumberOfPages() >= pages) {
+            break;
+          }
+          target.importPage(page);
+        }
+      }
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      target.save(out);
+      return out.toByteArray();
+    }
+  }
+}
@@ -13,8 +13,13 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestFactory;
 
+import me.hanju.parsekit.common.PageSelection;
+import me.hanju.parsekit.converter.config.ConverterProperties;
+import me.hanju.parsekit.converter.renderer.PdfRenderer.PageSize;
+import me.hanju.parsekit.converter.renderer.PopplerPdfRenderer;
 import me.hanju.parsekit.converter.service.PopplerConverterService.PageImage;
 
 class PopplerConverterServiceTest {
@@ -26,7 +31,8 @@ class PopplerConverterServiceTest {
 
   @BeforeAll
   static void setUp() throws IOException {
-    service = new PopplerConverterService();
+    final ConverterProperties properties = new ConverterProperties();
+    service = new PopplerConverterService(properties, new PopplerPdfRenderer(properties));
     Files.createDirectories(OUTPUT_DIR);
   }
 
@@ -140,5 +146,85 @@ class PopplerConverterServiceTest {
             }
           });
     }
+
+    @TestFactory
+    @DisplayName("선택된 페이지만 이미지로 변환한다")
+    Stream<DynamicTest> shouldConvertSelectedPages() throws IOException {
+      if (!Files.exists(TEST_FILES_DIR)) {
+        return Stream.empty();
+      }
+
+      return Files.list(TEST_FILES_DIR)
+          .filter(Files::isRegularFile)
+          .filter(path -> path.getFileName().toString().toLowerCase().endsWith(".pdf"))
+          .map(path -> DynamicTest.dynamicTest(
+              "pages: " + path.getFileName(),
+              () -> {
+                byte[] pdfBytes = Files.readAllBytes(path);
+                int totalPages = service.convertPdfToImages(pdfBytes, "png", 72).size();
+                PageSelection pages = PageSelection.parse("1," + totalPages + "-");
+
+                List<PageImage> result = service.convertPdfToImages(pdfBytes, "png", 72, pages);
+
+                assertThat(result)
+                    .extracting(PageImage::page)
+                    .containsExactlyElementsOf(totalPages > 1 ? List.of(1, totalPages) : List.of(1));
+                assertThat(result).allMatch(image -> image.totalPages() == totalPages);
+              }));
+    }
+  }
+
+  @Nested
+  @DisplayName("resolveDpi()")
+  class ResolveDpi {
+
+    private static final PageSize A4 = new PageSize(595, 842);
+    private static final PageSize A0 = new PageSize(2384, 3370);
+    private static final PageSize RECEIPT = new PageSize(200, 400);
+
+    private PopplerConverterService serviceWith(final long maxPixels, final int maxLongEdge, final int minDpi) {
+      final ConverterProperties properties = new ConverterProperties();
+      properties.getResolution().setMaxPixels(maxPixels);
+      properties.getResolution().setMaxLongEdge(maxLongEdge);
+      properties.getResolution().setMinDpi(minDpi);
+      return new PopplerConverterService(properties, new PopplerPdfRenderer(properties));
+    }
+
+    @Test
+    @DisplayName("제한이 없으면 요청된 DPI를 그대로 사용한다")
+    void shouldKeepRequestedDpi() {
+      final PopplerConverterService adaptive = serviceWith(0, 0, 0);
+
+      assertThat(adaptive.resolveDpi(A0, 150)).isEqualTo(150);
+      adaptive.shutdown();
+    }
+
+    @Test
+    @DisplayName("큰 페이지는 픽셀 수와 긴 변 제한에 맞춰 DPI를 낮춘다")
+    void shouldLowerDpiForLargePages() {
+      final PopplerConverterService pixels = serviceWith(4_000_000, 0, 0);
+      final PopplerConverterService longEdge = serviceWith(0, 2000, 0);
+
+      final int pixelDpi = pixels.resolveDpi(A0, 150);
+      assertThat(pixelDpi).isLessThan(150);
+      assertThat((A0.width() / 72 * pixelDpi) * (A0.height() / 72 * pixelDpi)).isLessThanOrEqualTo(4_000_000);
+      assertThat(pixels.resolveDpi(A4, 150)).isEqualTo(150);
+
+      final int edgeDpi = longEdge.resolveDpi(A0, 150);
+      assertThat(A0.longEdge() / 72 * edgeDpi).isLessThanOrEqualTo(2000);
+
+      pixels.shutdown();
+      longEdge.shutdown();
+    }
+
+    @Test
+    @DisplayName("작은 페이지는 최소 DPI까지 올리되 픽셀 제한을 넘지 않는다")
+    void shouldRaiseDpiForSmallPages() {
+      final PopplerConverterService adaptive = serviceWith(4_000_000, 0, 300);
+
+      assertThat(adaptive.resolveDpi(RECEIPT, 150)).isEqualTo(300);
+      assertThat(adaptive.resolveDpi(A4, 150)).isBetween(150, 299);
+      adaptive.shutdown();
+    }
   }
 }
@@ -0,0 +1,348 @@
+package me.hanju.parsekit.parser.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import me.hanju.parsekit.common.PageSelection;
+import me.hanju.parsekit.common.exception.BadRequestException;
+import me.hanju.parsekit.parser.config.ParserProperties;
+import me.hanju.parsekit.parser.dto.BatchFile;
+import me.hanju.parsekit.parser.dto.BatchParseResult;
+import me.hanju.parsekit.parser.exception.DoclingClientException;
+
+class DoclingClientTest {
+
+  private static final Pattern FILENAME = Pattern.compile("name=\"files\"; filename=\"([^\"]+)\"");
+  private static final Pattern PAGE_RANGE = Pattern.compile("name=\"page_range\".*?\r\n\r\n(\\d+)", Pattern.DOTALL);
+
+  private static final int LARGE_MARKDOWN_SIZE = 64 * 1024;
+
+  private HttpServer server;
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+  private final AtomicInteger requests = new AtomicInteger();
+  private final AtomicInteger polls = new AtomicInteger();
+
+  /**
+   * 파일이 하나면 JSON으로, 여럿이면 ZIP으로 응답하는 Docling 서버. 이름이 broken으로 시작하는 파일은 변환에 실패하고,
+   * large로 시작하는 파일은 압축되지 않는 긴 마크다운을 돌려준다.
+   */
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/v1/convert/file", exchange -> {
+      requests.incrementAndGet();
+      final String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.ISO_8859_1);
+      final Matcher matcher = FILENAME.matcher(request);
+      final List<String> filenames = matcher.results().map(result -> result.group(1)).toList();
+
+      if (filenames.size() == 1 && request.contains("name=\"target_type\"")) {
+        final ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(zip)) {
+          out.putNextEntry(new ZipEntry("artifacts/image_000000_abc.png"));
+          out.write("ABC".getBytes(StandardCharsets.UTF_8));
+          out.closeEntry();
+          out.putNextEntry(new ZipEntry("images.md"));
+          out.write("# 그림\n\n![Image](artifacts/image_000000_abc.png)\n\n![Other](https://example.com/a.png)"
+              .getBytes(StandardCharsets.UTF_8));
+          out.closeEntry();
+        }
+        respond(exchange, 200, "application/zip", zip.toByteArray());
+        return;
+      }
+
+      if (filenames.size() == 1) {
+        if (filenames.get(0).startsWith("broken")) {
+          respond(exchange, 500, "application/json", "{\"detail\":\"conversion failed\"}".getBytes());
+          return;
+        }
+        final List<String> pageRange = PAGE_RANGE.matcher(request).results().map(result -> result.group(1)).toList();
+        final String markdown = filenames.get(0).startsWith("images")
+            ? "# 그림\\n\\n![fig](data:image/png;base64,QUJD)"
+            : pageRange.isEmpty()
+                ? "# " + filenames.get(0)
+                : "pages " + pageRange.get(0) + "-" + pageRange.get(1);
+        respond(exchange, 200, "application/json", ("{\"document\":{\"filename\":\"" + filenames.get(0)
+            + "\",\"md_content\":\"" + markdown + "\"}}").getBytes(StandardCharsets.UTF_8));
+        return;
+      }
+
+      final ByteArrayOutputStream zip = new ByteArrayOutputStream();
+      try (ZipOutputStream out = new ZipOutputStream(zip)) {
+        for (final String filename : filenames) {
+          if (!filename.startsWith("broken")) {
+            out.putNextEntry(new ZipEntry(filename.substring(0, filename.lastIndexOf('.')) + ".md"));
+            out.write(("# " + filename).getBytes(StandardCharsets.UTF_8));
+            if (filename.startsWith("large")) {
+              out.write(noise(LARGE_MARKDOWN_SIZE).getBytes(StandardCharsets.UTF_8));
+            }
+            out.closeEntry();
+          }
+        }
+      }
+      respond(exchange, 200, "application/zip", zip.toByteArray());
+    });
+    server.createContext("/v1/convert/file/async", exchange -> {
+      requests.incrementAndGet();
+      final String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.ISO_8859_1);
+      final String filename = FILENAME.matcher(request).results()
+          .map(result -> result.group(1))
+          .findFirst()
+          .orElseThrow();
+      respond(exchange, 200, "application/json",
+          ("{\"task_id\":\"" + filename + "\",\"task_status\":\"pending\",\"task_position\":1}").getBytes());
+    });
+    // 두 번째 조회부터 끝난 것으로 응답한다
+    server.createContext("/v1/status/poll/", exchange -> {
+      final String taskId = exchange.getRequestURI().getPath().substring("/v1/status/poll/".length());
+      final String status = polls.incrementAndGet() < 2 ? "started"
+          : taskId.startsWith("broken") ? "failure" : "success";
+      respond(exchange, 200, "application/json",
+          ("{\"task_id\":\"" + taskId + "\",\"task_status\":\"" + status + "\"}").getBytes());
+    });
+    server.createContext("/v1/result/", exchange -> {
+      final String taskId = exchange.getRequestURI().getPath().substring("/v1/result/".length());
+      respond(exchange, 200, "application/json", ("{\"document\":{\"filename\":\"" + taskId
+          + "\",\"md_content\":\"# async " + taskId + "\"}}").getBytes(StandardCharsets.UTF_8));
+    });
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  private static void respond(final HttpExchange exchange, final int status, final String contentType,
+      final byte[] body) throws IOException {
+    exchange.getResponseHeaders().add("Content-Type", contentType);
+    exchange.sendResponseHeaders(status, body.length);
+    exchange.getResponseBody().write(body);
+    exchange.close();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private DoclingClient client(final int maxFiles) {
+    return client(maxFiles, 0);
+  }
+
+  private DoclingClient client(final int maxFiles, final int chunkPages) {
+    final ParserProperties properties = new ParserProperties();
+    properties.getDocling().getBaseUrls().add("http://127.0.0.1:" + server.getAddress().getPort());
+    properties.getDocling().getBatch().setMaxFiles(maxFiles);
+    properties.getDocling().getChunk().setPages(chunkPages);
+    properties.getDocling().getChunk().setConcurrency(4);
+    return new DoclingClient(properties);
+  }
+
+  private DoclingClient asyncClient() {
+    final ParserProperties properties = new ParserProperties();
+    properties.getDocling().getBaseUrls().add("http://127.0.0.1:" + server.getAddress().getPort());
+    properties.getDocling().getAsync().setEnabled(true);
+    properties.getDocling().getAsync().setPollInterval(Duration.ofMillis(10));
+    return new DoclingClient(properties);
+  }
+
+  private static byte[] pdf(final int pages) throws IOException {
+    try (PDDocument document = new PDDocument()) {
+      for (int i = 0; i < pages; i++) {
+        document.addPage(new PDPage());
+      }
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      document.save(out);
+      return out.toByteArray();
+    }
+  }
+
+  private static String noise(final int length) {
+    final Random random = new Random(length);
+    final StringBuilder text = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      text.append((char) ('a' + random.nextInt(26)));
+    }
+    return text.toString();
+  }
+
+  private static BatchFile file(final String filename) {
+    return new BatchFile(filename, ("content of " + filename).getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Nested
+  @DisplayName("parseBatch()")
+  class ParseBatch {
+
+    @Test
+    @DisplayName("파일을 묶어 요청하고 결과를 파일 순서대로 반환한다")
+    void shouldParseFilesInBatches() {
+      final List<BatchParseResult> results = client(2).parseBatch(
+          List.of(file("a.pdf"), file("b.docx"), file("c.pdf")), "placeholder");
+
+      assertThat(results).extracting(BatchParseResult::markdown).containsExactly("# a.pdf", "# b.docx", "# c.pdf");
+      assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("묶음 응답에 빠진 파일은 하나씩 다시 요청하여 실패를 파일별로 기록한다")
+    void shouldReportPartialFailures() {
+      final List<BatchParseResult> results = client(10).parseBatch(
+          List.of(file("a.pdf"), file("broken.pdf"), file("c.pdf")), "placeholder");
+
+      assertThat(results).extracting(BatchParseResult::status)
+          .containsExactly(BatchParseResult.SUCCESS, BatchParseResult.FAILED, BatchParseResult.SUCCESS);
+      assertThat(results.get(1).filename()).isEqualTo("broken.pdf");
+      assertThat(results.get(1).error()).contains("500");
+      assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("확장자를 뺀 이름이 같은 파일은 같은 묶음에 넣지 않는다")
+    void shouldSeparateSameOutputNames() {
+      final List<BatchParseResult> results = client(10).parseBatch(
+          List.of(file("report.pdf"), file("report.docx")), "placeholder");
+
+      assertThat(results).extracting(BatchParseResult::markdown).containsExactly("# report.pdf", "# report.docx");
+      assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("max-buffer-size보다 큰 ZIP 응답도 받는 대로 풀어 읽는다")
+    void shouldStreamLargeZipResponse() {
+      final ParserProperties properties = new ParserProperties();
+      properties.getDocling().getBaseUrls().add("http://127.0.0.1:" + server.getAddress().getPort());
+      properties.getDocling().setMaxBufferSize(16 * 1024);
+      final DoclingClient client = new DoclingClient(properties);
+
+      final List<BatchParseResult> results = client.parseBatch(
+          List.of(file("large-a.pdf"), file("large-b.pdf")), "placeholder");
+
+      assertThat(results).extracting(BatchParseResult::status)
+          .containsExactly(BatchParseResult.SUCCESS, BatchParseResult.SUCCESS);
+      assertThat(results.get(0).markdown()).startsWith("# large-a.pdf").hasSize(13 + LARGE_MARKDOWN_SIZE);
+      assertThat(requests.get()).isEqualTo(1);
+    }
+  }
+
+  @Nested
+  @DisplayName("parse() - PDF 분할")
+  class ParseChunks {
+
+    @Test
+    @DisplayName("chunk.pages보다 페이지가 많은 PDF는 구간마다 요청하고 결과를 페이지 순서대로 이어 붙인다")
+    void shouldSplitLargePdf() throws IOException {
+      final String markdown = client(20, 4).parse(pdf(10), "large.pdf", "placeholder", PageSelection.ALL).markdown();
+
+      assertThat(markdown).isEqualTo("pages 1-4\n\npages 5-8\n\npages 9-10");
+      assertThat(requests.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("선택된 페이지만 나누고, chunk.pages 이하면 나누지 않는다")
+    void shouldSplitSelectedPagesOnly() throws IOException {
+      final DoclingClient client = client(20, 4);
+
+      assertThat(client.parse(pdf(10), "large.pdf", "placeholder", PageSelection.parse("2-7")).markdown())
+          .isEqualTo("pages 2-5\n\npages 6-7");
+      assertThat(client.parse(pdf(4), "small.pdf", "placeholder", PageSelection.ALL).markdown())
+          .isEqualTo("# small.pdf");
+      assertThat(requests.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("나누지 않을 때도 열린 구간을 페이지 수로 닫고, 문서에 없는 페이지만 선택하면 요청하지 않고 거부한다")
+    void shouldResolveSelectionWithoutChunking() throws IOException {
+      final DoclingClient client = client(20);
+
+      assertThat(client.parse(pdf(5), "doc.pdf", "placeholder", PageSelection.parse("3-")).markdown())
+          .isEqualTo("pages 3-5");
+      assertThatThrownBy(() -> client.parse(pdf(5), "doc.pdf", "placeholder", PageSelection.parse("7-")))
+          .isInstanceOf(BadRequestException.class);
+      assertThat(requests.get()).isEqualTo(1);
+    }
+  }
+
+  @Nested
+  @DisplayName("parse() - 비동기 변환")
+  class ParseAsync {
+
+    @Test
+    @DisplayName("작업을 제출하고 끝날 때까지 상태를 조회한 뒤 결과를 받는다")
+    void shouldPollUntilSuccess() {
+      final String markdown = asyncClient().parse("content".getBytes(), "doc.pdf").markdown();
+
+      assertThat(markdown).isEqualTo("# async doc.pdf");
+      assertThat(polls.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("작업이 실패하면 DoclingClientException을 던진다")
+    void shouldFailWhenTaskFails() {
+      assertThatThrownBy(() -> asyncClient().parse("content".getBytes(), "broken.pdf"))
+          .isInstanceOf(DoclingClientException.class)
+          .hasMessageContaining("broken.pdf");
+      assertThat(requests.get()).isEqualTo(1);
+    }
+  }
+
+  @Nested
+  @DisplayName("parse() - 이미지 꺼내기")
+  class ParseExtractingImages {
+
+    @Test
+    @DisplayName("응답을 읽으면서 이미지를 보관소로 옮기고 마크다운에는 참조만 남긴다")
+    void shouldMoveImagesToStore() {
+      final DoclingClient client = client(20);
+
+      try (ImageStore images = client.newImageStore()) {
+        final String markdown = client.parse("content".getBytes(), "images.pdf", PageSelection.ALL, images)
+            .markdown();
+
+        assertThat(markdown).isEqualTo("# 그림\n\n![fig](parsekit-image:1)");
+        assertThat(images.read(1)).isEqualTo("ABC".getBytes());
+      }
+    }
+
+    @Test
+    @DisplayName("referenced 모드면 ZIP 응답의 이미지 파일을 보관소로 옮기고 이미지 경로를 참조로 바꾼다")
+    void shouldMoveReferencedImagesToStore() {
+      final ParserProperties properties = new ParserProperties();
+      properties.getDocling().getBaseUrls().add("http://127.0.0.1:" + server.getAddress().getPort());
+      properties.getDocling().getImageStore().setReferenced(true);
+      final DoclingClient client = new DoclingClient(properties);
+
+      try (ImageStore images = client.newImageStore()) {
+        final String markdown = client.parse("content".getBytes(), "images.pdf", PageSelection.ALL, images)
+            .markdown();
+
+        assertThat(markdown).isEqualTo("# 그림\n\n![Image](parsekit-image:1)\n\n![Other](https://example.com/a.png)");
+        assertThat(images.mimeType(1)).isEqualTo("image/png");
+        assertThat(images.read(1)).isEqualTo("ABC".getBytes());
+      }
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package me.hanju.parsekit.parser.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class EmbeddedImageExtractorTest {
+
+  private static final byte[] IMAGE = new byte[1000];
+
+  static {
+    for (int i = 0; i < IMAGE.length; i++) {
+      IMAGE[i] = (byte) (i * 31);
+    }
+  }
+
+  private static String dataUri(final String base64) {
+    return "data:image/png;base64," + base64;
+  }
+
+  /**
+   * 입력을 한 바이트씩 넣어 조각 경계가 어디에 있어도 같은 결과가 나오는지 확인한다.
+   */
+  private static String extractByteByByte(final String input, final ImageStore images) throws IOException {
+    final EmbeddedImageExtractor extractor = new EmbeddedImageExtractor(images);
+    final byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+    for (int i = 0; i < bytes.length; i++) {
+      extractor.write(bytes, i, 1);
+    }
+    return new String(extractor.finish(), StandardCharsets.UTF_8);
+  }
+
+  @Nested
+  @DisplayName("write()")
+  class Write {
+
+    @Test
+    @DisplayName("JSON 문자열 안의 이미지를 디코딩해 보관하고 참조만 남긴다")
+    void shouldExtractImagesFromJson() throws IOException {
+      final String base64 = Base64.getEncoder().encodeToString(IMAGE).replace("/", "\\/");
+      final String json = "{\"document\":{\"md_content\":\"# 제목\\n\\n![그림 1](" + dataUri(base64) + ")\\n\\n끝\"}}";
+
+      try (ImageStore images = new ImageStore(1024 * 1024, null)) {
+        final String extracted = extractByteByByte(json, images);
+
+        assertThat(extracted)
+            .isEqualTo("{\"document\":{\"md_content\":\"# 제목\\n\\n![그림 1](parsekit-image:1)\\n\\n끝\"}}");
+        assertThat(images.size()).isEqualTo(1);
+        assertThat(images.mimeType(1)).isEqualTo("image/png");
+        assertThat(images.read(1)).isEqualTo(IMAGE);
+      }
+    }
+
+    @Test
+    @DisplayName("이미지가 아닌 data URI나 형식이 다른 텍스트는 그대로 둔다")
+    void shouldKeepOtherText() throws IOException {
+      final String markdown = "![a](data:text/plain;base64,QUJD) ![b]((data:image/png,raw) ![c](data:image/;base64,x)";
+
+      try (ImageStore images = new ImageStore(1024 * 1024, null)) {
+        assertThat(extractByteByByte(markdown, images)).isEqualTo(markdown);
+        assertThat(images.size()).isZero();
+      }
+    }
+
+    @Test
+    @DisplayName("이미지 마크업(![alt])이 아닌 링크의 data URI는 꺼내지 않는다")
+    void shouldKeepNonImageLinks() throws IOException {
+      final String markdown = "[link](data:image/png;base64,QUJD) !(data:image/png;base64,QUJD) "
+          + "![](data:image/png;base64,QUJD) ![a] (data:image/png;base64,QUJD)";
+
+      try (ImageStore images = new ImageStore(1024 * 1024, null)) {
+        assertThat(extractByteByByte(markdown, images)).isEqualTo("[link](data:image/png;base64,QUJD) "
+            + "!(data:image/png;base64,QUJD) ![](parsekit-image:1) ![a] (data:image/png;base64,QUJD)");
+        assertThat(images.size()).isEqualTo(1);
+        assertThat(images.read(1)).isEqualTo("ABC".getBytes());
+      }
+    }
+
+    @Test
+    @DisplayName("디코딩할 수 없는 이미지는 내용 없이 참조만 남긴다")
+    void shouldDiscardInvalidImages() throws IOException {
+      try (ImageStore images = new ImageStore(1024 * 1024, null)) {
+        assertThat(EmbeddedImageExtractor.extract("![](data:image/png;base64,A=A=A)".getBytes(), images))
+            .isEqualTo("![](parsekit-image:1)");
+        assertThat(images.read(1)).isNull();
+      }
+    }
+  }
+
+  @Nested
+  @DisplayName("ImageStore")
+  class Store {
+
+    @Test
+    @DisplayName("메모리 상한을 넘은 이미지는 임시 파일에 쓰고 닫을 때 지운다")
+    void shouldSpillToTempFiles() throws IOException {
+      final String base64 = Base64.getEncoder().encodeToString(IMAGE);
+      final String markdown = "![a](" + dataUri(base64) + ") ![b](" + dataUri(base64) + ")";
+
+      final ImageStore images = new ImageStore(IMAGE.length + 10, null);
+      assertThat(EmbeddedImageExtractor.extract(markdown.getBytes(), images))
+          .isEqualTo("![a](parsekit-image:1) ![b](parsekit-image:2)");
+      assertThat(images.spilledCount()).isEqualTo(1);
+      assertThat(images.read(1)).isEqualTo(IMAGE);
+      assertThat(images.read(2)).isEqualTo(IMAGE);
+
+      images.close();
+      assertThat(images.read(2)).isNull();
+    }
+  }
+}
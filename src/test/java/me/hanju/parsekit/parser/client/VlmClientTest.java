@@ -0,0 +1,181 @@
+package me.hanju.parsekit.parser.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import me.hanju.parsekit.parser.config.ParserProperties;
+import me.hanju.parsekit.parser.config.ParserProperties.VlmServer;
+import me.hanju.parsekit.parser.exception.VlmBatchSplitException;
+
+class VlmClientTest {
+
+  private static final String IMAGE = "data:image/png;base64,aW1hZ2U=";
+  private static final String OTHER_IMAGE = "data:image/png;base64,b3RoZXI=";
+
+  private HttpServer server;
+  private final AtomicInteger requests = new AtomicInteger();
+  private final AtomicReference<String> lastRequest = new AtomicReference<>();
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/v1/chat/completions", exchange -> {
+      final int count = requests.incrementAndGet();
+      final String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+      lastRequest.set(request);
+      final byte[] body;
+      if (request.contains("\"stream\":true")) {
+        body = (chunk("te") + chunk("xt ") + chunk(String.valueOf(count)) + "data: [DONE]\n\n")
+            .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+      } else if (request.contains("<<<PAGE 1>>>")) {
+        body = ("{\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":"
+            + "\"<<<PAGE 1>>>\\npage one\\n<<<PAGE 2>>>\\npage two\"}}]}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+      } else {
+        body = ("{\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\"text "
+            + count + "\"}}]}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+      }
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.start();
+  }
+
+  private static String chunk(final String content) {
+    return "data: {\"choices\":[{\"index\":0,\"delta\":{\"content\":\"" + content + "\"}}]}\n\n";
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  private ParserProperties properties() {
+    final VlmServer vlmServer = new VlmServer();
+    vlmServer.setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort());
+    vlmServer.setModel("test-model");
+    final ParserProperties properties = new ParserProperties();
+    properties.getVlm().getServers().add(vlmServer);
+    return properties;
+  }
+
+  @Nested
+  @DisplayName("OCR 결과 캐시")
+  class OcrCache {
+
+    @Test
+    @DisplayName("같은 이미지와 프롬프트는 VLM을 다시 호출하지 않는다")
+    void shouldReuseCachedResult() {
+      final ParserProperties properties = properties();
+      properties.getVlm().getCache().setEnabled(true);
+      final VlmClient client = new VlmClient(properties);
+
+      assertThat(client.ocr(IMAGE, "prompt")).isEqualTo("text 1");
+      assertThat(client.ocr(IMAGE, "prompt")).isEqualTo("text 1");
+      assertThat(client.ocr(IMAGE, "other prompt")).isEqualTo("text 2");
+
+      assertThat(requests.get()).isEqualTo(2);
+      assertThat(client.getOcrCacheStats().memoryHits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("비활성화되면 매번 VLM을 호출한다")
+    void shouldCallEveryTimeWhenDisabled() {
+      final VlmClient client = new VlmClient(properties());
+
+      client.ocr(IMAGE, "prompt");
+      client.ocr(IMAGE, "prompt");
+
+      assertThat(requests.get()).isEqualTo(2);
+    }
+  }
+
+  @Nested
+  @DisplayName("ocrStream()")
+  class OcrStream {
+
+    @Test
+    @DisplayName("SSE 스트림의 텍스트 조각을 순서대로 반환하고 합친 결과를 캐시한다")
+    void shouldStreamChunks() {
+      final ParserProperties properties = properties();
+      properties.getVlm().getCache().setEnabled(true);
+      final VlmClient client = new VlmClient(properties);
+
+      assertThat(client.ocrStream(IMAGE, "prompt").collectList().block()).containsExactly("te", "xt ", "1");
+      assertThat(client.ocrStream(IMAGE, "prompt").collectList().block()).containsExactly("text 1");
+      assertThat(client.ocr(IMAGE, "prompt")).isEqualTo("text 1");
+      assertThat(requests.get()).isEqualTo(1);
+    }
+  }
+
+  @Nested
+  @DisplayName("ocrBatch()")
+  class OcrBatch {
+
+    @Test
+    @DisplayName("여러 이미지를 요청 하나로 OCR하고 응답을 페이지별로 나누어 묶음 요청의 키로 캐시한다")
+    void shouldSplitBatchedResponse() {
+      final ParserProperties properties = properties();
+      properties.getVlm().getCache().setEnabled(true);
+      final VlmClient client = new VlmClient(properties);
+
+      assertThat(client.ocrBatch(List.of(IMAGE, OTHER_IMAGE), "prompt")).containsExactly("page one", "page two");
+      assertThat(client.ocrBatch(List.of(IMAGE, OTHER_IMAGE), "prompt")).containsExactly("page one", "page two");
+      assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("묶음 결과는 프롬프트와 max_tokens가 다른 페이지 하나짜리 OCR에 쓰지 않는다")
+    void shouldNotReuseBatchResultForSinglePage() {
+      final ParserProperties properties = properties();
+      properties.getVlm().getCache().setEnabled(true);
+      final VlmClient client = new VlmClient(properties);
+
+      client.ocrBatch(List.of(IMAGE, OTHER_IMAGE), "prompt");
+
+      assertThat(client.ocr(OTHER_IMAGE, "prompt")).isEqualTo("text 2");
+      assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("응답을 페이지로 나누지 못하면 VlmBatchSplitException을 던지고, max_tokens는 max-batch-tokens를 넘지 않는다")
+    void shouldThrowWhenResponseCannotBeSplit() {
+      final ParserProperties properties = properties();
+      properties.getVlm().setMaxTokens(1000);
+      properties.getVlm().setMaxBatchTokens(2500);
+      final VlmClient client = new VlmClient(properties);
+
+      assertThatThrownBy(() -> client.ocrBatch(List.of(IMAGE, OTHER_IMAGE, "data:image/png;base64,dGhpcmQ="), "prompt"))
+          .isInstanceOf(VlmBatchSplitException.class);
+      assertThat(lastRequest.get()).contains("\"max_tokens\":2500");
+      assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("페이지 구분자가 빠졌거나 순서가 다르면 나누지 않는다")
+    void shouldRejectMalformedResponse() {
+      assertThat(VlmClient.splitPages("<<<PAGE 1>>>\na\n\n<<<PAGE 2>>>\nb", 2)).containsExactly("a", "b");
+      assertThat(VlmClient.splitPages("<<<PAGE 1>>>\na", 2)).isNull();
+      assertThat(VlmClient.splitPages("<<<PAGE 2>>>\na\n<<<PAGE 1>>>\nb", 2)).isNull();
+      assertThat(VlmClient.splitPages("intro\n<<<PAGE 1>>>\na\n<<<PAGE 2>>>\nb", 2)).isNull();
+    }
+  }
+}
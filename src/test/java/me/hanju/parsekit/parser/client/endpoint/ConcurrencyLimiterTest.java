@@ -0,0 +1,110 @@
+package me.hanju.parsekit.parser.client.endpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimiterTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Nested
+  @DisplayName("고정 제한")
+  class Fixed {
+
+    @Test
+    @DisplayName("제한에 도달하면 슬롯이 날 때까지 기다리고, 시간을 넘기면 포기한다")
+    void shouldWaitWithTimeout() throws InterruptedException {
+      final ConcurrencyLimiter limiter = ConcurrencyLimiter.fixed(1);
+
+      assertThat(limiter.tryAcquire()).isTrue();
+      assertThat(limiter.tryAcquire()).isFalse();
+      assertThat(limiter.acquire(TimeUnit.MILLISECONDS.toNanos(20))).isFalse();
+
+      final Thread releaser = new Thread(() -> {
+        sleep(20);
+        limiter.release(SECOND, true);
+      });
+      releaser.start();
+      assertThat(limiter.acquire(SECOND)).isTrue();
+      releaser.join();
+    }
+
+    @Test
+    @DisplayName("0이면 제한하지 않는다")
+    void shouldBeUnlimited() {
+      final ConcurrencyLimiter limiter = ConcurrencyLimiter.fixed(0);
+
+      for (int i = 0; i < 1000; i++) {
+        assertThat(limiter.tryAcquire()).isTrue();
+      }
+      assertThat(limiter.isUnlimited()).isTrue();
+    }
+  }
+
+  @Nested
+  @DisplayName("AIMD")
+  class Adaptive {
+
+    @Test
+    @DisplayName("제한을 채워 쓰는 동안 정상 응답이면 늘리고, 오류가 나면 줄인다")
+    void shouldIncreaseAndBackOff() {
+      final ConcurrencyLimiter limiter = ConcurrencyLimiter.adaptive(4, 1, 8, 0.5, 2.0);
+
+      for (int round = 0; round < 16; round++) {
+        final int limit = limiter.getLimit();
+        for (int i = 0; i < limit; i++) {
+          limiter.tryAcquire();
+        }
+        for (int i = 0; i < limit; i++) {
+          limiter.release(SECOND, true);
+        }
+      }
+      assertThat(limiter.getLimit()).isEqualTo(8);
+
+      limiter.tryAcquire();
+      limiter.release(SECOND, false);
+      assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("응답 시간이 평소의 latency-tolerance배를 넘으면 줄이고, 최소 제한 아래로는 줄이지 않는다")
+    void shouldBackOffOnSlowResponses() {
+      final ConcurrencyLimiter limiter = ConcurrencyLimiter.adaptive(4, 2, 8, 0.5, 2.0);
+      limiter.tryAcquire();
+      limiter.release(SECOND, true);
+
+      for (int i = 0; i < 3; i++) {
+        limiter.tryAcquire();
+        limiter.release(3 * SECOND, true);
+      }
+
+      assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("제한을 절반도 쓰지 않으면 늘리지 않는다")
+    void shouldNotIncreaseWhenUnderutilized() {
+      final ConcurrencyLimiter limiter = ConcurrencyLimiter.adaptive(8, 1, 32, 0.5, 2.0);
+
+      for (int i = 0; i < 100; i++) {
+        limiter.tryAcquire();
+        limiter.release(SECOND, true);
+      }
+
+      assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+  }
+
+  private static void sleep(final long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,272 @@
+package me.hanju.parsekit.parser.client.endpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import me.hanju.parsekit.common.exception.ServiceUnavailableException;
+import me.hanju.parsekit.parser.client.endpoint.CircuitBreaker.State;
+import me.hanju.parsekit.parser.client.endpoint.LoadBalancer.LoadBalancerType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class EndpointPoolTest {
+
+  private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+  private static Endpoint endpoint(final String url, final int failureThreshold) {
+    return new Endpoint(url, 1, ConcurrencyLimiter.fixed(0), new CircuitBreaker(failureThreshold, MINUTE));
+  }
+
+  private static EndpointPool<Endpoint> pool(final List<Endpoint> endpoints, final RetryBudget budget) {
+    return new EndpointPool<>("test", endpoints, endpoint -> endpoint,
+        LoadBalancer.create(LoadBalancerType.ROUND_ROBIN), Duration.ofSeconds(1), budget, 2);
+  }
+
+  private static WebClientResponseException response(final int status) {
+    return WebClientResponseException.create(status, "status " + status, null, null, null);
+  }
+
+  @Nested
+  @DisplayName("execute()")
+  class Execute {
+
+    @Test
+    @DisplayName("서버 오류가 나면 다른 서버로 다시 보낸다")
+    void shouldFailOverOnServerFailure() throws Exception {
+      final List<Endpoint> endpoints = List.of(endpoint("a", 5), endpoint("b", 5));
+      final List<String> tried = new ArrayList<>();
+
+      final String result = pool(endpoints, new RetryBudget(0.2, 1)).execute(endpoint -> {
+        tried.add(endpoint.getUrl());
+        if (tried.size() == 1) {
+          throw response(503);
+        }
+        return endpoint.getUrl();
+      }, EndpointPool::isServerFailure);
+
+      assertThat(tried).doesNotHaveDuplicates().hasSize(2);
+      assertThat(result).isEqualTo(tried.get(1));
+      assertThat(endpoints).extracting(endpoint -> endpoint.stats().failures()).containsExactlyInAnyOrder(1L, 0L);
+    }
+
+    @Test
+    @DisplayName("잘못된 요청(4xx)이나 재시도 예산이 없을 때는 다시 보내지 않는다")
+    void shouldNotRetryClientErrorsOrWithoutBudget() {
+      final List<Endpoint> endpoints = List.of(endpoint("a", 5), endpoint("b", 5));
+      final AtomicInteger attempts = new AtomicInteger();
+
+      assertThatThrownBy(() -> pool(endpoints, new RetryBudget(0.2, 1)).execute(endpoint -> {
+        attempts.incrementAndGet();
+        throw response(400);
+      }, EndpointPool::isServerFailure)).isInstanceOf(WebClientResponseException.BadRequest.class);
+      assertThat(endpoints).extracting(endpoint -> endpoint.stats().failures()).containsOnly(0L);
+
+      assertThatThrownBy(() -> pool(endpoints, new RetryBudget(0, 0)).execute(endpoint -> {
+        attempts.incrementAndGet();
+        throw response(502);
+      }, EndpointPool::isServerFailure)).isInstanceOf(WebClientResponseException.BadGateway.class);
+
+      assertThat(attempts.get()).isEqualTo(2);
+    }
+  }
+
+  @Nested
+  @DisplayName("executeStream()")
+  class ExecuteStream {
+
+    @Test
+    @DisplayName("첫 조각을 받기 전에 서버 오류가 나면 다른 서버로 다시 보낸다")
+    void shouldFailOverBeforeFirstChunk() {
+      final List<Endpoint> endpoints = List.of(endpoint("a", 5), endpoint("b", 5));
+      final List<String> tried = new ArrayList<>();
+
+      final List<String> chunks = pool(endpoints, new RetryBudget(0.2, 1)).executeStream(endpoint -> {
+        tried.add(endpoint.getUrl());
+        return tried.size() == 1
+            ? Flux.<String>error(response(503))
+            : Flux.just("a", "b");
+      }, EndpointPool::isServerFailure).collectList().block();
+
+      assertThat(chunks).containsExactly("a", "b");
+      assertThat(tried).doesNotHaveDuplicates().hasSize(2);
+      assertThat(endpoints).extracting(endpoint -> endpoint.stats().failures()).containsExactlyInAnyOrder(1L, 0L);
+      assertThat(endpoints).extracting(Endpoint::getOutstanding).containsOnly(0);
+    }
+
+    @Test
+    @DisplayName("조각을 받기 시작한 뒤의 오류나 재시도 예산이 없을 때는 다시 보내지 않는다")
+    void shouldNotRetryAfterFirstChunkOrWithoutBudget() {
+      final List<Endpoint> endpoints = List.of(endpoint("a", 5), endpoint("b", 5));
+      final AtomicInteger attempts = new AtomicInteger();
+
+      assertThatThrownBy(() -> pool(endpoints, new RetryBudget(0.2, 1)).executeStream(endpoint -> {
+        attempts.incrementAndGet();
+        return Flux.concat(Flux.just("a"), Flux.<String>error(response(502)));
+      }, EndpointPool::isServerFailure).collectList().block())
+          .isInstanceOf(WebClientResponseException.BadGateway.class);
+
+      assertThatThrownBy(() -> pool(endpoints, new RetryBudget(0, 0)).executeStream(endpoint -> {
+        attempts.incrementAndGet();
+        return Flux.<String>error(response(502));
+      }, EndpointPool::isServerFailure).collectList().block())
+          .isInstanceOf(WebClientResponseException.BadGateway.class);
+
+      assertThat(attempts.get()).isEqualTo(2);
+      assertThat(endpoints).extracting(Endpoint::getOutstanding).containsOnly(0);
+    }
+  }
+
+  @Nested
+  @DisplayName("executeHedged()")
+  class ExecuteHedged {
+
+    /**
+     * 헤지 시점을 정할 수 있도록 빠른 요청으로 응답 시간 표본을 채운다.
+     */
+    private static void warmUp(final EndpointPool<Endpoint> pool) throws Exception {
+      for (int i = 0; i < LatencyWindow.MIN_SAMPLES; i++) {
+        pool.execute(Endpoint::getUrl, EndpointPool::isServerFailure);
+      }
+    }
+
+    @Test
+    @DisplayName("첫 요청이 늦으면 다른 서버로 헤지 요청을 보내고 먼저 온 응답을 사용하며 늦은 요청은 취소한다")
+    void shouldHedgeSlowRequest() throws Exception {
+      final List<Endpoint> endpoints = List.of(endpoint("a", 5), endpoint("b", 5));
+      final EndpointPool<Endpoint> pool = pool(endpoints, new RetryBudget(0, 0));
+      warmUp(pool);
+      final List<String> tried = new ArrayList<>();
+      final AtomicInteger cancelled = new AtomicInteger();
+
+      final String result = pool.executeHedged(endpoint -> {
+        tried.add(endpoint.getUrl());
+        return tried.size() == 1
+            ? Mono.<String>never().doOnCancel(cancelled::incrementAndGet)
+            : Mono.just(endpoint.getUrl());
+      }, EndpointPool::isServerFailure, 0.95, new RetryBudget(1, 0));
+
+      assertThat(tried).doesNotHaveDuplicates().hasSize(2);
+      assertThat(result).isEqualTo(tried.get(1));
+      assertThat(cancelled.get()).isEqualTo(1);
+      assertThat(endpoints).extracting(Endpoint::getOutstanding).containsOnly(0);
+    }
+
+    @Test
+    @DisplayName("헤지 예산이 없으면 첫 요청을 기다린다")
+    void shouldWaitWithoutBudget() throws Exception {
+      final EndpointPool<Endpoint> pool = pool(List.of(endpoint("a", 5), endpoint("b", 5)), new RetryBudget(0, 0));
+      warmUp(pool);
+      final AtomicInteger attempts = new AtomicInteger();
+
+      final String result = pool.executeHedged(endpoint -> {
+        attempts.incrementAndGet();
+        return Mono.just(endpoint.getUrl()).delayElement(Duration.ofMillis(50));
+      }, EndpointPool::isServerFailure, 0.95, new RetryBudget(0, 0));
+
+      assertThat(result).isNotNull();
+      assertThat(attempts.get()).isEqualTo(1);
+    }
+  }
+
+  @Nested
+  @DisplayName("서킷 브레이커")
+  class Circuit {
+
+    @Test
+    @DisplayName("연속 오류로 열린 서버는 건너뛰고, 모든 서버가 열리면 503으로 실패한다")
+    void shouldSkipOpenEndpoints() throws Exception {
+      final Endpoint broken = endpoint("broken", 1);
+      final Endpoint healthy = endpoint("healthy", 1);
+      final EndpointPool<Endpoint> pool = pool(List.of(broken, healthy), new RetryBudget(0, 0));
+
+      broken.tryAcquire();
+      broken.release(System.nanoTime(), false);
+      assertThat(broken.getCircuitBreaker().getState()).isEqualTo(State.OPEN);
+
+      for (int i = 0; i < 4; i++) {
+        assertThat(pool.execute(Endpoint::getUrl, EndpointPool::isServerFailure)).isEqualTo("healthy");
+      }
+
+      healthy.tryAcquire();
+      healthy.release(System.nanoTime(), false);
+      assertThatThrownBy(() -> pool.execute(Endpoint::getUrl, EndpointPool::isServerFailure))
+          .isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    @Test
+    @DisplayName("헬스 체크가 성공하면 열린 서버로 다시 요청을 보낸다")
+    void shouldRecoverAfterHealthCheck() throws Exception {
+      final Endpoint endpoint = endpoint("a", 1);
+      endpoint.tryAcquire();
+      endpoint.release(System.nanoTime(), false);
+
+      try (EndpointPool<Endpoint> pool = pool(List.of(endpoint), new RetryBudget(0, 0))) {
+        pool.startHealthChecks(target -> Mono.empty(), Duration.ofMillis(10), Duration.ofSeconds(1));
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (endpoint.getCircuitBreaker().getState() == State.OPEN && System.nanoTime() < deadline) {
+          Thread.sleep(10);
+        }
+
+        assertThat(endpoint.getCircuitBreaker().getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(pool.execute(Endpoint::getUrl, EndpointPool::isServerFailure)).isEqualTo("a");
+        assertThat(endpoint.getCircuitBreaker().getState()).isEqualTo(State.CLOSED);
+      }
+    }
+
+    @Test
+    @DisplayName("HALF_OPEN에서는 동시에 요청해도 시험 요청 하나만 보내고, 시험 요청이 성공하면 다시 모두 보낸다")
+    void shouldAdmitSingleTrialWhenHalfOpen() throws Exception {
+      final AtomicLong clock = new AtomicLong();
+      final Endpoint endpoint = new Endpoint("a", 1, ConcurrencyLimiter.fixed(0),
+          new CircuitBreaker(1, MINUTE, clock::get));
+      endpoint.tryAcquire();
+      endpoint.release(System.nanoTime(), false);
+      clock.addAndGet(MINUTE);
+      assertThat(endpoint.getCircuitBreaker().getState()).isEqualTo(State.HALF_OPEN);
+
+      final CountDownLatch start = new CountDownLatch(1);
+      final ExecutorService executor = Executors.newFixedThreadPool(2);
+      try {
+        final List<Future<Boolean>> acquired = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+          acquired.add(executor.submit(() -> {
+            start.await();
+            return endpoint.tryAcquire();
+          }));
+        }
+        start.countDown();
+
+        int admitted = 0;
+        for (final Future<Boolean> result : acquired) {
+          admitted += result.get(5, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        assertThat(admitted).isEqualTo(1);
+      } finally {
+        executor.shutdownNow();
+      }
+      assertThat(endpoint.isAvailable()).isFalse();
+
+      endpoint.release(System.nanoTime(), true);
+      assertThat(endpoint.getCircuitBreaker().getState()).isEqualTo(State.CLOSED);
+      assertThat(endpoint.tryAcquire()).isTrue();
+      assertThat(endpoint.tryAcquire()).isTrue();
+    }
+  }
+}
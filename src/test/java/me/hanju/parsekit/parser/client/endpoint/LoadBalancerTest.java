@@ -0,0 +1,130 @@
+package me.hanju.parsekit.parser.client.endpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import me.hanju.parsekit.parser.client.endpoint.LoadBalancer.LoadBalancerType;
+
+class LoadBalancerTest {
+
+  private static int[] distribution(final LoadBalancer balancer, final List<Endpoint> endpoints, final int requests) {
+    final int[] counts = new int[endpoints.size()];
+    for (int i = 0; i < requests; i++) {
+      counts[balancer.select(endpoints)]++;
+    }
+    return counts;
+  }
+
+  /**
+   * 성공한 요청 하나를 기록하여 응답 시간 EWMA를 만든다.
+   */
+  private static void recordLatency(final Endpoint endpoint, final long latencyNanos) {
+    endpoint.tryAcquire();
+    endpoint.release(System.nanoTime() - latencyNanos, true);
+  }
+
+  private static void recordLatency(final Endpoint endpoint, final long latencyNanos, final AtomicLong clock) {
+    endpoint.tryAcquire();
+    endpoint.release(clock.get() - latencyNanos, true);
+  }
+
+  @Nested
+  @DisplayName("ROUND_ROBIN")
+  class RoundRobin {
+
+    @Test
+    @DisplayName("가중치 비율대로 고르게 나누어 선택한다")
+    void shouldFollowWeights() {
+      final List<Endpoint> endpoints = List.of(new Endpoint("a", 3, 0), new Endpoint("b", 1, 0));
+      final LoadBalancer balancer = LoadBalancer.create(LoadBalancerType.ROUND_ROBIN);
+
+      final int[] firstFour = new int[] { balancer.select(endpoints), balancer.select(endpoints),
+          balancer.select(endpoints), balancer.select(endpoints) };
+
+      assertThat(firstFour).containsExactly(0, 0, 1, 0);
+      assertThat(distribution(balancer, endpoints, 400)).containsExactly(300, 100);
+    }
+  }
+
+  @Nested
+  @DisplayName("LEAST_OUTSTANDING")
+  class LeastOutstanding {
+
+    @Test
+    @DisplayName("가중치 대비 진행 중인 요청이 가장 적은 서버를 선택한다")
+    void shouldSelectLeastLoaded() {
+      final Endpoint busy = new Endpoint("a", 1, 0);
+      final Endpoint strong = new Endpoint("b", 4, 0);
+      busy.tryAcquire();
+      strong.tryAcquire();
+      strong.tryAcquire();
+
+      assertThat(LoadBalancer.create(LoadBalancerType.LEAST_OUTSTANDING).select(List.of(busy, strong)))
+          .isEqualTo(1);
+    }
+  }
+
+  @Nested
+  @DisplayName("EWMA / P2C")
+  class LatencyAware {
+
+    @Test
+    @DisplayName("응답 시간이 짧은 서버를 선택하고, 응답 시간을 모르는 서버를 먼저 시도한다")
+    void shouldPreferFastEndpoints() {
+      final Endpoint slow = new Endpoint("slow", 1, 0);
+      final Endpoint fast = new Endpoint("fast", 1, 0);
+      final Endpoint unknown = new Endpoint("unknown", 1, 0);
+      recordLatency(slow, 2_000_000_000L);
+      recordLatency(fast, 200_000_000L);
+
+      final LoadBalancer ewma = LoadBalancer.create(LoadBalancerType.EWMA);
+      assertThat(ewma.select(List.of(slow, fast))).isEqualTo(1);
+      assertThat(ewma.select(List.of(slow, fast, unknown))).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("P2C는 두 서버 중 비용이 낮은 서버를 선택하므로 가장 느린 서버는 선택하지 않는다")
+    void shouldNeverSelectWorstEndpoint() {
+      final Endpoint slow = new Endpoint("slow", 1, 0);
+      final Endpoint medium = new Endpoint("medium", 1, 0);
+      final Endpoint fast = new Endpoint("fast", 1, 0);
+      recordLatency(slow, 3_000_000_000L);
+      recordLatency(medium, 1_000_000_000L);
+      recordLatency(fast, 100_000_000L);
+
+      final int[] counts = distribution(LoadBalancer.create(LoadBalancerType.P2C), List.of(slow, medium, fast), 600);
+
+      assertThat(counts[0]).isZero();
+      assertThat(counts[2]).isGreaterThan(counts[1]);
+    }
+
+    @Test
+    @DisplayName("요청을 받지 못한 느린 서버의 응답 시간은 시간이 지나면 줄어들어 다시 선택된다")
+    void shouldRetrySlowEndpointAfterDecay() {
+      final AtomicLong clock = new AtomicLong();
+      final Endpoint slow = new Endpoint("slow", 1, ConcurrencyLimiter.fixed(0), CircuitBreaker.disabled(), clock::get);
+      final Endpoint fast = new Endpoint("fast", 1, ConcurrencyLimiter.fixed(0), CircuitBreaker.disabled(), clock::get);
+      recordLatency(slow, 2_000_000_000L, clock);
+      recordLatency(fast, 200_000_000L, clock);
+
+      final LoadBalancer ewma = LoadBalancer.create(LoadBalancerType.EWMA);
+      assertThat(ewma.select(List.of(slow, fast))).isEqualTo(1);
+
+      // 빠른 서버만 계속 요청을 받는 동안 느린 서버의 응답 시간은 줄어든다
+      for (int second = 1; second <= 30; second++) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        recordLatency(fast, 200_000_000L, clock);
+      }
+
+      assertThat(slow.getEwmaLatencyNanos()).isLessThan(fast.getEwmaLatencyNanos());
+      assertThat(ewma.select(List.of(slow, fast))).isZero();
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package me.hanju.parsekit.parser.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import me.hanju.parsekit.common.PageSelection;
+import me.hanju.parsekit.parser.dto.ParseEvent;
+import me.hanju.parsekit.parser.dto.ParseResult;
+import me.hanju.parsekit.parser.service.IParserService;
+
+class ParserControllerTest {
+
+  private static final MockMultipartFile FILE = new MockMultipartFile("file", "doc.pdf", "application/pdf",
+      "%PDF-1.4".getBytes(StandardCharsets.US_ASCII));
+
+  /**
+   * 첫 페이지를 전달한 뒤 입출력 오류로 실패하는 파서.
+   */
+  private static final IParserService FAILING_PARSER = new IParserService() {
+    @Override
+    public ParseResult parse(final byte[] content, final String filename, final int dpi, final PageSelection pages) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ParseResult parseStream(final byte[] content, final String filename, final int dpi,
+        final PageSelection pages, final Consumer<ParseEvent> events) {
+      events.accept(ParseEvent.page(1, "# page 1"));
+      throw new UncheckedIOException("Failed to store embedded images", new IOException("No space left on device"));
+    }
+  };
+
+  private static ParserController controller(final IParserService parserService) {
+    return new ParserController(parserService, null, null, new ObjectMapper());
+  }
+
+  @Nested
+  @DisplayName("parseStream()")
+  class ParseStream {
+
+    @Test
+    @DisplayName("파싱 중 발생한 입출력 오류는 error 이벤트로 전달한다")
+    void shouldEmitErrorEventForParseIoFailure() throws IOException {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+      controller(FAILING_PARSER).parseStream(FILE, 150, null).getBody().writeTo(out);
+
+      final String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+      assertThat(lines).hasSize(2);
+      assertThat(lines[0]).contains("\"type\":\"page\"");
+      assertThat(lines[1]).contains("\"type\":\"error\"", "Failed to store embedded images");
+    }
+
+    @Test
+    @DisplayName("응답을 쓰지 못하면 클라이언트 연결이 끊긴 것으로 보고 더 쓰지 않는다")
+    void shouldStopOnClientDisconnect() throws IOException {
+      final OutputStream closed = new OutputStream() {
+        @Override
+        public void write(final int b) throws IOException {
+          throw new IOException("Broken pipe");
+        }
+      };
+
+      controller(FAILING_PARSER).parseStream(FILE, 150, null).getBody().writeTo(closed);
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package me.hanju.parsekit.parser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import me.hanju.parsekit.common.PageSelection;
+import me.hanju.parsekit.parser.client.DoclingClient;
+import me.hanju.parsekit.parser.client.VlmClient;
+import me.hanju.parsekit.parser.config.ParserProperties;
+import me.hanju.parsekit.parser.dto.OcrStats;
+import me.hanju.parsekit.parser.dto.ParseResult;
+import me.hanju.parsekit.parser.exception.VlmClientException;
+
+class HybridParserServiceTest {
+
+  /** 대체 텍스트별 OCR 지연 시간. 동시에 OCR하는 두 이미지 중 앞의 이미지가 늦게 끝나고, img-3은 실패한다. */
+  private static final Map<String, Long> DELAYS = Map.of("img-1", 500L, "img-2", 200L, "img-3", 150L, "img-4", 50L);
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private final List<String> completed = new CopyOnWriteArrayList<>();
+
+  private HybridParserService service(final int concurrency) {
+    final ParserProperties properties = new ParserProperties();
+    properties.getVlm().setEmbeddedImageConcurrency(concurrency);
+    final VlmClient vlmClient = new VlmClient(properties) {
+      /** img-4는 캐시에 있는 것으로 본다 */
+      @Override
+      public boolean isCached(final String base64EncodedUri, final String prompt) {
+        return prompt.contains("img-4");
+      }
+
+      @Override
+      public String ocr(final String base64EncodedUri, final String prompt) {
+        final String altText = DELAYS.keySet().stream().filter(prompt::contains).findFirst().orElseThrow();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(DELAYS.get(altText));
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          inFlight.decrementAndGet();
+          completed.add(altText);
+        }
+        if (altText.equals("img-3")) {
+          throw new VlmClientException("VLM server failed", null);
+        }
+        return "text of " + altText;
+      }
+    };
+    return new HybridParserService(new DoclingClient(properties), vlmClient, null, properties,
+        new ImagePreprocessor(properties), new ImageDeduplicator(properties));
+  }
+
+  private static String image(final String altText) {
+    return "![" + altText + "](data:image/png;base64,"
+        + Base64.getEncoder().encodeToString(altText.getBytes(StandardCharsets.UTF_8)) + ")";
+  }
+
+  @Nested
+  @DisplayName("parse() - 마크다운의 embedded 이미지")
+  class EmbeddedImages {
+
+    @Test
+    @DisplayName("이미지를 embedded-image-concurrency개까지 동시에 OCR하고, 늦게 끝나도 결과를 원래 위치에 넣고 실패한 이미지는 되돌린다")
+    void shouldKeepImageOrder() {
+      final String markdown = "# 문서\n\n" + image("img-1") + "\n\n" + image("img-2") + "\n\n본문\n\n"
+          + image("img-3") + "\n\n" + image("img-4") + "\n";
+
+      final ParseResult result = service(2).parse(markdown.getBytes(StandardCharsets.UTF_8), "doc.md", 0,
+          PageSelection.ALL);
+
+      assertThat(result.markdown()).isEqualTo("# 문서\n\ntext of img-1\n\ntext of img-2\n\n본문\n\n"
+          + image("img-3") + "\n\ntext of img-4\n");
+      assertThat(completed).containsExactly("img-2", "img-1", "img-4", "img-3");
+      assertThat(maxInFlight.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("OCR 통계의 VLM 호출 수에는 캐시 결과와 실패한 OCR을 넣지 않는다")
+    void shouldCountOnlyVlmCalls() {
+      final String markdown = image("img-1") + "\n\n" + image("img-3") + "\n\n" + image("img-4") + "\n";
+
+      final OcrStats stats = service(2).parse(markdown.getBytes(StandardCharsets.UTF_8), "doc.md", 0,
+          PageSelection.ALL).ocr();
+
+      assertThat(stats).isEqualTo(new OcrStats(3, 1, 1, 0));
+    }
+  }
+}
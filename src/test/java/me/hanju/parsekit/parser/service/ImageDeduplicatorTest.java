@@ -0,0 +1,100 @@
+package me.hanju.parsekit.parser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import me.hanju.parsekit.parser.config.ParserProperties;
+
+class ImageDeduplicatorTest {
+
+  private static ImageDeduplicator deduplicator(final boolean perceptual) {
+    final ParserProperties properties = new ParserProperties();
+    properties.getVlm().getDedup().setPerceptual(perceptual);
+    return new ImageDeduplicator(properties);
+  }
+
+  private static byte[] logo(final int width, final int height, final Color color, final String format)
+      throws IOException {
+    return logo(width, height, color, format, false);
+  }
+
+  /**
+   * 사각형과 원이 있는 로고 이미지를 만든다.
+   *
+   * @param mirrored 좌우를 뒤집어 그린다
+   */
+  private static byte[] logo(final int width, final int height, final Color color, final String format,
+      final boolean mirrored) throws IOException {
+    final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    final Graphics2D graphics = image.createGraphics();
+    graphics.setColor(Color.WHITE);
+    graphics.fillRect(0, 0, width, height);
+    if (mirrored) {
+      graphics.translate(width, 0);
+      graphics.scale(-1, 1);
+    }
+    graphics.setColor(color);
+    graphics.fillRect(width / 10, height / 10, width / 3, height / 2);
+    graphics.fillOval(width / 2, height / 4, width / 3, height / 2);
+    graphics.dispose();
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(image, format, out);
+    return out.toByteArray();
+  }
+
+  @Nested
+  @DisplayName("representatives()")
+  class Representatives {
+
+    @Test
+    @DisplayName("내용이 같은 이미지는 처음 나온 이미지를 대표로 묶는다")
+    void shouldGroupExactDuplicates() throws IOException {
+      final byte[] logo = logo(200, 100, Color.BLUE, "png");
+      final byte[] other = logo(200, 100, Color.RED, "png");
+
+      final int[] representatives = deduplicator(false).representatives(
+          List.of(logo, other, logo.clone(), other), List.of("p", "p", "p", "p"));
+
+      assertThat(representatives).containsExactly(0, 1, 0, 1);
+    }
+
+    @Test
+    @DisplayName("프롬프트가 다르거나 디코딩에 실패한 이미지는 묶지 않는다")
+    void shouldNotGroupDifferentPromptsOrInvalidImages() throws IOException {
+      final byte[] logo = logo(200, 100, Color.BLUE, "png");
+
+      final int[] representatives = deduplicator(false).representatives(
+          Arrays.asList(logo, logo, null, null), List.of("a", "b", "a", "a"));
+
+      assertThat(representatives).containsExactly(0, 1, 2, 3);
+    }
+
+    @Test
+    @DisplayName("perceptual 옵션이 켜지면 크기와 형식이 달라진 같은 이미지도 묶는다")
+    void shouldGroupPerceptualDuplicates() throws IOException {
+      final byte[] original = logo(400, 200, Color.BLUE, "png");
+      final byte[] resized = logo(200, 100, Color.BLUE, "jpeg");
+      final byte[] different = logo(400, 200, Color.BLUE, "png", true);
+      final List<String> prompts = List.of("p", "p", "p");
+
+      assertThat(deduplicator(false).representatives(List.of(original, resized, different), prompts))
+          .containsExactly(0, 1, 2);
+      assertThat(deduplicator(true).representatives(List.of(original, resized, different), prompts))
+          .containsExactly(0, 0, 2);
+    }
+  }
+}
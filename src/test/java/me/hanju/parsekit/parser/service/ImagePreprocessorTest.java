@@ -0,0 +1,134 @@
+package me.hanju.parsekit.parser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import me.hanju.parsekit.parser.config.ParserProperties;
+import me.hanju.parsekit.parser.service.ImagePreprocessor.ImageKind;
+import me.hanju.parsekit.parser.service.ImagePreprocessor.PreparedImage;
+import me.hanju.parsekit.parser.service.ImagePreprocessor.Report;
+
+class ImagePreprocessorTest {
+
+  private static ImagePreprocessor preprocessor(final int maxLongEdge, final boolean grayscale, final String format) {
+    final ParserProperties properties = new ParserProperties();
+    properties.getVlm().getPreprocess().setEnabled(true);
+    properties.getVlm().getPreprocess().setMaxLongEdge(maxLongEdge);
+    properties.getVlm().getPreprocess().setGrayscale(grayscale);
+    properties.getVlm().getPreprocess().setFormat(format);
+    return new ImagePreprocessor(properties);
+  }
+
+  /**
+   * 글자가 있는 페이지처럼 보이도록 흰 바탕에 색이 있는 선을 그린 PNG를 만든다.
+   */
+  private static byte[] pagePng(final int width, final int height) throws IOException {
+    final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    final Graphics2D graphics = image.createGraphics();
+    graphics.setColor(Color.WHITE);
+    graphics.fillRect(0, 0, width, height);
+    final Random random = new Random(42);
+    for (int y = 20; y < height; y += 24) {
+      graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+      graphics.fillRect(20, y, 20 + random.nextInt(width - 60), 10);
+    }
+    graphics.dispose();
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(image, "png", out);
+    return out.toByteArray();
+  }
+
+  /**
+   * 사진처럼 색이 부드럽게 변하는 PNG를 만든다.
+   */
+  private static byte[] photoPng(final int width, final int height) throws IOException {
+    final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    final Random random = new Random(42);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        final int r = (x * 255 / width + random.nextInt(8)) & 0xFF;
+        final int g = (y * 255 / height + random.nextInt(8)) & 0xFF;
+        image.setRGB(x, y, (r << 16) | (g << 8) | 0x80);
+      }
+    }
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(image, "png", out);
+    return out.toByteArray();
+  }
+
+  @Nested
+  @DisplayName("prepare()")
+  class Prepare {
+
+    @Test
+    @DisplayName("긴 변을 줄이고 JPEG으로 재인코딩하며 줄어든 용량을 기록한다")
+    void shouldResizeAndRecompress() throws IOException {
+      final ImagePreprocessor preprocessor = preprocessor(1000, false, "jpeg");
+      final Report report = preprocessor.newReport();
+      final byte[] original = photoPng(1240, 1754);
+
+      final PreparedImage prepared = preprocessor.prepare(original, "image/png", ImageKind.PAGE, report);
+
+      final BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(prepared.content()));
+      assertThat(prepared.mimeType()).isEqualTo("image/jpeg");
+      assertThat(Math.max(decoded.getWidth(), decoded.getHeight())).isEqualTo(1000);
+      assertThat(report.savedBytes()).isEqualTo(original.length - prepared.content().length).isPositive();
+    }
+
+    @Test
+    @DisplayName("JPEG이 오히려 크면 줄인 이미지를 원본 형식으로 인코딩한다")
+    void shouldFallBackToOriginalFormat() throws IOException {
+      final ImagePreprocessor preprocessor = preprocessor(1000, false, "jpeg");
+      final byte[] original = pagePng(2480, 3508);
+
+      final PreparedImage prepared = preprocessor.prepare(original, "image/png", ImageKind.PAGE,
+          preprocessor.newReport());
+
+      final BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(prepared.content()));
+      assertThat(Math.max(decoded.getWidth(), decoded.getHeight())).isEqualTo(1000);
+      assertThat(prepared.content().length).isLessThan(original.length);
+    }
+
+    @Test
+    @DisplayName("흑백 변환은 페이지 이미지에만 적용한다")
+    void shouldGrayscaleOnlyPages() throws IOException {
+      final ImagePreprocessor preprocessor = preprocessor(0, true, "png");
+      final byte[] original = pagePng(400, 300);
+
+      final PreparedImage page = preprocessor.prepare(original, "image/png", ImageKind.PAGE,
+          preprocessor.newReport());
+      final PreparedImage embedded = preprocessor.prepare(original, "image/png", ImageKind.EMBEDDED,
+          preprocessor.newReport());
+
+      assertThat(ImageIO.read(new ByteArrayInputStream(page.content())).getColorModel().getNumColorComponents())
+          .isEqualTo(1);
+      assertThat(embedded.content()).isSameAs(original);
+    }
+
+    @Test
+    @DisplayName("디코딩할 수 없는 이미지나 비활성화 상태에서는 원본을 그대로 사용한다")
+    void shouldKeepOriginal() {
+      final byte[] invalid = { 1, 2, 3 };
+
+      assertThat(preprocessor(1000, true, "jpeg")
+          .prepare(invalid, "image/png", ImageKind.PAGE, new Report()).content()).isSameAs(invalid);
+      assertThat(new ImagePreprocessor(new ParserProperties())
+          .prepare(invalid, "image/png", ImageKind.PAGE, new Report()).content()).isSameAs(invalid);
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package me.hanju.parsekit.parser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import me.hanju.parsekit.common.PageSelection;
+import me.hanju.parsekit.parser.config.ParserProperties;
+import me.hanju.parsekit.parser.service.PdfTextLayerService.TextLayer;
+
+class PdfTextLayerServiceTest {
+
+  private static final String SENTENCE = "The quick brown fox jumps over the lazy dog near the river bank.";
+
+  private PdfTextLayerService service;
+
+  @BeforeEach
+  void setUp() {
+    final ParserProperties properties = new ParserProperties();
+    properties.getVlm().getTextLayer().setEnabled(true);
+    service = new PdfTextLayerService(properties);
+  }
+
+  /**
+   * 텍스트가 있는 페이지와 빈 페이지가 번갈아 나오는 PDF를 만든다.
+   */
+  private static byte[] buildDocument(final int pages) throws IOException {
+    try (PDDocument document = new PDDocument()) {
+      for (int i = 1; i <= pages; i++) {
+        final PDPage page = new PDPage();
+        document.addPage(page);
+        if (i % 2 == 1) {
+          try (PDPageContentStream stream = new PDPageContentStream(document, page)) {
+            stream.beginText();
+            stream.setFont(PDType1Font.HELVETICA, 12);
+            stream.newLineAtOffset(72, 700);
+            stream.showText("Page " + i + ": " + SENTENCE);
+            stream.endText();
+          }
+        }
+      }
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      document.save(out);
+      return out.toByteArray();
+    }
+  }
+
+  @Nested
+  @DisplayName("analyze()")
+  class Analyze {
+
+    @Test
+    @DisplayName("텍스트 레이어가 있는 페이지만 반환한다")
+    void shouldReturnPagesWithText() throws IOException {
+      final TextLayer textLayer = service.analyze(buildDocument(4), PageSelection.ALL);
+
+      assertThat(textLayer.totalPages()).isEqualTo(4);
+      assertThat(textLayer.textPages()).containsOnlyKeys(1, 3);
+      assertThat(textLayer.textPages().get(3)).contains("Page 3", "lazy dog");
+    }
+
+    @Test
+    @DisplayName("선택된 페이지만 검사한다")
+    void shouldOnlyInspectSelectedPages() throws IOException {
+      final TextLayer textLayer = service.analyze(buildDocument(4), PageSelection.parse("2-3"));
+
+      assertThat(textLayer.textPages()).containsOnlyKeys(3);
+    }
+
+    @Test
+    @DisplayName("PDF를 읽을 수 없으면 null을 반환한다")
+    void shouldReturnNullForInvalidPdf() {
+      assertThat(service.analyze(new byte[] { 1, 2, 3 }, PageSelection.ALL)).isNull();
+    }
+  }
+
+  @Nested
+  @DisplayName("isUsable()")
+  class IsUsable {
+
+    @Test
+    @DisplayName("글자 수가 부족하거나 깨진 글자가 많으면 사용하지 않는다")
+    void shouldRejectShortOrBrokenText() {
+      assertThat(service.isUsable(SENTENCE)).isTrue();
+      assertThat(service.isUsable("Page 1")).isFalse();
+      assertThat(service.isUsable("\uFFFD".repeat(40) + SENTENCE)).isFalse();
+    }
+  }
+}
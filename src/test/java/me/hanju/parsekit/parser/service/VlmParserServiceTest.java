@@ -0,0 +1,123 @@
+package me.hanju.parsekit.parser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import me.hanju.parsekit.common.PageSelection;
+import me.hanju.parsekit.converter.config.ConverterProperties;
+import me.hanju.parsekit.converter.service.PopplerConverterService;
+import me.hanju.parsekit.converter.service.PopplerConverterService.PageImage;
+import me.hanju.parsekit.parser.client.VlmClient;
+import me.hanju.parsekit.parser.config.ParserProperties;
+
+class VlmParserServiceTest {
+
+  private static final String SENTENCE = "The quick brown fox jumps over the lazy dog near the river bank.";
+  /** 텍스트 레이어가 있는 페이지 */
+  private static final List<Integer> TEXT_PAGES = List.of(1, 4);
+  /** 페이지별 OCR 지연 시간. 앞의 페이지일수록 늦게 끝난다. */
+  private static final Map<Integer, Long> DELAYS = Map.of(2, 300L, 3, 100L, 5, 50L);
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private final List<Integer> completed = new CopyOnWriteArrayList<>();
+
+  private VlmParserService service(final int pageConcurrency) {
+    final ParserProperties properties = new ParserProperties();
+    properties.getVlm().setPageConcurrency(pageConcurrency);
+    properties.getVlm().getTextLayer().setEnabled(true);
+
+    // 페이지 이미지 대신 페이지 번호를 담은 바이트를 돌려준다
+    final PopplerConverterService popplerConverter = new PopplerConverterService(new ConverterProperties(), null) {
+      @Override
+      public Stream<PageImage> streamPdfToImages(final byte[] pdfBytes, final String format, final int dpi,
+          final PageSelection pages) {
+        return pages.resolve(5).stream()
+            .flatMap(range -> IntStream.rangeClosed(range.first(), range.last()).boxed())
+            .map(page -> new PageImage(page, format, String.valueOf(page).getBytes(StandardCharsets.UTF_8), 5));
+      }
+    };
+    final VlmClient vlmClient = new VlmClient(properties) {
+      @Override
+      public String ocr(final String base64EncodedUri, final String prompt) {
+        final int page = Integer.parseInt(new String(Base64.getDecoder().decode(
+            base64EncodedUri.substring(base64EncodedUri.indexOf(',') + 1)), StandardCharsets.UTF_8));
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(DELAYS.get(page));
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          inFlight.decrementAndGet();
+          completed.add(page);
+        }
+        return "ocr of page " + page;
+      }
+    };
+    return new VlmParserService(vlmClient, null, null, popplerConverter, properties,
+        new PdfTextLayerService(properties), new ImagePreprocessor(properties));
+  }
+
+  /**
+   * TEXT_PAGES에만 텍스트가 있는 다섯 페이지 PDF를 만든다.
+   */
+  private static byte[] buildDocument() throws IOException {
+    try (PDDocument document = new PDDocument()) {
+      for (int i = 1; i <= 5; i++) {
+        final PDPage page = new PDPage();
+        document.addPage(page);
+        if (TEXT_PAGES.contains(i)) {
+          try (PDPageContentStream stream = new PDPageContentStream(document, page)) {
+            stream.beginText();
+            stream.setFont(PDType1Font.HELVETICA, 12);
+            stream.newLineAtOffset(72, 700);
+            stream.showText("Page " + i + ": " + SENTENCE);
+            stream.endText();
+          }
+        }
+      }
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      document.save(out);
+      return out.toByteArray();
+    }
+  }
+
+  @Nested
+  @DisplayName("parse() - PDF")
+  class ParsePdf {
+
+    @Test
+    @DisplayName("페이지를 page-concurrency개까지 동시에 OCR하고, 늦게 끝나도 텍스트 레이어 페이지와 함께 페이지 순서대로 합친다")
+    void shouldMergePagesInOrder() throws IOException {
+      final String markdown = service(2).parse(buildDocument(), "doc.pdf", 150, PageSelection.ALL).markdown();
+
+      final String[] pages = markdown.split("\n\n---\n\n");
+      assertThat(pages).hasSize(5);
+      assertThat(pages[0]).contains("Page 1:", "lazy dog");
+      assertThat(pages[1]).isEqualTo("ocr of page 2");
+      assertThat(pages[2]).isEqualTo("ocr of page 3");
+      assertThat(pages[3]).contains("Page 4:", "lazy dog");
+      assertThat(pages[4]).isEqualTo("ocr of page 5");
+      assertThat(completed).containsExactly(3, 2, 5);
+      assertThat(maxInFlight.get()).isEqualTo(2);
+    }
+  }
+}